@@ -0,0 +1,50 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.codec.BoardCodec;
+
+/**
+ * 基准测试使用的固定题库，按难度分组，保证不同引擎、不同版本之间的结果可比。
+ */
+public enum Corpus {
+    /** 只靠唯一候选数即可解出的常见题目 */
+    EASY(
+            "53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79",
+            "...26.7.168..7..9.19...45..82.1...4...46.29...5...3.28..93...74.4..5..367.3.18...",
+            "..3.2.6..9..3.5..1..18.64....81.29..7.......8..67.82....26.95..8..2.3..9..5.1.3.."
+    ),
+    /** 需要大量猜测的著名难题（Easter Monster、AI Escargot、Arto Inkala 2012 等） */
+    HARD(
+            "1.......2.9.4...5...6...7...5.9.3.......7.......85..4.7.....6...3...9.8...2.....1",
+            "1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..",
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..",
+            "52...6.........7.13...........4..8..6......5...........418.........3..2...87....."
+    ),
+    /**
+     * 专门针对按行列顺序、从 1 试到 9 的朴素回溯构造的题目：首行答案是 987654321，
+     * 朴素回溯需要数秒到十几秒。
+     */
+    ADVERSARIAL(
+            "..............3.85..1.2.......5.7.....4...1...9.......5......73..2.1........4...9",
+            "4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......"
+    );
+
+    private final String[] puzzles;
+
+    Corpus(String... puzzles) {
+        this.puzzles = puzzles;
+    }
+
+    public String[] puzzles() {
+        return puzzles.clone();
+    }
+
+    public int[][][] grids() {
+        int[][][] out = new int[puzzles.length][][];
+        for (int i = 0; i < puzzles.length; i++) out[i] = BoardCodec.parse81(puzzles[i]);
+        return out;
+    }
+
+    static void copy(int[][] from, int[][] to) {
+        for (int r = 0; r < 9; r++) System.arraycopy(from[r], 0, to[r], 0, 9);
+    }
+}
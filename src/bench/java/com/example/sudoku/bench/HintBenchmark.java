@@ -0,0 +1,69 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.hint.CandidateGrid;
+import com.example.sudoku.hint.Step;
+import com.example.sudoku.hint.StepSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用提示一步步把整盘填完（直到技巧无法推进）的开销：
+ * 每次提示都从当前盘面重建候选数（无状态接口），对比在同一个候选数盘面上增量推进（会话接口）。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HintBenchmark {
+
+    @Param({"EASY", "HARD"})
+    private Corpus corpus;
+
+    private int[][][] grids;
+    private int next;
+
+    @Setup
+    public void setup() {
+        grids = corpus.grids();
+    }
+
+    @Benchmark
+    public int rebuildEachHint() {
+        int[][] g = copy(grids[next++ % grids.length]);
+        int placed = 0;
+        while (true) {
+            CandidateGrid cg = CandidateGrid.of(g);
+            Step step = nextPlacement(cg);
+            if (step == null) return placed;
+            g[step.getCell() / 9][step.getCell() % 9] = step.getDigit();
+            placed++;
+        }
+    }
+
+    @Benchmark
+    public int incremental() {
+        CandidateGrid cg = CandidateGrid.of(grids[next++ % grids.length]);
+        int placed = 0;
+        while (true) {
+            Step step = nextPlacement(cg);
+            if (step == null) return placed;
+            cg.place(step.getCell(), step.getDigit());
+            placed++;
+        }
+    }
+
+    private static Step nextPlacement(CandidateGrid cg) {
+        Step step;
+        while ((step = StepSolver.next(cg)) != null && !step.isPlacement()) step.apply(cg);
+        return step;
+    }
+
+    private static int[][] copy(int[][] g) {
+        int[][] out = new int[9][];
+        for (int r = 0; r < 9; r++) out[r] = g[r].clone();
+        return out;
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.SudokuApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP 压测：在随机端口上启动整个应用，按输入格式依次回放题库，统计吞吐、延迟分位数与服务端求解指标，
+ * 结果写成 JSON 文件，便于不同构建之间对比。
+ * <p>
+ * 运行：{@code mvn -Pbench test-compile exec:exec@load -Dload.args="concurrency=8 duration=30"}。
+ * 参数为 {@code key=value}：
+ * <ul>
+ *     <li>{@code formats}：逗号分隔的输入格式，默认 {@code board,boardData,directMap}，另可选 puzzle、text、packed</li>
+ *     <li>{@code corpus}：逗号分隔的 {@link Corpus} 名称，或每行一个 81 字符盘面的文件路径，默认 {@code EASY,HARD}</li>
+ *     <li>{@code concurrency}：并发连接数，默认 8</li>
+ *     <li>{@code rate}：每秒发出的请求数，0 表示每个连接收到响应后立即发下一个，默认 0</li>
+ *     <li>{@code warmup} / {@code duration}：每种格式的预热与测量秒数，默认 5 / 20</li>
+ *     <li>{@code out}：结果文件，默认 {@code target/load/load-<时间>.json}</li>
+ *     <li>{@code baseline}：上一次的结果文件，给出时输出各格式吞吐与延迟分位数的变化</li>
+ * </ul>
+ * 以 {@code --} 开头的参数原样传给应用，如 {@code --sudoku.execution.offload=true}。
+ * 默认关闭求解缓存、持久化存储与后台题目生成，测量的是完整求解路径。
+ * <p>
+ * 指定 rate 时延迟从计划发出的时刻算起，服务端变慢导致的排队也计入延迟，不会因为发得少而显得更快。
+ */
+public final class LoadTest {
+
+    /** 以命令行参数传入才能覆盖 application.properties；同名的 {@code --} 参数优先 */
+    private static final String[] APP_DEFAULTS = {
+            "--server.port=0",
+            "--sudoku.cache.enabled=false",
+            "--sudoku.store.enabled=false",
+            "--sudoku.generator.enabled=false",
+            "--sudoku.trace.summary-enabled=false"
+    };
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("formats", "board,boardData,directMap");
+        options.put("corpus", "EASY,HARD");
+        options.put("concurrency", "8");
+        options.put("rate", "0");
+        options.put("warmup", "5");
+        options.put("duration", "20");
+        options.put("out", "target/load/load-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+        options.put("baseline", "");
+        Map<String, String> appArgs = new LinkedHashMap<>();
+        for (String arg : APP_DEFAULTS) appArgs.put(arg.substring(0, arg.indexOf('=')), arg);
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int eq = arg.indexOf('=');
+                appArgs.put(eq < 0 ? arg : arg.substring(0, eq), arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0 || !options.containsKey(arg.substring(0, eq))) {
+                throw new IllegalArgumentException("未知参数: " + arg + "，可用参数 " + options.keySet());
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+
+        String[] formats = options.get("formats").split(",");
+        List<String> puzzles = loadCorpus(options.get("corpus"));
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        double rate = Double.parseDouble(options.get("rate"));
+        int warmup = Integer.parseInt(options.get("warmup"));
+        int duration = Integer.parseInt(options.get("duration"));
+        // HttpURLConnection 默认每个目标只保留 5 个空闲连接，超出的连接每次请求都要重新建立
+        System.setProperty("http.maxConnections", String.valueOf(concurrency));
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX").format(new Date()));
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("processors", Runtime.getRuntime().availableProcessors());
+        report.put("options", options);
+        report.put("appArgs", appArgs.values());
+        report.put("puzzles", puzzles.size());
+        List<Map<String, Object>> results = new ArrayList<>();
+        report.put("results", results);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SudokuApplication.class)
+                .run(appArgs.values().toArray(new String[0]));
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            URL url = new URL("http://localhost:" + port + "/api/sudoku/verify?conflicts=first");
+            System.out.printf("应用已启动，端口 %d；%d 个盘面，并发 %d，速率 %s%n",
+                    port, puzzles.size(), concurrency, rate > 0 ? rate + "/s" : "不限");
+
+            byte[][][] bodies = new byte[formats.length][puzzles.size()][];
+            for (int f = 0; f < formats.length; f++) {
+                for (int i = 0; i < puzzles.size(); i++) {
+                    bodies[f][i] = RequestBodies.encode(mapper, formats[f], puzzles.get(i));
+                }
+            }
+            // 先把所有格式都预热一遍，避免排在前面的格式替后面的格式承担 JIT 编译
+            for (int f = 0; f < formats.length; f++) {
+                drive(url, RequestBodies.contentType(formats[f]), bodies[f], concurrency, rate, warmup);
+            }
+
+            for (int f = 0; f < formats.length; f++) {
+                String format = formats[f];
+                ServerStats before = ServerStats.read(registry, format);
+                Run run = drive(url, RequestBodies.contentType(format), bodies[f], concurrency, rate, duration);
+                ServerStats after = ServerStats.read(registry, format);
+
+                Map<String, Object> result = run.toMap(format, duration);
+                result.put("server", after.minus(before));
+                results.add(result);
+                System.out.printf("%-10s %8.1f req/s  p50 %7.2f ms  p99 %7.2f ms  p999 %7.2f ms  错误 %s%n",
+                        format, run.count / (double) duration, run.percentileMs(0.50), run.percentileMs(0.99),
+                        run.percentileMs(0.999), run.errors);
+            }
+        } finally {
+            context.close();
+        }
+
+        File out = new File(options.get("out"));
+        if (out.getParentFile() != null) Files.createDirectories(out.getParentFile().toPath());
+        mapper.writeValue(out, report);
+        System.out.println("结果已写入 " + out.getPath());
+
+        if (!options.get("baseline").isEmpty()) {
+            compare(mapper.readTree(new File(options.get("baseline"))), mapper.valueToTree(report));
+        }
+    }
+
+    private static List<String> loadCorpus(String spec) throws IOException {
+        List<String> puzzles = new ArrayList<>();
+        for (String name : spec.split(",")) {
+            File file = new File(name);
+            if (file.isFile()) {
+                for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) puzzles.add(line);
+                }
+            } else {
+                puzzles.addAll(Arrays.asList(Corpus.valueOf(name).puzzles()));
+            }
+        }
+        if (puzzles.isEmpty()) throw new IllegalArgumentException("题库为空: " + spec);
+        return puzzles;
+    }
+
+    /**
+     * 以 concurrency 个连接持续发送请求 seconds 秒，按顺序轮流使用 bodies。
+     */
+    private static Run drive(URL url, String contentType, byte[][] bodies, int concurrency, double rate,
+                             int seconds) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        double interval = rate > 0 ? 1e9 / rate : 0;
+        AtomicLong sequence = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        List<Future<Run>> futures = new ArrayList<>();
+        for (int t = 0; t < concurrency; t++) {
+            futures.add(pool.submit(() -> {
+                Run run = new Run();
+                while (true) {
+                    long n = sequence.getAndIncrement();
+                    long planned = interval > 0 ? start + (long) (n * interval) : System.nanoTime();
+                    if (planned >= deadline) break;
+                    long wait = planned - System.nanoTime();
+                    if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+                    int code = post(url, contentType, bodies[(int) (n % bodies.length)]);
+                    run.record(System.nanoTime() - planned, code);
+                }
+                return run;
+            }));
+        }
+        Run total = new Run();
+        try {
+            for (Future<Run> f : futures) total.merge(f.get());
+        } finally {
+            pool.shutdownNow();
+        }
+        return total;
+    }
+
+    /**
+     * 发送一个请求并读完响应体（读完后连接才能复用），返回状态码；连接失败返回 -1。
+     */
+    private static int post(URL url, String contentType, byte[] body) {
+        try {
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            conn.setConnectTimeout(30_000);
+            conn.setReadTimeout(30_000);
+            conn.setDoOutput(true);
+            conn.setRequestMethod("POST");
+            conn.setRequestProperty("Content-Type", contentType);
+            conn.setFixedLengthStreamingMode(body.length);
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(body);
+            }
+            int code = conn.getResponseCode();
+            InputStream in = code < 400 ? conn.getInputStream() : conn.getErrorStream();
+            if (in != null) {
+                byte[] buf = new byte[8192];
+                while (in.read(buf) >= 0) {
+                    // 丢弃响应内容
+                }
+                in.close();
+            }
+            return code;
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    private static void compare(JsonNode baseline, JsonNode current) {
+        System.out.println("与基线 " + baseline.path("timestamp").asText() + " 对比：");
+        for (JsonNode result : current.path("results")) {
+            String format = result.path("format").asText();
+            for (JsonNode old : baseline.path("results")) {
+                if (!format.equals(old.path("format").asText())) continue;
+                System.out.printf("%-10s 吞吐 %+6.1f%%  p50 %+6.1f%%  p99 %+6.1f%%  p999 %+6.1f%%%n", format,
+                        change(old.path("throughput"), result.path("throughput")),
+                        change(old.path("latencyMs").path("p50"), result.path("latencyMs").path("p50")),
+                        change(old.path("latencyMs").path("p99"), result.path("latencyMs").path("p99")),
+                        change(old.path("latencyMs").path("p999"), result.path("latencyMs").path("p999")));
+            }
+        }
+    }
+
+    private static double change(JsonNode before, JsonNode after) {
+        return before.asDouble() == 0 ? 0 : (after.asDouble() / before.asDouble() - 1) * 100;
+    }
+
+    /**
+     * 一个连接（或合并后的全部连接）的延迟样本与非 200 状态码计数。
+     */
+    private static final class Run {
+        private long[] latencies = new long[1 << 12];
+        private int count;
+        /** 非 200 的状态码及次数，-1 表示连接或读写失败 */
+        private final Map<Integer, Integer> errors = new TreeMap<>();
+
+        void record(long nanos, int code) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+            if (code != 200) errors.merge(code, 1, Integer::sum);
+        }
+
+        void merge(Run other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            other.errors.forEach((code, n) -> errors.merge(code, n, Integer::sum));
+            Arrays.sort(latencies, 0, count);
+        }
+
+        /** 最近秩法取分位数，调用前样本已在 merge 中排好序 */
+        double percentileMs(double p) {
+            if (count == 0) return 0;
+            int rank = (int) Math.ceil(p * count) - 1;
+            return latencies[Math.max(0, Math.min(count - 1, rank))] / 1e6;
+        }
+
+        Map<String, Object> toMap(String format, int seconds) {
+            long sum = 0;
+            for (int i = 0; i < count; i++) sum += latencies[i];
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("mean", count == 0 ? 0 : round(sum / 1e6 / count));
+            latency.put("p50", round(percentileMs(0.50)));
+            latency.put("p90", round(percentileMs(0.90)));
+            latency.put("p99", round(percentileMs(0.99)));
+            latency.put("p999", round(percentileMs(0.999)));
+            latency.put("max", round(percentileMs(1.0)));
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("format", format);
+            result.put("requests", count);
+            result.put("throughput", round(count / (double) seconds));
+            result.put("latencyMs", latency);
+            result.put("errors", errors);
+            return result;
+        }
+    }
+
+    /**
+     * 服务端指标快照，测量前后各取一次，相减得到本轮的增量。
+     */
+    private static final class ServerStats {
+        private double requests;
+        private double requestSeconds;
+        private double solves;
+        private double nodes;
+        private double backtracks;
+        private double solveSeconds;
+        private double uniqueCount;
+        private double uniqueSeconds;
+        private double parallel;
+        private final Map<String, Double> outcomes = new TreeMap<>();
+
+        static ServerStats read(MeterRegistry registry, String format) {
+            ServerStats s = new ServerStats();
+            for (Timer t : registry.find("sudoku.verify.requests").tag("format", format).timers()) {
+                s.requests += t.count();
+                s.requestSeconds += t.totalTime(TimeUnit.SECONDS);
+            }
+            DistributionSummary nodes = registry.find("sudoku.solver.nodes").summary();
+            if (nodes != null) {
+                s.solves = nodes.count();
+                s.nodes = nodes.totalAmount();
+            }
+            DistributionSummary backtracks = registry.find("sudoku.solver.backtracks").summary();
+            if (backtracks != null) s.backtracks = backtracks.totalAmount();
+            Timer solve = registry.find("sudoku.verify.phase").tag("phase", "solve").timer();
+            if (solve != null) s.solveSeconds = solve.totalTime(TimeUnit.SECONDS);
+            Timer unique = registry.find("sudoku.verify.phase").tag("phase", "unique").timer();
+            if (unique != null) {
+                s.uniqueCount = unique.count();
+                s.uniqueSeconds = unique.totalTime(TimeUnit.SECONDS);
+            }
+            Counter parallel = registry.find("sudoku.solver.parallel").counter();
+            if (parallel != null) s.parallel = parallel.count();
+            for (Counter c : registry.find("sudoku.verify.outcomes").counters()) {
+                s.outcomes.put(c.getId().getTag("outcome"), c.count());
+            }
+            return s;
+        }
+
+        Map<String, Object> minus(ServerStats before) {
+            double solveCount = solves - before.solves;
+            double requestCount = requests - before.requests;
+            double uniqueRuns = uniqueCount - before.uniqueCount;
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("requests", (long) requestCount);
+            out.put("requestMeanMs", requestCount == 0 ? 0 : round((requestSeconds - before.requestSeconds) * 1e3 / requestCount));
+            out.put("solves", (long) solveCount);
+            out.put("nodesPerSolve", solveCount == 0 ? 0 : round((nodes - before.nodes) / solveCount));
+            out.put("backtracksPerSolve", solveCount == 0 ? 0 : round((backtracks - before.backtracks) / solveCount));
+            out.put("solveMeanMs", solveCount == 0 ? 0 : round((solveSeconds - before.solveSeconds) * 1e3 / solveCount));
+            out.put("uniqueMeanMs", uniqueRuns == 0 ? 0 : round((uniqueSeconds - before.uniqueSeconds) * 1e3 / uniqueRuns));
+            out.put("parallel", (long) (parallel - before.parallel));
+            Map<String, Long> outcomeDelta = new TreeMap<>();
+            outcomes.forEach((k, v) -> {
+                long d = (long) (v - before.outcomes.getOrDefault(k, 0.0));
+                if (d != 0) outcomeDelta.put(k, d);
+            });
+            out.put("outcomes", outcomeDelta);
+            return out;
+        }
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.service.SudokuService;
+import com.example.sudoku.solver.NxNSolver;
+import com.example.sudoku.solver.SolveAbortedException;
+import com.example.sudoku.solver.SolveBudget;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各尺寸盘面（4x4、9x9、16x16、25x25）上 {@link NxNSolver} 的求解、数到 2 个解以及重复性检查的开销。
+ * <p>
+ * 9x9 使用 HARD 题库；其他尺寸由固定种子生成：先按公式得到终盘，随机打乱数字和带内的行，再随机挖空。
+ * 随机挖空的大盘面在一定密度附近会出现极难的个例，生成时跳过超过节点上限的题目，保证每轮结果可比。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NxNBenchmark {
+
+    private static final int BOARDS = 8;
+    private static final long MAX_NODES = 20_000;
+
+    @Param({"4", "9", "16", "25"})
+    private int side;
+
+    private int[][][] grids;
+    private int[][] work;
+    private NxNSolver solver;
+    private int next;
+
+    @Setup
+    public void setup() {
+        solver = new NxNSolver(side);
+        work = new int[side][side];
+        grids = side == 9 ? Corpus.HARD.grids() : generate(side);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        copy(grids[next++ % grids.length], work);
+        return solver.solve(work, null);
+    }
+
+    @Benchmark
+    public int countSolutions() {
+        copy(grids[next++ % grids.length], work);
+        return solver.countSolutions(work, 2, null);
+    }
+
+    @Benchmark
+    public boolean basicCheck() {
+        return SudokuService.basicCheckWithPositions(grids[next++ % grids.length]).isValid();
+    }
+
+    static int[][][] generate(int side) {
+        int box = (int) Math.round(Math.sqrt(side));
+        // 挖空密度避开各尺寸最难的区间：16x16 约 45% 已知数时仍较难，25x25 在 45%~50% 附近最难
+        double keep = side == 4 ? 0.3 : side == 16 ? 0.45 : 0.55;
+        Random rnd = new Random(side);
+        NxNSolver check = new NxNSolver(side);
+        List<int[][]> out = new ArrayList<>();
+        while (out.size() < BOARDS) {
+            int[][] g = puzzle(box, keep, rnd);
+            int[][] probe = new int[side][side];
+            copy(g, probe);
+            try {
+                if (check.solve(probe, new SolveBudget(MAX_NODES, 0, 0, null))) out.add(g);
+            } catch (SolveAbortedException ex) {
+                // 超过节点上限，换一题
+            }
+        }
+        return out.toArray(new int[0][][]);
+    }
+
+    private static int[][] puzzle(int box, double keep, Random rnd) {
+        int side = box * box;
+        int[] digits = shuffled(side, rnd);
+        int[] rows = new int[side];
+        for (int band = 0; band < box; band++) {
+            int[] order = shuffled(box, rnd);
+            for (int k = 0; k < box; k++) rows[band * box + k] = band * box + order[k];
+        }
+        int[][] g = new int[side][side];
+        for (int r = 0; r < side; r++) {
+            int rr = rows[r];
+            for (int c = 0; c < side; c++) {
+                if (rnd.nextDouble() < keep) g[r][c] = digits[((rr % box) * box + rr / box + c) % side] + 1;
+            }
+        }
+        return g;
+    }
+
+    private static int[] shuffled(int n, Random rnd) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1), t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+        return a;
+    }
+
+    private static void copy(int[][] from, int[][] to) {
+        for (int r = 0; r < from.length; r++) System.arraycopy(from[r], 0, to[r], 0, from.length);
+    }
+}
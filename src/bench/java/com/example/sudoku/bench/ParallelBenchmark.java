@@ -0,0 +1,58 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.solver.NxNSolver;
+import com.example.sudoku.solver.ParallelSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个复杂盘面并行搜索的延迟随线程数（{@code threads}）的变化；{@code threads=0} 为单线程 {@link NxNSolver} 作为基准。
+ * 在多核机器上运行才有意义，数到 2 个解，与 verify 中的唯一性统计一致。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelBenchmark {
+
+    @Param({"9", "16"})
+    private int side;
+
+    @Param({"0", "1", "2", "4", "8"})
+    private int threads;
+
+    private int[][][] grids;
+    private ForkJoinPool pool;
+    private ParallelSolver parallel;
+    private int next;
+
+    @Setup
+    public void setup() {
+        grids = side == 9 ? Corpus.HARD.grids() : NxNBenchmark.generate(side);
+        if (threads > 0) {
+            pool = new ForkJoinPool(threads);
+            parallel = new ParallelSolver(pool);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) pool.shutdownNow();
+    }
+
+    @Benchmark
+    public int countSolutions() {
+        int[][] g = copy(grids[next++ % grids.length]);
+        return parallel == null ? new NxNSolver(side).countSolutions(g, 2, null) : parallel.countSolutions(g, 2, null, null);
+    }
+
+    private static int[][] copy(int[][] g) {
+        int[][] out = new int[g.length][];
+        for (int r = 0; r < g.length; r++) out[r] = g[r].clone();
+        return out;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.codec.BoardCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各种请求格式从原始字节到 int[][] 盘面的解析开销。
+ * JSON 格式包含 Jackson 反序列化为 Map 的成本，与 verify 接口实际路径一致。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    private static final String PUZZLE =
+            "53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79";
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] boardJson;
+    private byte[] boardDataJson;
+    private byte[] directMapJson;
+    private byte[] puzzleJson;
+    private byte[] text;
+    private byte[] packed;
+
+    @Setup
+    public void setup() throws Exception {
+        int[][] grid = BoardCodec.parse81(PUZZLE);
+        Map<String, Integer> cells = new HashMap<>();
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                if (grid[r][c] != 0) cells.put((r + 1) + "_" + (c + 1), grid[r][c]);
+            }
+        }
+        Map<String, Object> board = new HashMap<>();
+        board.put("board", grid);
+        Map<String, Object> boardData = new HashMap<>();
+        boardData.put("boardData", cells);
+        Map<String, Object> puzzle = new HashMap<>();
+        puzzle.put("puzzle", PUZZLE);
+
+        boardJson = mapper.writeValueAsBytes(board);
+        boardDataJson = mapper.writeValueAsBytes(boardData);
+        directMapJson = mapper.writeValueAsBytes(cells);
+        puzzleJson = mapper.writeValueAsBytes(puzzle);
+        text = PUZZLE.getBytes(StandardCharsets.US_ASCII);
+        packed = BoardCodec.pack(grid);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public int[][] board() throws Exception {
+        Map<String, Object> body = mapper.readValue(boardJson, MAP_TYPE);
+        return BoardCodec.toGrid((List<List<Integer>>) body.get("board"));
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public int[][] boardData() throws Exception {
+        Map<String, Object> body = mapper.readValue(boardDataJson, MAP_TYPE);
+        return BoardCodec.toGridFromMap(BoardCodec.toCellMap((Map<String, Object>) body.get("boardData")));
+    }
+
+    @Benchmark
+    public int[][] directMap() throws Exception {
+        Map<String, Object> body = mapper.readValue(directMapJson, MAP_TYPE);
+        if (!BoardCodec.isDirectMapFormat(body)) throw new IllegalStateException();
+        return BoardCodec.toGridFromMap(BoardCodec.toCellMap(body));
+    }
+
+    @Benchmark
+    public int[][] puzzleJson() throws Exception {
+        Map<String, Object> body = mapper.readValue(puzzleJson, MAP_TYPE);
+        return BoardCodec.parse81((String) body.get("puzzle"));
+    }
+
+    @Benchmark
+    public int[][] text81() {
+        return BoardCodec.parse81(new String(text, StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public int[][] packed() {
+        return BoardCodec.unpack(packed);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.codec.BoardCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 把 81 字符盘面编码为 verify 接口各输入格式的请求体，{@link VerifyBenchmark} 与 {@link LoadTest} 共用。
+ */
+final class RequestBodies {
+
+    private RequestBodies() {}
+
+    static byte[] encode(ObjectMapper mapper, String format, String puzzle) throws JsonProcessingException {
+        int[][] grid = BoardCodec.parse81(puzzle);
+        Map<String, Integer> cells = new HashMap<>();
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                if (grid[r][c] != 0) cells.put((r + 1) + "_" + (c + 1), grid[r][c]);
+            }
+        }
+        Map<String, Object> body = new HashMap<>();
+        switch (format) {
+            case "board":
+                body.put("board", grid);
+                return mapper.writeValueAsBytes(body);
+            case "boardData":
+                body.put("boardData", cells);
+                return mapper.writeValueAsBytes(body);
+            case "directMap":
+                return mapper.writeValueAsBytes(cells);
+            case "puzzle":
+                body.put("puzzle", puzzle);
+                return mapper.writeValueAsBytes(body);
+            case "text":
+                return puzzle.getBytes(StandardCharsets.UTF_8);
+            case "packed":
+                return BoardCodec.pack(grid);
+            default:
+                throw new IllegalArgumentException("未知格式: " + format);
+        }
+    }
+
+    static String contentType(String format) {
+        switch (format) {
+            case "text":
+                return "text/plain";
+            case "packed":
+                return "application/octet-stream";
+            default:
+                return "application/json";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.solver.Grid81;
+import com.example.sudoku.solver.SolverEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各求解引擎在不同难度题目上的吞吐与延迟分布。
+ * 朴素回溯在 ADVERSARIAL 上每次求解需要数秒，只比较新引擎时可加 {@code -p engine=BITMASK,DLX}。
+ * {@code solveFlat} 直接使用 {@link Grid81} 的一维盘面，配合 {@code -prof gc} 可确认搜索本身不分配内存。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    @Param({"BITMASK", "DLX", "BACKTRACKING"})
+    private SolverEngine engine;
+
+    @Param({"EASY", "HARD", "ADVERSARIAL"})
+    private Corpus corpus;
+
+    private int[][][] grids;
+    private final int[][] work = new int[9][9];
+    private int[][] flats;
+    private final int[] flatWork = new int[Grid81.CELLS];
+    private int next;
+
+    @Setup
+    public void setup() {
+        grids = corpus.grids();
+        flats = new int[grids.length][];
+        for (int i = 0; i < grids.length; i++) flats[i] = Grid81.flatten(grids[i]);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        Corpus.copy(grids[next++ % grids.length], work);
+        return engine.solve(work);
+    }
+
+    @Benchmark
+    public boolean solveFlat() {
+        System.arraycopy(flats[next++ % flats.length], 0, flatWork, 0, Grid81.CELLS);
+        return engine.solve(flatWork, null, null);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.solver.DlxSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * verify 中每次都要执行的唯一性检查（DLX 数到 2 个解）的开销。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class UniquenessBenchmark {
+
+    @Param({"EASY", "HARD", "ADVERSARIAL"})
+    private Corpus corpus;
+
+    private int[][][] grids;
+    private final int[][] work = new int[9][9];
+    private final DlxSolver dlx = new DlxSolver();
+    private int next;
+
+    @Setup
+    public void setup() {
+        grids = corpus.grids();
+    }
+
+    @Benchmark
+    public int countSolutions() {
+        Corpus.copy(grids[next++ % grids.length], work);
+        return dlx.countSolutions(work, 2);
+    }
+}
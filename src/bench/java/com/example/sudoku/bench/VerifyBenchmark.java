@@ -0,0 +1,87 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.cache.SolutionCache;
+import com.example.sudoku.cache.SolutionStore;
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.controller.SudokuController;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.service.SudokuService;
+import com.example.sudoku.service.VerifyDispatcher;
+import com.example.sudoku.trace.TraceLogger;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * verify 接口端到端：请求体反序列化、解析、校验、求解、唯一性检查与响应序列化，
+ * 按输入格式分别统计。不经过 HTTP 层，日志输出到空 appender（见 logback-test.xml）。
+ * 默认关闭求解缓存以测量完整求解路径，可用 {@code -p cache=true} 测量缓存命中路径。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class VerifyBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {};
+
+    @Param({"board", "boardData", "directMap", "puzzle", "text", "packed"})
+    private String format;
+
+    @Param({"EASY", "HARD"})
+    private Corpus corpus;
+
+    @Param({"false"})
+    private boolean cache;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private SudokuController controller;
+    private byte[][] bodies;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        SudokuProperties properties = new SudokuProperties();
+        properties.getCache().setEnabled(cache);
+        SolutionCache solutionCache = new SolutionCache(properties);
+        // 持久化存储默认关闭，不会打开文件
+        SolutionStore solutionStore = new SolutionStore(properties);
+        SudokuMetrics metrics = new SudokuMetrics(new SimpleMeterRegistry(), solutionCache, solutionStore);
+        SudokuService service = new SudokuService(properties, solutionCache, solutionStore, metrics,
+                ForkJoinPool.commonPool());
+        // 不开启 offload，直接在基准线程上求解
+        VerifyDispatcher dispatcher = new VerifyDispatcher(service, null, properties, metrics);
+        controller = new SudokuController(dispatcher, null, null, solutionCache, solutionStore, new TraceLogger(properties), metrics, null);
+
+        String[] puzzles = corpus.puzzles();
+        bodies = new byte[puzzles.length][];
+        for (int i = 0; i < puzzles.length; i++) bodies[i] = RequestBodies.encode(mapper, format, puzzles[i]);
+    }
+
+    @Benchmark
+    public byte[] verify() throws Exception {
+        byte[] body = bodies[next++ % bodies.length];
+        // 同步模式下控制器返回 ResponseEntity
+        Object response;
+        switch (format) {
+            case "text":
+                response = controller.verifyText(new String(body, StandardCharsets.UTF_8), "first");
+                break;
+            case "packed":
+                response = controller.verifyPacked(body, "first");
+                break;
+            default:
+                response = controller.verify(mapper.readValue(body, MAP_TYPE), "first");
+        }
+        return mapper.writeValueAsBytes(((ResponseEntity<?>) response).getBody());
+    }
+}
@@ -1,14 +1,14 @@
 package com.example.sudoku;
 
+import com.example.sudoku.config.SudokuProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties(SudokuProperties.class)
 public class SudokuApplication {
     public static void main(String[] args) {
         SpringApplication.run(SudokuApplication.class, args);
     }
 }
-
-
-
@@ -0,0 +1,172 @@
+package com.example.sudoku.cache;
+
+import com.example.sudoku.codec.BoardCodec;
+import com.example.sudoku.solver.Grid81;
+
+import java.util.Arrays;
+
+/**
+ * 在数独对称变换下把盘面化为规范形式，使等价的题目得到同一个缓存键。
+ * <p>
+ * 考虑的变换为：转置（2 种）× 行带排列（6 种）× 列栈排列（6 种）× 数字重编号。
+ * 数字按在规范顺序中首次出现的先后重新编号，72 种位置变换中取字典序最小者。
+ * 带内行、栈内列的排列未纳入（会使候选数扩大 6^6 倍），因此这只是部分规范化：
+ * 等价题目不一定都能命中同一项，但命中时映射回的解一定正确。
+ */
+public final class BoardCanonicalizer {
+
+    private static final int CELLS = 81;
+    private static final int[][] PERMS = {
+            {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+    };
+    private static final int[] IDENTITY_DIGITS = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+    private static final int TRANSFORMS = 2 * PERMS.length * PERMS.length;
+    /** SOURCE[t][p]：在变换 t 下，规范盘面第 p 格来自原盘面的哪一格 */
+    private static final int[][] SOURCE = new int[TRANSFORMS][CELLS];
+
+    static {
+        int t = 0;
+        for (int transpose = 0; transpose < 2; transpose++) {
+            for (int[] bands : PERMS) {
+                for (int[] stacks : PERMS) {
+                    for (int p = 0; p < CELLS; p++) {
+                        int r = bands[p / 27] * 3 + (p / 9) % 3;
+                        int c = stacks[(p % 9) / 3] * 3 + p % 3;
+                        SOURCE[t][p] = transpose == 0 ? r * 9 + c : c * 9 + r;
+                    }
+                    t++;
+                }
+            }
+        }
+    }
+
+    private BoardCanonicalizer() {}
+
+    /**
+     * 不做任何变换，仅把盘面打包为缓存键。
+     */
+    public static Canonical identity(int[][] g) {
+        return identity(Grid81.flatten(g));
+    }
+
+    /**
+     * 同 {@link #identity(int[][])}，盘面为一维 81 格表示。
+     */
+    public static Canonical identity(int[] cells) {
+        return new Canonical(new BoardKey(BoardCodec.pack(cells)), SOURCE[0], IDENTITY_DIGITS);
+    }
+
+    public static Canonical canonicalize(int[][] g) {
+        return canonicalize(Grid81.flatten(g));
+    }
+
+    /**
+     * 同 {@link #canonicalize(int[][])}，盘面为一维 81 格表示，cells 不会被修改。
+     */
+    public static Canonical canonicalize(int[] cells) {
+        int[] best = new int[CELLS];
+        int[] candidate = new int[CELLS];
+        int[] map = new int[10];
+        int bestTransform = -1;
+        for (int t = 0; t < TRANSFORMS; t++) {
+            int[] source = SOURCE[t];
+            Arrays.fill(map, 0);
+            int next = 1;
+            // 0：目前与 best 相同；-1：已经比 best 小
+            int cmp = bestTransform < 0 ? -1 : 0;
+            boolean worse = false;
+            for (int p = 0; p < CELLS; p++) {
+                int v = cells[source[p]];
+                if (v != 0) {
+                    if (map[v] == 0) map[v] = next++;
+                    v = map[v];
+                }
+                if (cmp == 0) {
+                    if (v > best[p]) {
+                        worse = true;
+                        break;
+                    }
+                    if (v < best[p]) cmp = -1;
+                }
+                candidate[p] = v;
+            }
+            if (!worse && cmp < 0) {
+                int[] tmp = best;
+                best = candidate;
+                candidate = tmp;
+                bestTransform = t;
+            }
+        }
+
+        // 重建最优变换的数字映射，未出现的数字按原值升序补到剩余编号上
+        int[] source = SOURCE[bestTransform];
+        int[] digitMap = new int[10];
+        int next = 1;
+        for (int p = 0; p < CELLS; p++) {
+            int v = cells[source[p]];
+            if (v != 0 && digitMap[v] == 0) digitMap[v] = next++;
+        }
+        for (int d = 1; d <= 9; d++) {
+            if (digitMap[d] == 0) digitMap[d] = next++;
+        }
+
+        return new Canonical(new BoardKey(BoardCodec.pack(best)), source, digitMap);
+    }
+
+    /**
+     * 规范形式及其对应的变换，用于在原盘面与规范盘面之间转换解。
+     */
+    public static final class Canonical {
+        private final BoardKey key;
+        private final int[] source;
+        private final int[] digitMap;
+
+        Canonical(BoardKey key, int[] source, int[] digitMap) {
+            this.key = key;
+            this.source = source;
+            this.digitMap = digitMap;
+        }
+
+        public BoardKey getKey() { return key; }
+
+        /**
+         * 把原盘面上的解变换到规范坐标并打包。
+         */
+        public byte[] toCanonical(int[][] solution) {
+            return toCanonical(Grid81.flatten(solution));
+        }
+
+        /**
+         * 同 {@link #toCanonical(int[][])}，解为一维 81 格表示。
+         */
+        public byte[] toCanonical(int[] solution) {
+            byte[] out = new byte[BoardCodec.PACKED_BYTES];
+            for (int p = 0; p < CELLS; p++) {
+                int v = digitMap[solution[source[p]]];
+                out[p >> 1] |= (p & 1) == 0 ? v << 4 : v;
+            }
+            return out;
+        }
+
+        /**
+         * 把打包的规范解映射回原盘面坐标与数字。
+         */
+        public int[][] fromCanonical(byte[] packed) {
+            return Grid81.toRows(fromCanonicalCells(packed));
+        }
+
+        /**
+         * 同 {@link #fromCanonical}，还原为 {@link Grid81} 的一维盘面。
+         */
+        public int[] fromCanonicalCells(byte[] packed) {
+            int[] inverse = new int[10];
+            for (int d = 1; d <= 9; d++) inverse[digitMap[d]] = d;
+            int[] out = new int[CELLS];
+            for (int p = 0; p < CELLS; p++) {
+                int b = packed[p >> 1];
+                out[source[p]] = inverse[(p & 1) == 0 ? (b >> 4) & 0xF : b & 0xF];
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.sudoku.cache;
+
+import java.util.Arrays;
+
+/**
+ * 以 41 字节二进制盘面作为缓存键，哈希值在构造时算好。
+ */
+public final class BoardKey {
+    private final byte[] packed;
+    private final int hash;
+
+    public BoardKey(byte[] packed) {
+        this.packed = packed;
+        this.hash = Arrays.hashCode(packed);
+    }
+
+    public byte[] getPacked() { return packed; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardKey)) return false;
+        BoardKey other = (BoardKey) o;
+        return hash == other.hash && Arrays.equals(packed, other.packed);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.sudoku.cache;
+
+import com.example.sudoku.config.SudokuProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已求解盘面的 LRU 缓存，键为规范化后的二进制盘面，值为规范坐标下的解。
+ * 容量由 {@code sudoku.cache.max-size} 限制，超出时淘汰最久未访问的项。
+ * <p>
+ * 按键的哈希值分成若干段，每段是一个独立加锁的访问顺序 {@link LinkedHashMap}，容量平分。
+ * 批量与流式求解的工作线程查到不同段时互不等待；淘汰在段内按 LRU 进行，整体是近似 LRU。
+ */
+@Component
+public class SolutionCache {
+
+    /** 段数上限，实际段数为不超过容量的 2 的幂 */
+    private static final int MAX_SEGMENTS = 16;
+
+    private final boolean enabled;
+    private final boolean canonicalize;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SolutionCache(SudokuProperties properties) {
+        SudokuProperties.Cache cache = properties.getCache();
+        this.enabled = cache.isEnabled() && cache.getMaxSize() > 0;
+        this.canonicalize = cache.isCanonicalize();
+        int maxSize = Math.max(1, cache.getMaxSize());
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maxSize));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // 余数分给前几段，各段容量之和正好等于 maxSize
+            segments[i] = new Segment(maxSize / count + (i < maxSize % count ? 1 : 0), evictions);
+        }
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * 计算盘面的缓存键；关闭规范化时直接使用原盘面。
+     */
+    public BoardCanonicalizer.Canonical keyOf(int[][] grid) {
+        return canonicalize ? BoardCanonicalizer.canonicalize(grid) : BoardCanonicalizer.identity(grid);
+    }
+
+    /**
+     * 同 {@link #keyOf(int[][])}，盘面为一维 81 格表示。
+     */
+    public BoardCanonicalizer.Canonical keyOf(int[] cells) {
+        return canonicalize ? BoardCanonicalizer.canonicalize(cells) : BoardCanonicalizer.identity(cells);
+    }
+
+    public Entry get(BoardKey key) {
+        Segment segment = segmentFor(key);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+        }
+        if (entry == null) misses.increment();
+        else hits.increment();
+        return entry;
+    }
+
+    public void put(BoardKey key, Entry entry) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(BoardKey key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+
+    /** 一段缓存，调用方持有该对象的锁后才能访问 */
+    private static final class Segment extends LinkedHashMap<BoardKey, Entry> {
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BoardKey, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 缓存的求解结果；solution 为 null 表示无解。
+     */
+    public static final class Entry {
+        private final byte[] solution;
+        private final Boolean unique;
+
+        public Entry(byte[] solution, Boolean unique) {
+            this.solution = solution;
+            this.unique = unique;
+        }
+
+        public static Entry unsolvable() {
+            return new Entry(null, null);
+        }
+
+        public boolean isSolvable() { return solution != null; }
+        public byte[] getSolution() { return solution; }
+        public Boolean getUnique() { return unique; }
+    }
+}
@@ -0,0 +1,440 @@
+package com.example.sudoku.cache;
+
+import com.example.sudoku.codec.BoardCodec;
+import com.example.sudoku.config.SudokuProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 持久化的求解结果存储，与 {@link SolutionCache} 使用同一个键，进程重启后无需预热即可命中。
+ * <p>
+ * 数据文件 {@code solutions.dat} 只追加定长记录：41 字节盘面 + 41 字节解 + 1 字节标志（可解、是否唯一）。
+ * 索引文件 {@code solutions.idx} 是内存映射的开放寻址哈希表，每个槽 8 字节（键的哈希值、记录号 + 1），
+ * 装载率不超过一半。查询只读映射的索引，命中后按记录号读一次数据文件核对盘面并取出解；
+ * 启动时直接映射已有的两个文件，不在堆上重建任何结构。
+ * <p>
+ * 同一盘面再次写入（如唯一性从未知变为已知）时追加新记录并改指索引，旧记录成为垃圾。
+ * 压缩只保留索引指向的记录并按需扩大索引；索引写满时自动压缩。
+ * 两个文件的头部记录同一个代号，不一致（如压缩中途退出）时才从数据文件重建索引。
+ * <p>
+ * 写入不逐条 fsync：进程崩溃不丢数据，操作系统崩溃可能丢失最近的记录，丢失的只是缓存。
+ */
+@Component
+public class SolutionStore implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolutionStore.class);
+
+    private static final int DATA_MAGIC = 0x53444B44;
+    private static final int INDEX_MAGIC = 0x53444B49;
+    private static final int VERSION = 1;
+    /** 数据文件头：魔数、版本、代号 */
+    private static final int DATA_HEADER = 16;
+    /** 索引文件头：魔数、版本、代号、槽数、记录数 */
+    private static final int INDEX_HEADER = 24;
+    private static final int INDEX_RECORDS = 20;
+    private static final int SLOT = 8;
+    private static final int KEY = BoardCodec.PACKED_BYTES;
+    private static final int RECORD = 2 * KEY + 1;
+    private static final int MIN_SLOTS = 1 << 12;
+
+    private static final int SOLVABLE = 1;
+    private static final int UNIQUE = 2;
+    private static final int MULTIPLE = 4;
+
+    private final boolean enabled;
+    private final Path dataPath;
+    private final Path indexPath;
+    private final int maxRecords;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private FileChannel data;
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int slots;
+    private int records;
+    private boolean full;
+
+    public SolutionStore(SudokuProperties properties) {
+        SudokuProperties.Store store = properties.getStore();
+        this.enabled = store.isEnabled();
+        Path dir = Paths.get(store.getDirectory());
+        this.dataPath = dir.resolve("solutions.dat");
+        this.indexPath = dir.resolve("solutions.idx");
+        this.maxRecords = store.getMaxRecords();
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!enabled) return;
+        Files.createDirectories(dataPath.getParent());
+        // 上次压缩未完成留下的临时文件，原文件仍然完整
+        Files.deleteIfExists(temp(dataPath));
+        Files.deleteIfExists(temp(indexPath));
+        open();
+        // 上限调小后重启时，只保留最新写入的盘面
+        if (records > maxRecords) compactLocked();
+        logger.info("持久化存储: {}，{} 条记录，索引 {} 槽", dataPath.getParent().toAbsolutePath(), records, slots);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            index.force();
+            data.force(false);
+            data.close();
+            indexChannel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * 查找盘面，未启用或未命中时返回 null。
+     */
+    public SolutionCache.Entry get(BoardKey key) {
+        if (!enabled) return null;
+        lock.readLock().lock();
+        try {
+            int record = find(key);
+            if (record < 0) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            ByteBuffer buf = read(record);
+            int flags = buf.get(2 * KEY);
+            if ((flags & SOLVABLE) == 0) return SolutionCache.Entry.unsolvable();
+            byte[] solution = new byte[KEY];
+            buf.position(KEY);
+            buf.get(solution);
+            Boolean unique = (flags & UNIQUE) != 0 ? Boolean.TRUE : (flags & MULTIPLE) != 0 ? Boolean.FALSE : null;
+            return new SolutionCache.Entry(solution, unique);
+        } catch (IOException ex) {
+            logger.warn("读取持久化存储失败: {}", ex.getMessage());
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 记录一个求解结果；内容与已有记录相同时不写入。记录数达到 {@code sudoku.store.max-records} 时先压缩，
+     * 压缩后仍然满时不再写入，新盘面与已有盘面的更新都一样。
+     */
+    public void put(BoardKey key, SolutionCache.Entry entry) {
+        if (!enabled) return;
+        byte[] record = encode(key, entry);
+        lock.writeLock().lock();
+        try {
+            int existing = find(key);
+            if (existing >= 0 && Arrays.equals(record, read(existing).array())) return;
+            // 两种写入都追加一条记录；只有新盘面会多占一个索引槽
+            if (records >= maxRecords || (existing < 0 && records >= slots / 2)) {
+                if (full) return;
+                compactLocked();
+                if (records >= maxRecords) {
+                    logger.warn("持久化存储已达 {} 条记录上限，不再写入", maxRecords);
+                    full = true;
+                    return;
+                }
+            }
+            int n = records;
+            write(n, record);
+            // 先更新记录数再写索引槽，中途退出只会留下无人引用的记录
+            records = n + 1;
+            index.putInt(INDEX_RECORDS, records);
+            link(key.hashCode(), n, key.getPacked());
+        } catch (IOException ex) {
+            logger.warn("写入持久化存储失败: {}", ex.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 去掉被覆盖的旧记录并按需扩大索引，返回去掉的记录数。压缩期间查询与写入都会等待。
+     */
+    public int compact() throws IOException {
+        if (!enabled) throw new IllegalStateException("持久化存储未启用");
+        lock.writeLock().lock();
+        try {
+            return compactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        if (!enabled) return 0;
+        lock.readLock().lock();
+        try {
+            return records;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+
+    /** 返回盘面所在的记录号，不存在时返回 -1 */
+    private int find(BoardKey key) throws IOException {
+        int hash = key.hashCode(), mask = slots - 1;
+        byte[] packed = key.getPacked();
+        for (int s = mix(hash) & mask; ; s = (s + 1) & mask) {
+            int pos = INDEX_HEADER + s * SLOT;
+            int ref = index.getInt(pos + 4);
+            if (ref == 0) return -1;
+            if (index.getInt(pos) == hash && ref <= records && matches(ref - 1, packed)) return ref - 1;
+        }
+    }
+
+    private boolean matches(int record, byte[] packed) throws IOException {
+        ByteBuffer buf = read(record);
+        for (int i = 0; i < KEY; i++) {
+            if (buf.get(i) != packed[i]) return false;
+        }
+        return true;
+    }
+
+    /** 让 hash 指向 record，已有同一盘面的槽时改指，否则占用第一个空槽 */
+    private void link(int hash, int record, byte[] key) throws IOException {
+        int mask = slots - 1;
+        for (int s = mix(hash) & mask; ; s = (s + 1) & mask) {
+            int pos = INDEX_HEADER + s * SLOT;
+            int ref = index.getInt(pos + 4);
+            if (ref == 0 || (index.getInt(pos) == hash && ref - 1 != record && matches(ref - 1, key))) {
+                index.putInt(pos, hash);
+                index.putInt(pos + 4, record + 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 新文件先完整写到临时文件，再替换原文件；替换前失败时原文件与已打开的通道都不受影响。
+     * 有效记录超过上限时保留最新写入的，记录的先后顺序不变。
+     */
+    private int compactLocked() throws IOException {
+        // 每个非空槽对应一个盘面的最新记录：高 32 位为记录号，低 32 位为哈希值，排序后即按写入顺序
+        long[] live = new long[slots];
+        int n = 0;
+        for (int s = 0; s < slots; s++) {
+            int pos = INDEX_HEADER + s * SLOT;
+            int ref = index.getInt(pos + 4);
+            if (ref != 0) live[n++] = (long) (ref - 1) << 32 | (index.getInt(pos) & 0xFFFFFFFFL);
+        }
+        Arrays.sort(live, 0, n);
+        int from = Math.max(0, n - maxRecords), kept = n - from;
+        int newSlots = slotsFor(kept);
+        long generation = ThreadLocalRandom.current().nextLong();
+        Path dataTemp = temp(dataPath), indexTemp = temp(indexPath);
+        FileChannel newData = null, newIndexChannel = null;
+        MappedByteBuffer newIndex;
+        try {
+            newData = FileChannel.open(dataTemp, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            newIndexChannel = FileChannel.open(indexTemp, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            newIndex = newIndexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + (long) newSlots * SLOT);
+            writeDataHeader(newData, generation);
+            writeIndexHeader(newIndex, generation, newSlots);
+            for (int k = 0; k < kept; k++) {
+                long ref = live[from + k];
+                writeFully(newData, read((int) (ref >>> 32)), DATA_HEADER + (long) k * RECORD);
+                insert(newIndex, newSlots, (int) ref, k);
+            }
+            newIndex.putInt(INDEX_RECORDS, kept);
+            newData.force(false);
+            newIndex.force();
+            // 按先数据后索引的顺序替换；已打开的新通道在改名后指向正式文件
+            Files.move(dataTemp, dataPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException ex) {
+            closeQuietly(newData);
+            closeQuietly(newIndexChannel);
+            Files.deleteIfExists(dataTemp);
+            Files.deleteIfExists(indexTemp);
+            throw ex;
+        }
+        int removed = records - kept;
+        closeQuietly(data);
+        closeQuietly(indexChannel);
+        data = newData;
+        indexChannel = newIndexChannel;
+        index = newIndex;
+        slots = newSlots;
+        records = kept;
+        full = false;
+        // 两次替换之间退出时代号不一致，启动时会重建索引
+        Files.move(indexTemp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("持久化存储压缩完成: 保留 {} 条，去掉 {} 条，索引 {} 槽", kept, removed, newSlots);
+        return removed;
+    }
+
+    private void open() throws IOException {
+        boolean fresh = !Files.exists(dataPath);
+        data = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long generation;
+        if (fresh || data.size() < DATA_HEADER) {
+            generation = ThreadLocalRandom.current().nextLong();
+            data.truncate(0);
+            writeDataHeader(data, generation);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(DATA_HEADER);
+            readFully(data, header, 0);
+            if (header.getInt(0) != DATA_MAGIC || header.getInt(4) != VERSION) {
+                throw new IllegalStateException("不是可识别的存储文件: " + dataPath);
+            }
+            generation = header.getLong(8);
+        }
+        long available = (data.size() - DATA_HEADER) / RECORD;
+        if (Files.exists(indexPath)) {
+            indexChannel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (indexChannel.size() >= INDEX_HEADER) {
+                index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexChannel.size());
+                slots = index.getInt(16);
+                records = index.getInt(INDEX_RECORDS);
+                if (index.getInt(0) == INDEX_MAGIC && index.getInt(4) == VERSION && index.getLong(8) == generation
+                        && Integer.bitCount(slots) == 1 && indexChannel.size() == INDEX_HEADER + (long) slots * SLOT
+                        && records <= available) {
+                    return;
+                }
+            }
+            indexChannel.close();
+            logger.warn("持久化存储索引与数据文件不一致，从数据文件重建");
+        }
+        // 记录数超出上限时只为最后 maxRecords 条建立索引，随后的压缩去掉更早的记录
+        int count = (int) Math.min(available, Integer.MAX_VALUE);
+        int first = Math.max(0, count - maxRecords);
+        rebuildIndex(temp(indexPath), generation, first, count, slotsFor(count - first));
+        Files.move(temp(indexPath), indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 按数据文件第 first 到 count - 1 条记录建立索引，同一盘面以后写入的为准。
+     */
+    private void rebuildIndex(Path path, long generation, int first, int count, int newSlots) throws IOException {
+        indexChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + (long) newSlots * SLOT);
+        writeIndexHeader(index, generation, newSlots);
+        slots = newSlots;
+        records = count;
+        for (int n = first; n < count; n++) {
+            byte[] key = Arrays.copyOf(read(n).array(), KEY);
+            link(Arrays.hashCode(key), n, key);
+        }
+        index.putInt(INDEX_RECORDS, count);
+        index.force();
+    }
+
+    private ByteBuffer read(int record) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD);
+        readFully(data, buf, DATA_HEADER + (long) record * RECORD);
+        return buf;
+    }
+
+    private void write(int record, byte[] bytes) throws IOException {
+        writeFully(data, ByteBuffer.wrap(bytes), DATA_HEADER + (long) record * RECORD);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) pos += channel.write(buf, pos);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, pos);
+            if (n < 0) throw new IOException("存储文件被截断");
+            pos += n;
+        }
+        buf.flip();
+    }
+
+    private static void writeDataHeader(FileChannel channel, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(DATA_HEADER);
+        header.putInt(DATA_MAGIC).putInt(VERSION).putLong(generation).flip();
+        channel.write(header, 0);
+    }
+
+    private static void writeIndexHeader(MappedByteBuffer index, long generation, int slots) {
+        index.putInt(0, INDEX_MAGIC);
+        index.putInt(4, VERSION);
+        index.putLong(8, generation);
+        index.putInt(16, slots);
+    }
+
+    /** 压缩时各盘面互不相同，直接占用第一个空槽 */
+    private static void insert(MappedByteBuffer index, int slots, int hash, int record) {
+        int mask = slots - 1;
+        for (int s = mix(hash) & mask; ; s = (s + 1) & mask) {
+            int pos = INDEX_HEADER + s * SLOT;
+            if (index.getInt(pos + 4) == 0) {
+                index.putInt(pos, hash);
+                index.putInt(pos + 4, record + 1);
+                return;
+            }
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            logger.debug("关闭存储文件失败: {}", ex.getMessage());
+        }
+    }
+
+    private static byte[] encode(BoardKey key, SolutionCache.Entry entry) {
+        byte[] out = new byte[RECORD];
+        System.arraycopy(key.getPacked(), 0, out, 0, KEY);
+        int flags = 0;
+        if (entry.isSolvable()) {
+            System.arraycopy(entry.getSolution(), 0, out, KEY, KEY);
+            flags = SOLVABLE;
+            if (entry.getUnique() != null) flags |= entry.getUnique() ? UNIQUE : MULTIPLE;
+        }
+        out[2 * KEY] = (byte) flags;
+        return out;
+    }
+
+    /** 压缩或重建后装载率不超过四分之一，留出增长空间 */
+    private static int slotsFor(int count) {
+        int n = MIN_SLOTS;
+        while (n < 4L * count) n <<= 1;
+        return n;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static Path temp(Path path) {
+        return path.resolveSibling(path.getFileName() + ".tmp");
+    }
+}
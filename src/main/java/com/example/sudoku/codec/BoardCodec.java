@@ -0,0 +1,239 @@
+package com.example.sudoku.codec;
+
+import com.example.sudoku.solver.BoardGeometry;
+import com.example.sudoku.solver.Grid81;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 盘面编解码。
+ * <ul>
+ *     <li>81 字符格式：按行排列，'1'..'9' 为数字，'0' 或 '.' 为空格，如 {@code "53..7....6..195..."}</li>
+ *     <li>二进制格式：41 字节，每字节高 4 位、低 4 位各存一个格子，最后一字节低 4 位补 0</li>
+ *     <li>原有的 JSON 格式：{@code board} 二维数组与 {@code "行_列"} 键值对，支持 4x4、9x9、16x16 与 25x25（键值对需用 {@code size} 字段指定非 9x9 的边长）</li>
+ * </ul>
+ * 紧凑文本与二进制格式只用于 9x9。
+ */
+public final class BoardCodec {
+
+    public static final int CELLS = 81;
+    public static final int PACKED_BYTES = (CELLS + 1) / 2;
+
+    private static final Pattern CELL_KEY = Pattern.compile("\\d+_\\d+");
+    private static final String SIZE_FIELD = "size";
+
+    private BoardCodec() {}
+
+    /**
+     * 解析 81 字符格式，首尾空白会被忽略。
+     */
+    public static int[][] parse81(CharSequence text) {
+        return Grid81.toRows(parseCells(text));
+    }
+
+    /**
+     * 同 {@link #parse81}，直接解析为 {@link Grid81} 的一维盘面，只分配一个数组。
+     */
+    public static int[] parseCells(CharSequence text) {
+        int start = 0, end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+        if (end - start != CELLS) throw new IllegalArgumentException("盘面必须为 81 个字符");
+        int[] cells = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            char ch = text.charAt(start + i);
+            if (ch >= '1' && ch <= '9') {
+                cells[i] = ch - '0';
+            } else if (ch != '0' && ch != '.') {
+                throw new IllegalArgumentException("第 " + (i + 1) + " 个字符非法: " + ch);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * 编码为 81 字符格式，空格用 '.' 表示。
+     */
+    public static String format81(int[][] g) {
+        char[] out = new char[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            int v = g[Grid81.rowOf(i)][Grid81.colOf(i)];
+            out[i] = v == 0 ? '.' : (char) ('0' + v);
+        }
+        return new String(out);
+    }
+
+    /**
+     * 把一维 81 格盘面编码为 81 字符格式，空格用 '.' 表示。
+     */
+    public static String format81(int[] cells) {
+        char[] out = new char[CELLS];
+        for (int i = 0; i < CELLS; i++) out[i] = cells[i] == 0 ? '.' : (char) ('0' + cells[i]);
+        return new String(out);
+    }
+
+    /**
+     * 打包为 41 字节的二进制格式。
+     */
+    public static byte[] pack(int[][] g) {
+        byte[] out = new byte[PACKED_BYTES];
+        for (int i = 0; i < CELLS; i++) {
+            int v = g[Grid81.rowOf(i)][Grid81.colOf(i)];
+            out[i >> 1] |= (i & 1) == 0 ? v << 4 : v;
+        }
+        return out;
+    }
+
+    /**
+     * 把一维 81 格盘面（下标 = 行 * 9 + 列）打包为 41 字节的二进制格式。
+     */
+    public static byte[] pack(int[] cells) {
+        byte[] out = new byte[PACKED_BYTES];
+        for (int i = 0; i < CELLS; i++) {
+            out[i >> 1] |= (i & 1) == 0 ? cells[i] << 4 : cells[i];
+        }
+        return out;
+    }
+
+    /**
+     * 解析 41 字节的二进制格式。
+     */
+    public static int[][] unpack(byte[] packed) {
+        return Grid81.toRows(unpackCells(packed));
+    }
+
+    /**
+     * 同 {@link #unpack}，直接解析为 {@link Grid81} 的一维盘面，只分配一个数组。
+     */
+    public static int[] unpackCells(byte[] packed) {
+        if (packed == null || packed.length != PACKED_BYTES) {
+            throw new IllegalArgumentException("二进制盘面必须为 " + PACKED_BYTES + " 字节");
+        }
+        int[] cells = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            int b = packed[i >> 1];
+            int v = (i & 1) == 0 ? (b >> 4) & 0xF : b & 0xF;
+            if (v > 9) throw new IllegalArgumentException("第 " + (i + 1) + " 个格子数值非法: " + v);
+            cells[i] = v;
+        }
+        return cells;
+    }
+
+    /**
+     * 解析 {@code board} 二维数组，边长可以是 4、9、16 或 25。
+     */
+    public static int[][] toGrid(List<List<Integer>> board) {
+        if (board == null || BoardGeometry.boxSizeOf(board.size()) < 0) {
+            throw new IllegalArgumentException("board 必须为 9x9（或 4x4、16x16、25x25）");
+        }
+        int side = board.size();
+        int[][] g = new int[side][side];
+        for (int r = 0; r < side; r++) {
+            List<Integer> row = board.get(r);
+            if (row == null || row.size() != side) throw new IllegalArgumentException("board 每行必须有 " + side + " 个数");
+            for (int c = 0; c < side; c++) {
+                Integer v = row.get(c);
+                if (v == null) v = 0;
+                if (v < 0 || v > side) throw new IllegalArgumentException("数值必须在 0.." + side);
+                g[r][c] = v;
+            }
+        }
+        return g;
+    }
+
+    /**
+     * 解析 9x9 的 {@code "行_列"} 键值对。
+     */
+    public static int[][] toGridFromMap(Map<String, Integer> boardData) {
+        return toGridFromMap(boardData, 9);
+    }
+
+    /**
+     * 解析 {@code "行_列"} 键值对，边长由调用方给出（见 {@link #sizeOf(Map)}），不会按键或数值推断；
+     * 行列号与数值都必须在 1..边长 范围内。
+     */
+    public static int[][] toGridFromMap(Map<String, Integer> boardData, int side) {
+        if (BoardGeometry.boxSizeOf(side) < 0) {
+            throw new IllegalArgumentException("size 必须为 4、9、16 或 25");
+        }
+        int[][] g = new int[side][side]; // 默认全为0
+        for (Map.Entry<String, Integer> entry : boardData.entrySet()) {
+            String key = entry.getKey();
+            Integer value = entry.getValue();
+            
+            // 解析 "行_列" 格式的键
+            String[] parts = key.split("_");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("键格式错误，应为 '行_列' 格式，如 '1_1'");
+            }
+            
+            try {
+                int row = Integer.parseInt(parts[0]) - 1; // 转换为0基索引
+                int col = Integer.parseInt(parts[1]) - 1; // 转换为0基索引
+                
+                if (row < 0 || row >= side || col < 0 || col >= side) {
+                    throw new IllegalArgumentException("行列索引超出范围 (1-" + side + ")");
+                }
+                if (value == null || value < 1 || value > side) {
+                    throw new IllegalArgumentException("数值必须在 1-" + side + " 范围内");
+                }
+                
+                g[row][col] = value;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("键格式错误，行列必须为数字");
+            }
+        }
+        return g;
+    }
+
+    /**
+     * 取请求中的 {@code size} 字段作为键值对盘面的边长，没有该字段时为 9。
+     */
+    public static int sizeOf(Map<String, Object> requestBody) {
+        Object size = requestBody.get(SIZE_FIELD);
+        if (size == null) return 9;
+        if (!(size instanceof Number) || BoardGeometry.boxSizeOf(((Number) size).intValue()) < 0) {
+            throw new IllegalArgumentException("size 必须为 4、9、16 或 25");
+        }
+        return ((Number) size).intValue();
+    }
+
+    /**
+     * 从 JSON 对象中取出数值类型的 {@code "行_列"} 键值对，忽略其他类型的值与 {@code size} 字段。
+     */
+    public static Map<String, Integer> toCellMap(Map<String, Object> source) {
+        Map<String, Integer> boardData = new HashMap<>();
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Number && !SIZE_FIELD.equals(entry.getKey())) {
+                boardData.put(entry.getKey(), ((Number) value).intValue());
+            }
+        }
+        return boardData;
+    }
+
+    /**
+     * 判断是否是直接的 Map 格式 (如 {"1_1":1, "1_2":2})
+     */
+    public static boolean isDirectMapFormat(Map<String, Object> requestBody) {
+        // 如果包含 boardData 或 board 字段，则不是直接格式
+        if (requestBody.containsKey("boardData") || requestBody.containsKey("board")) {
+            return false;
+        }
+        
+        // 检查是否所有键都是 "数字_数字" 格式（可另带 size 字段）
+        boolean hasCell = false;
+        for (String key : requestBody.keySet()) {
+            if (SIZE_FIELD.equals(key)) continue;
+            if (!CELL_KEY.matcher(key).matches()) {
+                return false;
+            }
+            hasCell = true;
+        }
+        
+        return hasCell;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.sudoku.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    public ExecutorConfig(SudokuProperties properties) {
+        checkVirtualThreads(properties);
+    }
+
+    /**
+     * 求解线程池：线程数默认等于 CPU 核数，队列有界，满了直接拒绝而不是无限排队。
+     */
+    @Bean(name = "solverExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService solverExecutor(SudokuProperties properties) {
+        SudokuProperties.Batch batch = properties.getBatch();
+        int threads = batch.resolveThreads();
+        AtomicInteger seq = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "sudoku-solver-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batch.getMaxPending()), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 单个复杂盘面的并行搜索线程池，所有请求共用；同时进行的并行搜索数受复杂盘面名额限制。
+     */
+    @Bean(name = "searchPool", destroyMethod = "shutdownNow")
+    public ForkJoinPool searchPool(SudokuProperties properties) {
+        AtomicInteger seq = new AtomicInteger();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("sudoku-search-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return new ForkJoinPool(properties.getParallel().resolveThreads(), factory, null, false);
+    }
+
+    /**
+     * Spring Boot 2.7 下把 Tomcat 请求线程改为虚拟线程：每个请求一个虚拟线程，阻塞在读写或等待求解结果时不占用平台线程，
+     * 并发请求数不再受 {@code server.tomcat.threads.max} 限制。源码保持 Java 8 兼容，因此通过反射创建执行器。
+     * Spring Boot 3.2 及以上由 {@code spring.threads.virtual.enabled} 接管（见 application.properties），不创建此 Bean。
+     */
+    @Bean
+    @ConditionalOnProperty(name = "sudoku.execution.virtual-threads", havingValue = "true")
+    @ConditionalOnMissingClass("org.springframework.boot.autoconfigure.thread.Threading")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequests() {
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("创建虚拟线程执行器失败", ex);
+        }
+        return handler -> handler.setExecutor(executor);
+    }
+
+    /**
+     * 低于 JDK 21 时 Spring Boot 3 会静默忽略 {@code spring.threads.virtual.enabled}，这里统一在启动时报错。
+     */
+    private static void checkVirtualThreads(SudokuProperties properties) {
+        if (!properties.getExecution().isVirtualThreads()) return;
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException("sudoku.execution.virtual-threads 需要 JDK 21 及以上，当前为 "
+                    + System.getProperty("java.version"));
+        }
+        logger.info("请求处理使用虚拟线程");
+    }
+}
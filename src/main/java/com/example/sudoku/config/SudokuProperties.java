@@ -0,0 +1,217 @@
+package com.example.sudoku.config;
+
+import com.example.sudoku.solver.SolverEngine;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 数独服务配置，对应 application.properties 中的 {@code sudoku.*}。
+ */
+@ConfigurationProperties(prefix = "sudoku")
+public class SudokuProperties {
+
+    private final Solver solver = new Solver();
+    private final Budget budget = new Budget();
+    private final Batch batch = new Batch();
+    private final Stream stream = new Stream();
+    private final Cache cache = new Cache();
+    private final Store store = new Store();
+    private final Trace trace = new Trace();
+    private final Generator generator = new Generator();
+    private final Session session = new Session();
+    private final Parallel parallel = new Parallel();
+    private final Execution execution = new Execution();
+
+    public Solver getSolver() { return solver; }
+    public Budget getBudget() { return budget; }
+    public Batch getBatch() { return batch; }
+    public Stream getStream() { return stream; }
+    public Cache getCache() { return cache; }
+    public Store getStore() { return store; }
+    public Trace getTrace() { return trace; }
+    public Generator getGenerator() { return generator; }
+    public Session getSession() { return session; }
+    public Parallel getParallel() { return parallel; }
+    public Execution getExecution() { return execution; }
+
+    public static class Solver {
+        /** 求解引擎：bitmask（默认）、dlx 或 backtracking（参考实现） */
+        private SolverEngine engine = SolverEngine.BITMASK;
+        /** 是否在校验时用 DLX 统计解的个数，判断解是否唯一 */
+        private boolean checkUniqueness = true;
+
+        public SolverEngine getEngine() { return engine; }
+        public void setEngine(SolverEngine engine) { this.engine = engine; }
+        public boolean isCheckUniqueness() { return checkUniqueness; }
+        public void setCheckUniqueness(boolean checkUniqueness) { this.checkUniqueness = checkUniqueness; }
+    }
+
+    public static class Budget {
+        /** 单次校验（求解加唯一性统计）最多搜索的节点数，0 表示不限 */
+        private long maxNodes = 2_000_000;
+        /** 单次校验的求解时间上限，0 表示不限 */
+        private Duration timeout = Duration.ofSeconds(2);
+        /** 搜索节点数超过该值即视为复杂盘面，需要占用复杂盘面名额，0 表示不区分 */
+        private long heavyAfterNodes = 10_000;
+        /** 复杂盘面的最大并发求解数，0 表示 CPU 核数的一半 */
+        private int maxHeavySolves = 0;
+
+        public int resolveMaxHeavySolves() {
+            return maxHeavySolves > 0 ? maxHeavySolves : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+
+        public long getMaxNodes() { return maxNodes; }
+        public void setMaxNodes(long maxNodes) { this.maxNodes = maxNodes; }
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+        public long getHeavyAfterNodes() { return heavyAfterNodes; }
+        public void setHeavyAfterNodes(long heavyAfterNodes) { this.heavyAfterNodes = heavyAfterNodes; }
+        public int getMaxHeavySolves() { return maxHeavySolves; }
+        public void setMaxHeavySolves(int maxHeavySolves) { this.maxHeavySolves = maxHeavySolves; }
+    }
+
+    public static class Batch {
+        /** 求解线程数，0 表示使用 CPU 核数 */
+        private int threads = 0;
+        /** 单次批量请求最多包含的盘面数 */
+        private int maxSize = 1000;
+        /** 全局在途盘面上限，超出时拒绝新的批量请求 */
+        private int maxPending = 10000;
+
+        public int resolveThreads() {
+            return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        }
+
+        public int getThreads() { return threads; }
+        public void setThreads(int threads) { this.threads = threads; }
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+        public int getMaxPending() { return maxPending; }
+        public void setMaxPending(int maxPending) { this.maxPending = maxPending; }
+    }
+
+    public static class Stream {
+        /** 流式求解时同时在途的盘面数，0 表示求解线程数的 4 倍 */
+        private int window = 0;
+
+        public int resolveWindow(int threads) {
+            return window > 0 ? window : threads * 4;
+        }
+
+        public int getWindow() { return window; }
+        public void setWindow(int window) { this.window = window; }
+    }
+
+    public static class Cache {
+        /** 是否缓存求解结果 */
+        private boolean enabled = true;
+        /** 最多缓存的盘面数 */
+        private int maxSize = 10000;
+        /** 是否在对称变换下规范化缓存键，使等价题目共用一项 */
+        private boolean canonicalize = true;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+        public boolean isCanonicalize() { return canonicalize; }
+        public void setCanonicalize(boolean canonicalize) { this.canonicalize = canonicalize; }
+    }
+
+    public static class Store {
+        /** 是否把求解结果持久化到本地文件，重启后直接命中 */
+        private boolean enabled = false;
+        /** 数据文件与索引文件所在目录 */
+        private String directory = "data/store";
+        /** 最多保存的盘面数，达到后不再写入新盘面 */
+        private int maxRecords = 1_000_000;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public String getDirectory() { return directory; }
+        public void setDirectory(String directory) { this.directory = directory; }
+        public int getMaxRecords() { return maxRecords; }
+        public void setMaxRecords(int maxRecords) { this.maxRecords = maxRecords; }
+    }
+
+    public static class Trace {
+        /** 以 INFO 级别输出完整请求与盘面的请求比例（0..1），其余请求只在 DEBUG 时输出 */
+        private double sampleRate = 0.0;
+        /** 是否为每个校验请求输出一行摘要 */
+        private boolean summaryEnabled = true;
+
+        public double getSampleRate() { return sampleRate; }
+        public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+        public boolean isSummaryEnabled() { return summaryEnabled; }
+        public void setSummaryEnabled(boolean summaryEnabled) { this.summaryEnabled = summaryEnabled; }
+    }
+
+    public static class Generator {
+        /** 是否在后台生成题目，关闭后示例题只返回内置题目 */
+        private boolean enabled = true;
+        /** 后台生成线程数 */
+        private int threads = 1;
+        /** 每个难度预先生成的题目数 */
+        private int poolSize = 20;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getThreads() { return threads; }
+        public void setThreads(int threads) { this.threads = threads; }
+        public int getPoolSize() { return poolSize; }
+        public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+    }
+
+    public static class Session {
+        /** 会话空闲超过该时长即被清理 */
+        private Duration idleTimeout = Duration.ofMinutes(30);
+        /** 清理空闲会话的间隔 */
+        private Duration sweepInterval = Duration.ofMinutes(1);
+        /** 同时存在的会话数上限 */
+        private int maxSessions = 10000;
+
+        public Duration getIdleTimeout() { return idleTimeout; }
+        public void setIdleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; }
+        public Duration getSweepInterval() { return sweepInterval; }
+        public void setSweepInterval(Duration sweepInterval) { this.sweepInterval = sweepInterval; }
+        public int getMaxSessions() { return maxSessions; }
+        public void setMaxSessions(int maxSessions) { this.maxSessions = maxSessions; }
+    }
+
+    public static class Parallel {
+        /** 是否对复杂盘面启用并行搜索 */
+        private boolean enabled = false;
+        /** 单线程搜索超过该节点数（且已占用复杂盘面名额）后改为并行搜索 */
+        private long afterNodes = 50_000;
+        /** 并行搜索线程数，0 表示 CPU 核数 */
+        private int threads = 0;
+
+        public int resolveThreads() {
+            return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        }
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public long getAfterNodes() { return afterNodes; }
+        public void setAfterNodes(long afterNodes) { this.afterNodes = afterNodes; }
+        public int getThreads() { return threads; }
+        public void setThreads(int threads) { this.threads = threads; }
+    }
+
+    public static class Execution {
+        /** 请求线程改用虚拟线程，每个请求一个，需要 JDK 21 及以上 */
+        private boolean virtualThreads = false;
+        /** 单盘面校验提交到求解线程池执行，请求线程只负责读写与等待结果 */
+        private boolean offload = false;
+        /** 单盘面校验以 Servlet 异步方式在求解线程池上执行，请求线程不等待结果 */
+        private boolean async = false;
+
+        public boolean isVirtualThreads() { return virtualThreads; }
+        public void setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+        public boolean isOffload() { return offload; }
+        public void setOffload(boolean offload) { this.offload = offload; }
+        public boolean isAsync() { return async; }
+        public void setAsync(boolean async) { this.async = async; }
+    }
+}
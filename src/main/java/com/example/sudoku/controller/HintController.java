@@ -0,0 +1,161 @@
+package com.example.sudoku.controller;
+
+import com.example.sudoku.codec.BoardCodec;
+import com.example.sudoku.hint.Hint;
+import com.example.sudoku.hint.HintService;
+import com.example.sudoku.hint.Step;
+import com.example.sudoku.hint.Technique;
+import com.example.sudoku.service.VerifyStatus;
+import com.example.sudoku.solver.Grid81;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 推理链中的一步；格子位置的格式与 errorPositions 一致（"行_列"，从 1 开始）
+@JsonInclude(JsonInclude.Include.NON_NULL)
+class HintStepView {
+    private Technique technique;
+    private String explanation;
+    private String position;              // 填数的格子，排除步骤为 null
+    private Integer digit;
+    private List<String> cells;           // 推理依据的格子
+    private Map<String, List<Integer>> eliminations; // 格子 -> 排除的候选数
+
+    public HintStepView() {}
+    public static HintStepView from(Step step) {
+        HintStepView view = new HintStepView();
+        view.technique = step.getTechnique();
+        view.explanation = step.getExplanation();
+        if (step.isPlacement()) view.position = HintController.position(step.getCell());
+        if (step.getDigit() != 0) view.digit = step.getDigit();
+        view.cells = HintController.positions(step.getCells());
+        if (!step.isPlacement()) {
+            view.eliminations = new LinkedHashMap<>();
+            int[] cells = step.getEliminationCells(), masks = step.getEliminationMasks();
+            for (int k = 0; k < cells.length; k++) {
+                List<Integer> digits = new ArrayList<>();
+                for (int m = masks[k]; m != 0; m &= m - 1) digits.add(Integer.numberOfTrailingZeros(m) + 1);
+                view.eliminations.put(HintController.position(cells[k]), digits);
+            }
+        }
+        return view;
+    }
+    public Technique getTechnique() { return technique; }
+    public String getExplanation() { return explanation; }
+    public String getPosition() { return position; }
+    public Integer getDigit() { return digit; }
+    public List<String> getCells() { return cells; }
+    public Map<String, List<Integer>> getEliminations() { return eliminations; }
+}
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+class HintResponse {
+    private boolean ok;
+    private Hint.Kind kind;
+    private String message;
+    private Technique technique; // 最后一步（填数）所用的技巧
+    private String position;
+    private Integer digit;
+    private List<String> cells;
+    private List<HintStepView> steps;
+
+    public HintResponse() {}
+    public static HintResponse from(Hint hint) {
+        HintResponse resp = new HintResponse();
+        resp.ok = hint.getKind() == Hint.Kind.STEP || hint.getKind() == Hint.Kind.SOLVED;
+        resp.kind = hint.getKind();
+        resp.message = hint.getMessage();
+        resp.cells = HintController.positions(hint.getCells());
+        Step placement = hint.getPlacement();
+        if (placement != null) {
+            resp.technique = placement.getTechnique();
+            resp.position = HintController.position(placement.getCell());
+            resp.digit = placement.getDigit();
+            resp.steps = new ArrayList<>(hint.getSteps().size());
+            for (Step step : hint.getSteps()) resp.steps.add(HintStepView.from(step));
+        }
+        return resp;
+    }
+    public static HintResponse fail(String message) {
+        HintResponse resp = new HintResponse();
+        resp.message = message;
+        return resp;
+    }
+    public boolean isOk() { return ok; }
+    public Hint.Kind getKind() { return kind; }
+    public String getMessage() { return message; }
+    public Technique getTechnique() { return technique; }
+    public String getPosition() { return position; }
+    public Integer getDigit() { return digit; }
+    public List<String> getCells() { return cells; }
+    public List<HintStepView> getSteps() { return steps; }
+}
+
+/**
+ * 提示接口：给出下一步可以填的数字以及得出它的推理链，不直接返回整盘答案。
+ */
+@RestController
+@RequestMapping(path = "/api/sudoku", produces = MediaType.APPLICATION_JSON_VALUE)
+public class HintController {
+
+    private static final Logger logger = LoggerFactory.getLogger(HintController.class);
+
+    private final HintService hintService;
+
+    public HintController(HintService hintService) {
+        this.hintService = hintService;
+    }
+
+    /**
+     * 无状态提示：{@code GET /api/sudoku/hint?puzzle=53..7....6..195...}
+     */
+    @GetMapping("/hint")
+    public ResponseEntity<HintResponse> hint(@RequestParam String puzzle) {
+        try {
+            return respond(hintService.hint(BoardCodec.parse81(puzzle)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(HintResponse.fail(ex.getMessage()));
+        } catch (Exception ex) {
+            logger.error("生成提示异常", ex);
+            return ResponseEntity.internalServerError().body(HintResponse.fail("服务器错误"));
+        }
+    }
+
+    /**
+     * 状态码与 /verify 一致：有重复数字为 400，求解超出预算为 422，服务繁忙为 503。
+     */
+    static ResponseEntity<HintResponse> respond(Hint hint) {
+        HintResponse body = HintResponse.from(hint);
+        if (hint.getKind() == Hint.Kind.CONFLICT) return ResponseEntity.badRequest().body(body);
+        if (hint.getKind() == Hint.Kind.UNAVAILABLE) {
+            if (hint.getStatus() == VerifyStatus.BUSY) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(body);
+            }
+            return ResponseEntity.unprocessableEntity().body(body);
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    static String position(int cell) {
+        return (Grid81.rowOf(cell) + 1) + "_" + (Grid81.colOf(cell) + 1);
+    }
+
+    static List<String> positions(int[] cells) {
+        List<String> out = new ArrayList<>(cells.length);
+        for (int cell : cells) out.add(position(cell));
+        return out;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.sudoku.controller;
+
+import com.example.sudoku.codec.BoardCodec;
+import com.example.sudoku.generator.Difficulty;
+import com.example.sudoku.generator.GeneratedPuzzle;
+import com.example.sudoku.generator.PuzzlePool;
+import com.example.sudoku.hint.HintService;
+import com.example.sudoku.service.VerifyDispatcher;
+import com.example.sudoku.service.VerifyResult;
+import com.example.sudoku.service.VerifyStatus;
+import com.example.sudoku.session.BoardSession;
+import com.example.sudoku.session.MoveResult;
+import com.example.sudoku.session.SessionLimitException;
+import com.example.sudoku.session.SessionManager;
+import com.example.sudoku.trace.VerifyTrace;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// 落子请求：{"row": 1, "col": 2, "value": 5}，行列从 1 开始，value 为 0 表示清空
+class CellMoveRequest {
+    private Integer row;
+    private Integer col;
+    private Integer value;
+
+    public CellMoveRequest() {}
+    public Integer getRow() { return row; }
+    public void setRow(Integer row) { this.row = row; }
+    public Integer getCol() { return col; }
+    public void setCol(Integer col) { this.col = col; }
+    public Integer getValue() { return value; }
+    public void setValue(Integer value) { this.value = value; }
+}
+
+class SessionResponse {
+    private boolean ok;
+    private String message;
+    private String id;
+    private List<List<Integer>> givens; // 题目给出的数字
+    private List<List<Integer>> board;  // 当前局面（含题目数字）
+    private int filled;
+    private boolean valid;
+    private boolean complete;
+
+    public SessionResponse() {}
+    public static SessionResponse of(BoardSession session, String message) {
+        SessionResponse resp = new SessionResponse();
+        synchronized (session) {
+            resp.ok = true;
+            resp.message = message;
+            resp.id = session.getId();
+            resp.givens = SudokuController.toList(session.givens());
+            resp.board = SudokuController.toList(session.snapshot());
+            resp.filled = session.getFilled();
+            resp.valid = !session.hasConflicts();
+            resp.complete = session.isComplete();
+        }
+        return resp;
+    }
+    public static SessionResponse fail(String message) {
+        SessionResponse resp = new SessionResponse();
+        resp.message = message;
+        return resp;
+    }
+    public static SessionResponse closed() {
+        SessionResponse resp = new SessionResponse();
+        resp.ok = true;
+        resp.message = "会话已关闭";
+        return resp;
+    }
+    public boolean isOk() { return ok; }
+    public String getMessage() { return message; }
+    public String getId() { return id; }
+    public List<List<Integer>> getGivens() { return givens; }
+    public List<List<Integer>> getBoard() { return board; }
+    public int getFilled() { return filled; }
+    public boolean isValid() { return valid; }
+    public boolean isComplete() { return complete; }
+}
+
+class MoveResponse {
+    private boolean ok;
+    private String message;
+    private boolean conflict;
+    private List<String> conflictPositions;
+    private boolean valid;
+    private int filled;
+    private boolean complete;
+
+    public MoveResponse() {}
+    public static MoveResponse from(MoveResult result) {
+        MoveResponse resp = new MoveResponse();
+        resp.ok = !result.isConflict();
+        resp.message = result.isComplete() ? "恭喜，已全部填完"
+                : result.isConflict() ? "与同行、同列或同宫的数字重复" : "已填入";
+        resp.conflict = result.isConflict();
+        resp.conflictPositions = result.getConflictPositions();
+        resp.valid = result.isValid();
+        resp.filled = result.getFilled();
+        resp.complete = result.isComplete();
+        return resp;
+    }
+    public static MoveResponse fail(String message) {
+        MoveResponse resp = new MoveResponse();
+        resp.message = message;
+        return resp;
+    }
+    public boolean isOk() { return ok; }
+    public String getMessage() { return message; }
+    public boolean isConflict() { return conflict; }
+    public List<String> getConflictPositions() { return conflictPositions; }
+    public boolean isValid() { return valid; }
+    public int getFilled() { return filled; }
+    public boolean isComplete() { return complete; }
+}
+
+// 可解性检查结果；与 VerifyResponse 不同，不返回解
+class SessionCheckResponse {
+    private boolean ok;
+    private VerifyStatus status;
+    private String message;
+    private List<String> errorPositions;
+    private int errorNumber;
+    private Boolean unique;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private int[] conflictCells;
+    private boolean complete;
+
+    public SessionCheckResponse() {}
+    public static SessionCheckResponse from(VerifyResult result, boolean complete) {
+        SessionCheckResponse resp = new SessionCheckResponse();
+        resp.ok = result.isOk();
+        resp.status = result.getStatus();
+        resp.message = complete && result.isOk() ? "恭喜，已全部填完" : result.getMessage();
+        resp.errorPositions = result.getErrorPositions();
+        resp.errorNumber = result.getErrorNumber();
+        resp.unique = result.getUnique();
+        if (result.getConflicts() != null) resp.conflictCells = result.getConflicts().cellIndices();
+        resp.complete = complete;
+        return resp;
+    }
+    public static SessionCheckResponse fail(String message) {
+        SessionCheckResponse resp = new SessionCheckResponse();
+        resp.message = message;
+        return resp;
+    }
+    public boolean isOk() { return ok; }
+    public VerifyStatus getStatus() { return status; }
+    public String getMessage() { return message; }
+    public List<String> getErrorPositions() { return errorPositions; }
+    public int getErrorNumber() { return errorNumber; }
+    public Boolean getUnique() { return unique; }
+    public int[] getConflictCells() { return conflictCells; }
+    public boolean isComplete() { return complete; }
+}
+
+/**
+ * 游戏会话接口：服务端保存局面，前端每次只提交一个格子的改动。
+ */
+@RestController
+@RequestMapping(path = "/api/sudoku/session", produces = MediaType.APPLICATION_JSON_VALUE)
+public class SessionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionController.class);
+    private static final String NOT_FOUND = "会话不存在或已过期";
+
+    private final SessionManager sessionManager;
+    private final VerifyDispatcher verifyDispatcher;
+    private final PuzzlePool puzzlePool;
+    private final HintService hintService;
+
+    public SessionController(SessionManager sessionManager, VerifyDispatcher verifyDispatcher, PuzzlePool puzzlePool,
+                             HintService hintService) {
+        this.sessionManager = sessionManager;
+        this.verifyDispatcher = verifyDispatcher;
+        this.puzzlePool = puzzlePool;
+        this.hintService = hintService;
+    }
+
+    /**
+     * 开启会话。请求体三选一：{"board": [[...]]}、{"puzzle": "81 个字符"} 或 {"difficulty": "hard"}（从题库取题）。
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SessionResponse> open(@RequestBody Map<String, Object> requestBody) {
+        try {
+            if (requestBody.get("difficulty") instanceof String) {
+                Difficulty level = Difficulty.parse((String) requestBody.get("difficulty"));
+                GeneratedPuzzle puzzle = puzzlePool.poll(level);
+                if (puzzle == null) {
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .body(SessionResponse.fail("题库补充中，请稍后重试"));
+                }
+                BoardSession session = sessionManager.open(puzzle.getPuzzle(), puzzle.getSolution(), true);
+                return ResponseEntity.ok(SessionResponse.of(session, "已开启新会话"));
+            }
+
+            int[][] grid;
+            if (requestBody.get("puzzle") instanceof String) {
+                grid = BoardCodec.parse81((String) requestBody.get("puzzle"));
+            } else if (requestBody.get("board") instanceof List) {
+                @SuppressWarnings("unchecked")
+                List<List<Integer>> board = (List<List<Integer>>) requestBody.get("board");
+                grid = BoardCodec.toGrid(board);
+                if (grid.length != 9) return ResponseEntity.badRequest().body(SessionResponse.fail("会话只支持 9x9 盘面"));
+            } else {
+                return ResponseEntity.badRequest().body(SessionResponse.fail("请求数据格式不支持"));
+            }
+
+            VerifyResult result = verifyDispatcher.verify(grid, VerifyTrace.detached(), false);
+            if (!result.isOk()) {
+                HttpStatus status = result.getStatus() == VerifyStatus.DUPLICATE ? HttpStatus.BAD_REQUEST
+                        : result.getStatus() == VerifyStatus.BUSY ? HttpStatus.SERVICE_UNAVAILABLE
+                        : HttpStatus.UNPROCESSABLE_ENTITY;
+                return ResponseEntity.status(status).body(SessionResponse.fail(result.getMessage()));
+            }
+            BoardSession session = sessionManager.open(grid, result.getSolution(), Boolean.TRUE.equals(result.getUnique()));
+            return ResponseEntity.ok(SessionResponse.of(session, "已开启新会话"));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(SessionResponse.fail(ex.getMessage()));
+        } catch (SessionLimitException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(SessionResponse.fail(ex.getMessage()));
+        } catch (Exception ex) {
+            logger.error("开启会话异常", ex);
+            return ResponseEntity.internalServerError().body(SessionResponse.fail("服务器错误"));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SessionResponse> get(@PathVariable String id) {
+        BoardSession session = sessionManager.get(id);
+        if (session == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(SessionResponse.fail(NOT_FOUND));
+        return ResponseEntity.ok(SessionResponse.of(session, "当前局面"));
+    }
+
+    @PutMapping(path = "/{id}/cell", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<MoveResponse> move(@PathVariable String id, @RequestBody CellMoveRequest request) {
+        BoardSession session = sessionManager.get(id);
+        if (session == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MoveResponse.fail(NOT_FOUND));
+        if (request.getRow() == null || request.getCol() == null || request.getValue() == null) {
+            return ResponseEntity.badRequest().body(MoveResponse.fail("缺少 row、col 或 value 字段"));
+        }
+        try {
+            MoveResult result = session.move(request.getRow() - 1, request.getCol() - 1, request.getValue());
+            return ResponseEntity.ok(MoveResponse.from(result));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(MoveResponse.fail(ex.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/check")
+    public ResponseEntity<SessionCheckResponse> check(@PathVariable String id) {
+        BoardSession session = sessionManager.get(id);
+        if (session == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(SessionCheckResponse.fail(NOT_FOUND));
+        }
+        VerifyResult result = sessionManager.check(session);
+        return ResponseEntity.ok(SessionCheckResponse.from(result, session.isComplete()));
+    }
+
+    /**
+     * 会话提示：沿用会话中保存的候选数盘面，上次推理得到的排除结果不必重新推导。
+     */
+    @GetMapping("/{id}/hint")
+    public ResponseEntity<HintResponse> hint(@PathVariable String id) {
+        BoardSession session = sessionManager.get(id);
+        if (session == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(HintResponse.fail(NOT_FOUND));
+        return HintController.respond(hintService.hint(session));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<SessionResponse> close(@PathVariable String id) {
+        if (!sessionManager.close(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(SessionResponse.fail(NOT_FOUND));
+        }
+        return ResponseEntity.ok(SessionResponse.closed());
+    }
+}
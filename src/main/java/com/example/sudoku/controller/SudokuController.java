@@ -1,40 +1,39 @@
 package com.example.sudoku.controller;
 
+import com.example.sudoku.cache.SolutionCache;
+import com.example.sudoku.cache.SolutionStore;
+import com.example.sudoku.codec.BoardCodec;
+import com.example.sudoku.generator.Difficulty;
+import com.example.sudoku.generator.GeneratedPuzzle;
+import com.example.sudoku.generator.PuzzlePool;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.service.BatchRejectedException;
+import com.example.sudoku.service.BatchVerifier;
+import com.example.sudoku.service.StreamSolver;
+import com.example.sudoku.service.VerifyDispatcher;
+import com.example.sudoku.service.VerifyResult;
+import com.example.sudoku.service.VerifyStatus;
+import com.example.sudoku.solver.Grid81;
+import com.example.sudoku.trace.TraceLogger;
+import com.example.sudoku.trace.VerifyTrace;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
-
-// 校验结果类
-class CheckResult {
-    private boolean valid;
-    private String message;
-    private List<String> errorPositions;
-    private int errorNumber;
-    
-    public CheckResult(boolean valid, String message, List<String> errorPositions, int errorNumber) {
-        this.valid = valid;
-        this.message = message;
-        this.errorPositions = errorPositions;
-        this.errorNumber = errorNumber;
-    }
-    
-    public static CheckResult valid() {
-        return new CheckResult(true, null, null, 0);
-    }
-    
-    public static CheckResult invalid(String message, List<String> errorPositions, int errorNumber) {
-        return new CheckResult(false, message, errorPositions, errorNumber);
-    }
-    
-    public boolean isValid() { return valid; }
-    public String getMessage() { return message; }
-    public List<String> getErrorPositions() { return errorPositions; }
-    public int getErrorNumber() { return errorNumber; }
-}
+import java.util.concurrent.ThreadLocalRandom;
 
 // Java 8 兼容：使用 POJO 代替 record
 class VerifyRequest {
@@ -50,33 +49,115 @@ class VerifyRequest {
 
 class VerifyResponse {
     private boolean ok;
+    private VerifyStatus status; // 校验结论，便于批量结果按状态区分
     private String message;
-    private List<List<Integer>> solution;
+    @JsonSerialize(using = RowsSerializer.class)
+    private int[] solution; // 行优先的一维盘面，输出时仍是按行嵌套的数组，避免装箱成 List<List<Integer>>
     private List<String> errorPositions; // 新增：错误位置列表
     private int errorNumber; // 新增：重复的数字
+    private Boolean unique; // 解是否唯一；未统计时为 null
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private int[] conflictCells; // 全部冲突格子的下标（0..80，行优先），仅在有重复时返回
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String conflictMask; // 同上，81 位掩码的十六进制表示
 
     public VerifyResponse() {}
-    public VerifyResponse(boolean ok, String message, List<List<Integer>> solution) {
+    public VerifyResponse(boolean ok, String message, int[] solution) {
         this.ok = ok; this.message = message; this.solution = solution;
     }
-    public VerifyResponse(boolean ok, String message, List<List<Integer>> solution, List<String> errorPositions, int errorNumber) {
+    public VerifyResponse(boolean ok, String message, int[] solution, List<String> errorPositions, int errorNumber) {
         this.ok = ok; this.message = message; this.solution = solution; 
         this.errorPositions = errorPositions; this.errorNumber = errorNumber;
     }
-    public static VerifyResponse ok(String message, List<List<Integer>> solution) {
+    public static VerifyResponse ok(String message, int[] solution) {
         return new VerifyResponse(true, message, solution);
     }
     public static VerifyResponse fail(String message) {
         return new VerifyResponse(false, message, null);
     }
+    public static VerifyResponse invalid(String message) {
+        VerifyResponse resp = new VerifyResponse(false, message, null);
+        resp.status = VerifyStatus.INVALID_INPUT;
+        return resp;
+    }
     public static VerifyResponse failWithPositions(String message, List<String> errorPositions, int errorNumber) {
         return new VerifyResponse(false, message, null, errorPositions, errorNumber);
     }
+    public static VerifyResponse from(VerifyResult result) {
+        // 9x9 的解本来就是一维的，直接引用；其他尺寸的解按行展开
+        int[] solution = result.getCells();
+        if (solution == null && result.getSolution() != null) solution = flatten(result.getSolution());
+        VerifyResponse resp = new VerifyResponse(result.isOk(), result.getMessage(), solution,
+                result.getErrorPositions(), result.getErrorNumber());
+        resp.status = result.getStatus();
+        resp.unique = result.getUnique();
+        if (result.getConflicts() != null) {
+            resp.conflictCells = result.getConflicts().cellIndices();
+            resp.conflictMask = result.getConflicts().toHex();
+        }
+        return resp;
+    }
     public boolean isOk() { return ok; }
+    public VerifyStatus getStatus() { return status; }
     public String getMessage() { return message; }
-    public List<List<Integer>> getSolution() { return solution; }
+    public int[] getSolution() { return solution; }
     public List<String> getErrorPositions() { return errorPositions; }
     public int getErrorNumber() { return errorNumber; }
+    public Boolean getUnique() { return unique; }
+    public int[] getConflictCells() { return conflictCells; }
+    public String getConflictMask() { return conflictMask; }
+
+    private static int[] flatten(int[][] g) {
+        int n = g.length;
+        int[] out = new int[n * n];
+        for (int r = 0; r < n; r++) System.arraycopy(g[r], 0, out, r * n, n);
+        return out;
+    }
+
+    /** 把 n*n 的一维盘面写成 n 行的嵌套数组，与原先的 List<List<Integer>> 输出相同 */
+    static final class RowsSerializer extends StdSerializer<int[]> {
+        RowsSerializer() {
+            super(int[].class);
+        }
+
+        @Override
+        public void serialize(int[] cells, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int side = (int) Math.sqrt(cells.length);
+            gen.writeStartArray();
+            for (int r = 0; r < side; r++) gen.writeArray(cells, r * side, side);
+            gen.writeEndArray();
+        }
+    }
+}
+
+// 批量校验请求：{"boards": [[[5,3,0,...], ...], ...]}，直接绑定为 int[][] 避免通用 Map 解析
+class BatchVerifyRequest {
+    private List<int[][]> boards;
+
+    public BatchVerifyRequest() {}
+    public List<int[][]> getBoards() { return boards; }
+    public void setBoards(List<int[][]> boards) { this.boards = boards; }
+}
+
+class BatchVerifyResponse {
+    private boolean ok;
+    private String message;
+    private int total;
+    private int solved;
+    private List<VerifyResponse> results; // 与请求中的 boards 一一对应
+
+    public BatchVerifyResponse() {}
+    public BatchVerifyResponse(boolean ok, String message, int total, int solved, List<VerifyResponse> results) {
+        this.ok = ok; this.message = message; this.total = total; this.solved = solved; this.results = results;
+    }
+    public static BatchVerifyResponse fail(String message) {
+        return new BatchVerifyResponse(false, message, 0, 0, null);
+    }
+    public boolean isOk() { return ok; }
+    public String getMessage() { return message; }
+    public int getTotal() { return total; }
+    public int getSolved() { return solved; }
+    public List<VerifyResponse> getResults() { return results; }
 }
 
 @RestController
@@ -85,375 +166,354 @@ public class SudokuController {
     
     private static final Logger logger = LoggerFactory.getLogger(SudokuController.class);
 
+    private final VerifyDispatcher verifyDispatcher;
+    private final BatchVerifier batchVerifier;
+    private final StreamSolver streamSolver;
+    private final SolutionCache solutionCache;
+    private final SolutionStore solutionStore;
+    private final TraceLogger traceLogger;
+    private final SudokuMetrics metrics;
+    private final PuzzlePool puzzlePool;
+
+    /** 题库为空时返回的内置示例 */
+    private static final int[][][] FALLBACK_SAMPLES = {
+            {
+                    {5,3,0,0,7,0,0,0,0},
+                    {6,0,0,1,9,5,0,0,0},
+                    {0,9,8,0,0,0,0,6,0},
+                    {8,0,0,0,6,0,0,0,3},
+                    {4,0,0,8,0,3,0,0,1},
+                    {7,0,0,0,2,0,0,0,6},
+                    {0,6,0,0,0,0,2,8,0},
+                    {0,0,0,4,1,9,0,0,5},
+                    {0,0,0,0,8,0,0,7,9}
+            },
+            {
+                    {0,0,0,2,6,0,7,0,1},
+                    {6,8,0,0,7,0,0,9,0},
+                    {1,9,0,0,0,4,5,0,0},
+                    {8,2,0,1,0,0,0,4,0},
+                    {0,0,4,6,0,2,9,0,0},
+                    {0,5,0,0,0,3,0,2,8},
+                    {0,0,9,3,0,0,0,7,4},
+                    {0,4,0,0,5,0,0,3,6},
+                    {7,0,3,0,1,8,0,0,0}
+            }
+    };
+
+    public SudokuController(VerifyDispatcher verifyDispatcher, BatchVerifier batchVerifier,
+                            StreamSolver streamSolver, SolutionCache solutionCache, SolutionStore solutionStore,
+                            TraceLogger traceLogger, SudokuMetrics metrics, PuzzlePool puzzlePool) {
+        this.metrics = metrics;
+        this.puzzlePool = puzzlePool;
+        this.verifyDispatcher = verifyDispatcher;
+        this.batchVerifier = batchVerifier;
+        this.streamSolver = streamSolver;
+        this.solutionCache = solutionCache;
+        this.solutionStore = solutionStore;
+        this.traceLogger = traceLogger;
+    }
+
+    /**
+     * 同步模式返回 {@code ResponseEntity}；开启 {@code sudoku.execution.async} 时返回 {@code CompletableFuture}，
+     * Spring MVC 按返回值的实际类型处理，后者以 Servlet 异步方式写回。文本与二进制格式的接口相同。
+     */
     @PostMapping(path = "/verify", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<VerifyResponse> verify(@RequestBody Map<String, Object> requestBody) {
-        logger.info("=== 收到数独校验请求 ===");
+    public Object verify(@RequestBody Map<String, Object> requestBody,
+                                                 @RequestParam(defaultValue = "first") String conflicts) {
+        VerifyTrace trace = traceLogger.start("json");
+        logger.debug("=== 收到数独校验请求 ===");
         
         try {
-            // 打印前端传来的原始数据
-            logger.info("原始请求数据: {}", requestBody);
+            // 原始请求数据只在抽样或 DEBUG 时输出
+            traceLogger.dump(trace, "原始请求数据", requestBody);
             
             int[][] grid;
             
+            // 检查是否是紧凑的 81 字符格式 (如 {"puzzle": "53..7...."})，直接解析为一维盘面
+            if (requestBody.get("puzzle") instanceof String) {
+                trace.setFormat("puzzle");
+                int[] cells = BoardCodec.parseCells((String) requestBody.get("puzzle"));
+                trace.markParsed();
+                return verifyCells(cells, trace, conflicts);
+            }
             // 检查是否是直接的 Map<String, Integer> 格式 (如 {"1_1":1, "1_2":2})
-            if (isDirectMapFormat(requestBody)) {
-                logger.info("使用直接 Map 格式 (Map<String, Integer>)");
-                Map<String, Integer> boardData = new HashMap<>();
-                for (Map.Entry<String, Object> entry : requestBody.entrySet()) {
-                    String key = entry.getKey();
-                    Object value = entry.getValue();
-                    if (value instanceof Number) {
-                        boardData.put(key, ((Number) value).intValue());
-                        logger.info("  {}: {}", key, value);
-                    }
-                }
-                logger.info("解析直接 Map 格式数据");
-                grid = toGridFromMap(boardData);
+            else if (BoardCodec.isDirectMapFormat(requestBody)) {
+                trace.setFormat("directMap");
+                grid = BoardCodec.toGridFromMap(BoardCodec.toCellMap(requestBody), BoardCodec.sizeOf(requestBody));
             }
             // 检查是否是包装格式 (如 {"boardData": {"1_1":1, "1_2":2}})
             else if (requestBody.containsKey("boardData")) {
-                logger.info("使用包装的 boardData 格式");
+                trace.setFormat("boardData");
                 Object boardDataObj = requestBody.get("boardData");
                 if (boardDataObj instanceof Map) {
-                    Map<String, Integer> boardData = new HashMap<>();
                     @SuppressWarnings("unchecked")
                     Map<String, Object> boardDataMap = (Map<String, Object>) boardDataObj;
-                    for (Map.Entry<String, Object> entry : boardDataMap.entrySet()) {
-                        String key = entry.getKey();
-                        Object value = entry.getValue();
-                        if (value instanceof Number) {
-                            boardData.put(key, ((Number) value).intValue());
-                            logger.info("  {}: {}", key, value);
-                        }
-                    }
-                    logger.info("解析包装的 boardData 格式数据");
-                    grid = toGridFromMap(boardData);
+                    grid = BoardCodec.toGridFromMap(BoardCodec.toCellMap(boardDataMap), BoardCodec.sizeOf(requestBody));
                 } else {
-                    logger.warn("boardData 字段格式错误");
-                    return ResponseEntity.badRequest().body(VerifyResponse.fail("boardData 字段格式错误"));
+                    return finish(trace, ResponseEntity.badRequest().body(VerifyResponse.invalid("boardData 字段格式错误")));
                 }
             }
             // 检查是否是旧的 board 格式 (如 {"board": [[5,3,0,...], ...]})
             else if (requestBody.containsKey("board")) {
-                logger.info("使用旧的 board 格式 (List<List<Integer>>)");
+                trace.setFormat("board");
                 Object boardObj = requestBody.get("board");
                 if (boardObj instanceof List) {
                     @SuppressWarnings("unchecked")
                     List<List<Integer>> board = (List<List<Integer>>) boardObj;
-                    for (int i = 0; i < board.size(); i++) {
-                        logger.info("  第{}行: {}", i + 1, board.get(i));
-                    }
-                    logger.info("解析旧的 board 格式数据");
-                    grid = toGrid(board);
+                    grid = BoardCodec.toGrid(board);
                 } else {
-                    logger.warn("board 字段格式错误");
-                    return ResponseEntity.badRequest().body(VerifyResponse.fail("board 字段格式错误"));
+                    return finish(trace, ResponseEntity.badRequest().body(VerifyResponse.invalid("board 字段格式错误")));
                 }
             } else {
-                logger.warn("请求数据格式不支持");
-                return ResponseEntity.badRequest().body(VerifyResponse.fail("请求数据格式不支持"));
+                return finish(trace, ResponseEntity.badRequest().body(VerifyResponse.invalid("请求数据格式不支持")));
             }
-            
-            // 打印解析后的数独网格
-            logger.info("解析后的数独网格:");
-            printSudokuGrid(grid);
-            
-            logger.info("开始基础校验...");
-            CheckResult checkResult = basicCheckWithPositions(grid);
-            if (!checkResult.isValid()) {
-                logger.warn("基础校验失败: {}", checkResult.getMessage());
-                return ResponseEntity.badRequest().body(VerifyResponse.failWithPositions(
-                    checkResult.getMessage(), 
-                    checkResult.getErrorPositions(), 
-                    checkResult.getErrorNumber()
-                ));
-            }
-            logger.info("基础校验通过");
-            
-            logger.info("开始求解数独...");
-            int[][] copy = deepCopy(grid);
-            boolean solvable = solve(copy);
-            if (!solvable) {
-                logger.warn("数独求解失败: 当前盘面无解或矛盾");
-                return ResponseEntity.ok(VerifyResponse.fail("当前盘面无解或矛盾"));
-            }
-            logger.info("数独求解成功");
-            
-            // 打印求解结果
-            logger.info("求解结果:");
-            printSudokuGrid(copy);
-            
-            logger.info("=== 数独校验完成，返回成功结果 ===");
-            return ResponseEntity.ok(VerifyResponse.ok("校验通过，存在解", toList(copy)));
+            trace.markParsed();
+            return verifyGrid(grid, trace, conflicts);
         } catch (IllegalArgumentException ex) {
-            logger.error("参数错误: {}", ex.getMessage());
-            return ResponseEntity.badRequest().body(VerifyResponse.fail(ex.getMessage()));
+            logger.debug("参数错误: {}", ex.getMessage());
+            return finish(trace, ResponseEntity.badRequest().body(VerifyResponse.invalid(ex.getMessage())));
         } catch (Exception ex) {
             logger.error("服务器内部错误", ex);
-            return ResponseEntity.internalServerError().body(VerifyResponse.fail("服务器错误"));
+            return finish(trace, ResponseEntity.internalServerError().body(VerifyResponse.fail("服务器错误")));
         }
     }
 
-    @GetMapping("/sample/refresh")
-    public ResponseEntity<Map<String, Object>> refreshSample() {
-        // 这里简单返回两套内置示例之一；你也可以改为从库或服务拉取
-        List<int[][]> samples = Arrays.asList(
-                new int[][]{
-                        {5,3,0,0,7,0,0,0,0},
-                        {6,0,0,1,9,5,0,0,0},
-                        {0,9,8,0,0,0,0,6,0},
-                        {8,0,0,0,6,0,0,0,3},
-                        {4,0,0,8,0,3,0,0,1},
-                        {7,0,0,0,2,0,0,0,6},
-                        {0,6,0,0,0,0,2,8,0},
-                        {0,0,0,4,1,9,0,0,5},
-                        {0,0,0,0,8,0,0,7,9}
-                },
-                new int[][]{
-                        {0,0,0,2,6,0,7,0,1},
-                        {6,8,0,0,7,0,0,9,0},
-                        {1,9,0,0,0,4,5,0,0},
-                        {8,2,0,1,0,0,0,4,0},
-                        {0,0,4,6,0,2,9,0,0},
-                        {0,5,0,0,0,3,0,2,8},
-                        {0,0,9,3,0,0,0,7,4},
-                        {0,4,0,0,5,0,0,3,6},
-                        {7,0,3,0,1,8,0,0,0}
-                }
-        );
-        int pick = (int)(System.currentTimeMillis() % samples.size());
-        int[][] chosen = samples.get(pick);
-        Map<String, Object> resp = new HashMap<>();
-        resp.put("ok", true);
-        resp.put("board", toList(chosen));
-        resp.put("message", "已返回新的示例题");
-        return ResponseEntity.ok(resp);
+    /**
+     * 紧凑文本格式：请求体就是 81 个字符，如 {@code 53..7....6..195...}
+     */
+    @PostMapping(path = "/verify", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public Object verifyText(@RequestBody String puzzle,
+                                                     @RequestParam(defaultValue = "first") String conflicts) {
+        VerifyTrace trace = traceLogger.start("text");
+        try {
+            int[] cells = BoardCodec.parseCells(puzzle);
+            trace.markParsed();
+            return verifyCells(cells, trace, conflicts);
+        } catch (IllegalArgumentException ex) {
+            logger.debug("参数错误: {}", ex.getMessage());
+            return finish(trace, ResponseEntity.badRequest().body(VerifyResponse.invalid(ex.getMessage())));
+        } catch (Exception ex) {
+            logger.error("服务器内部错误", ex);
+            return finish(trace, ResponseEntity.internalServerError().body(VerifyResponse.fail("服务器错误")));
+        }
     }
 
-    private static int[][] toGrid(List<List<Integer>> board) {
-        if (board == null || board.size() != 9) throw new IllegalArgumentException("board 必须为 9x9");
-        int[][] g = new int[9][9];
-        for (int r = 0; r < 9; r++) {
-            List<Integer> row = board.get(r);
-            if (row == null || row.size() != 9) throw new IllegalArgumentException("board 必须为 9x9");
-            for (int c = 0; c < 9; c++) {
-                Integer v = row.get(c);
-                if (v == null) v = 0;
-                if (v < 0 || v > 9) throw new IllegalArgumentException("数值必须在 0..9");
-                g[r][c] = v;
-            }
+    /**
+     * 紧凑二进制格式：41 字节，每个格子占 4 位
+     */
+    @PostMapping(path = "/verify", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Object verifyPacked(@RequestBody byte[] packed,
+                                                       @RequestParam(defaultValue = "first") String conflicts) {
+        VerifyTrace trace = traceLogger.start("packed");
+        try {
+            int[] cells = BoardCodec.unpackCells(packed);
+            trace.markParsed();
+            return verifyCells(cells, trace, conflicts);
+        } catch (IllegalArgumentException ex) {
+            logger.debug("参数错误: {}", ex.getMessage());
+            return finish(trace, ResponseEntity.badRequest().body(VerifyResponse.invalid(ex.getMessage())));
+        } catch (Exception ex) {
+            logger.error("服务器内部错误", ex);
+            return finish(trace, ResponseEntity.internalServerError().body(VerifyResponse.fail("服务器错误")));
         }
-        return g;
     }
 
-    private static int[][] toGridFromMap(Map<String, Integer> boardData) {
-        int[][] g = new int[9][9]; // 默认全为0
-        for (Map.Entry<String, Integer> entry : boardData.entrySet()) {
-            String key = entry.getKey();
-            Integer value = entry.getValue();
-            
-            // 解析 "行_列" 格式的键
-            String[] parts = key.split("_");
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("键格式错误，应为 '行_列' 格式，如 '1_1'");
-            }
-            
-            try {
-                int row = Integer.parseInt(parts[0]) - 1; // 转换为0基索引
-                int col = Integer.parseInt(parts[1]) - 1; // 转换为0基索引
-                
-                if (row < 0 || row >= 9 || col < 0 || col >= 9) {
-                    throw new IllegalArgumentException("行列索引超出范围 (1-9)");
-                }
-                if (value == null || value < 1 || value > 9) {
-                    throw new IllegalArgumentException("数值必须在 1-9 范围内");
-                }
-                
-                g[row][col] = value;
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("键格式错误，行列必须为数字");
-            }
+    /**
+     * conflicts 为 {@code all} 时，有重复的盘面只返回全部冲突格子（conflictCells / conflictMask），
+     * 默认 {@code first} 额外给出首个重复的描述与位置。
+     */
+    private Object verifyGrid(int[][] grid, VerifyTrace trace, String conflicts) {
+        // 9x9 盘面转为一维后与文本、二进制格式走同一路径，之后不再转换
+        if (grid.length == Grid81.SIZE) return verifyCells(Grid81.flatten(grid), trace, conflicts);
+        traceLogger.dumpGrid(trace, "解析后的数独网格", grid);
+        
+        boolean allConflicts = "all".equalsIgnoreCase(conflicts);
+        if (verifyDispatcher.isAsync()) {
+            // 在求解线程上组装响应，Spring 再切回容器线程写出
+            return verifyDispatcher.verifyAsync(grid, trace, allConflicts)
+                    .handle((result, ex) -> ex == null ? respond(result, trace) : failed(trace, ex));
         }
-        return g;
+        return respond(verifyDispatcher.verify(grid, trace, allConflicts), trace);
     }
 
-    private static CheckResult basicCheckWithPositions(int[][] g) {
-        logger.info("开始基础校验 - 检查行、列、九宫格的重复性");
-        
-        // 行重复性检查（忽略 0）
-        logger.info("检查行重复性...");
-        for (int r = 0; r < 9; r++) {
-            boolean[] seen = new boolean[10];
-            List<String> positions = new ArrayList<>();
-            for (int c = 0; c < 9; c++) {
-                int v = g[r][c];
-                if (v == 0) continue;
-                if (seen[v]) {
-                    // 找到重复数字的所有位置
-                    for (int c2 = 0; c2 < 9; c2++) {
-                        if (g[r][c2] == v) {
-                            positions.add((r + 1) + "_" + (c2 + 1));
-                        }
-                    }
-                    logger.warn("第{}行存在重复数: {}，位置: {}", r + 1, v, positions);
-                    return CheckResult.invalid("第" + (r + 1) + "行存在重复数 " + v, positions, v);
-                }
-                seen[v] = true;
-            }
+    /** 同 {@link #verifyGrid}，盘面为 {@link Grid81} 的一维表示 */
+    private Object verifyCells(int[] cells, VerifyTrace trace, String conflicts) {
+        traceLogger.dumpGrid(trace, "解析后的数独网格", cells);
+
+        boolean allConflicts = "all".equalsIgnoreCase(conflicts);
+        if (verifyDispatcher.isAsync()) {
+            return verifyDispatcher.verifyAsync(cells, trace, allConflicts)
+                    .handle((result, ex) -> ex == null ? respond(result, trace) : failed(trace, ex));
         }
-        logger.info("行重复性检查通过");
-        
-        // 列重复性检查（忽略 0）
-        logger.info("检查列重复性...");
-        for (int c = 0; c < 9; c++) {
-            boolean[] seen = new boolean[10];
-            List<String> positions = new ArrayList<>();
-            for (int r = 0; r < 9; r++) {
-                int v = g[r][c];
-                if (v == 0) continue;
-                if (seen[v]) {
-                    // 找到重复数字的所有位置
-                    for (int r2 = 0; r2 < 9; r2++) {
-                        if (g[r2][c] == v) {
-                            positions.add((r2 + 1) + "_" + (c + 1));
-                        }
-                    }
-                    logger.warn("第{}列存在重复数: {}，位置: {}", c + 1, v, positions);
-                    return CheckResult.invalid("第" + (c + 1) + "列存在重复数 " + v, positions, v);
-                }
-                seen[v] = true;
-            }
+        return respond(verifyDispatcher.verify(cells, trace, allConflicts), trace);
+    }
+
+    private ResponseEntity<VerifyResponse> respond(VerifyResult result, VerifyTrace trace) {
+        if (result.getStatus() == VerifyStatus.DUPLICATE) {
+            return finish(trace, ResponseEntity.badRequest().body(VerifyResponse.from(result)));
         }
-        logger.info("列重复性检查通过");
-        
-        // 九宫格重复性检查（忽略 0）
-        logger.info("检查九宫格重复性...");
-        for (int br = 0; br < 3; br++) {
-            for (int bc = 0; bc < 3; bc++) {
-                boolean[] seen = new boolean[10];
-                List<String> positions = new ArrayList<>();
-                for (int r = br * 3; r < br * 3 + 3; r++) {
-                    for (int c = bc * 3; c < bc * 3 + 3; c++) {
-                        int v = g[r][c];
-                        if (v == 0) continue;
-                        if (seen[v]) {
-                            // 找到重复数字的所有位置
-                            for (int r2 = br * 3; r2 < br * 3 + 3; r2++) {
-                                for (int c2 = bc * 3; c2 < bc * 3 + 3; c2++) {
-                                    if (g[r2][c2] == v) {
-                                        positions.add((r2 + 1) + "_" + (c2 + 1));
-                                    }
-                                }
-                            }
-                            logger.warn("第{},{} 宫存在重复数: {}，位置: {}", br + 1, bc + 1, v, positions);
-                            return CheckResult.invalid("第" + (br + 1) + "," + (bc + 1) + " 宫存在重复数 " + v, positions, v);
-                        }
-                        seen[v] = true;
-                    }
-                }
+        if (result.getStatus() == VerifyStatus.BUDGET_EXCEEDED) {
+            return finish(trace, ResponseEntity.unprocessableEntity().body(VerifyResponse.from(result)));
+        }
+        if (result.getStatus() == VerifyStatus.BUSY) {
+            return finish(trace, ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1").body(VerifyResponse.from(result)));
+        }
+        if (result.isOk()) {
+            if (result.getCells() != null) {
+                traceLogger.dumpGrid(trace, "求解结果", result.getCells());
+            } else {
+                traceLogger.dumpGrid(trace, "求解结果", result.getSolution());
             }
         }
-        logger.info("九宫格重复性检查通过");
-        logger.info("基础校验全部通过");
-        return CheckResult.valid();
+        return finish(trace, ResponseEntity.ok(VerifyResponse.from(result)));
     }
-    
 
-    private static boolean solve(int[][] g) {
-        int[] cell = findEmpty(g);
-        if (cell == null) return true;
-        int r = cell[0], c = cell[1];
-        for (int v = 1; v <= 9; v++) {
-            if (isValid(g, r, c, v)) {
-                g[r][c] = v;
-                if (solve(g)) return true;
-                g[r][c] = 0;
-            }
+    /** 异步求解抛出的异常，与同步接口的 catch 分支对应 */
+    private ResponseEntity<VerifyResponse> failed(VerifyTrace trace, Throwable ex) {
+        if (ex instanceof IllegalArgumentException) {
+            logger.debug("参数错误: {}", ex.getMessage());
+            return finish(trace, ResponseEntity.badRequest().body(VerifyResponse.invalid(ex.getMessage())));
         }
-        return false;
+        logger.error("服务器内部错误", ex);
+        return finish(trace, ResponseEntity.internalServerError().body(VerifyResponse.fail("服务器错误")));
     }
 
-    private static int[] findEmpty(int[][] g) {
-        for (int r = 0; r < 9; r++) {
-            for (int c = 0; c < 9; c++) {
-                if (g[r][c] == 0) return new int[]{r, c};
-            }
-        }
-        return null;
+    private ResponseEntity<VerifyResponse> finish(VerifyTrace trace, ResponseEntity<VerifyResponse> response) {
+        VerifyResponse body = response.getBody();
+        Object status = body.getStatus() != null ? body.getStatus() : "FAIL";
+        // 解析阶段的错误不会进入 SudokuService，在这里补记结论
+        if (body.getStatus() == VerifyStatus.INVALID_INPUT) metrics.recordOutcome(VerifyStatus.INVALID_INPUT);
+        metrics.recordRequest(trace, status);
+        traceLogger.summary(trace, response.getStatusCode().value(), status, body.getUnique());
+        return response;
     }
 
-    private static boolean isValid(int[][] g, int r, int c, int v) {
-        for (int i = 0; i < 9; i++) {
-            if (g[r][i] == v || g[i][c] == v) return false;
+    @PostMapping(path = "/verify/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchVerifyResponse> verifyBatch(@RequestBody BatchVerifyRequest request) {
+        List<int[][]> boards = request.getBoards();
+        if (boards == null) {
+            return ResponseEntity.badRequest().body(BatchVerifyResponse.fail("缺少 boards 字段"));
         }
-        int br = (r / 3) * 3, bc = (c / 3) * 3;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (g[br + i][bc + j] == v) return false;
+        logger.info("=== 收到批量校验请求，共 {} 个盘面 ===", boards.size());
+        try {
+            List<VerifyResult> results = batchVerifier.verifyAll(boards);
+            List<VerifyResponse> items = new ArrayList<>(results.size());
+            int solved = 0;
+            for (VerifyResult result : results) {
+                if (result.isOk()) solved++;
+                items.add(VerifyResponse.from(result));
             }
+            logger.info("=== 批量校验完成: {}/{} 个盘面有解 ===", solved, results.size());
+            return ResponseEntity.ok(new BatchVerifyResponse(true, "批量校验完成", results.size(), solved, items));
+        } catch (IllegalArgumentException ex) {
+            logger.warn("批量参数错误: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(BatchVerifyResponse.fail(ex.getMessage()));
+        } catch (BatchRejectedException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(BatchVerifyResponse.fail(ex.getMessage()));
+        } catch (Exception ex) {
+            logger.error("批量校验服务器内部错误", ex);
+            return ResponseEntity.internalServerError().body(BatchVerifyResponse.fail("服务器错误"));
         }
-        return true;
     }
 
-    private static int[][] deepCopy(int[][] g) {
-        int[][] cp = new int[9][9];
-        for (int r = 0; r < 9; r++) System.arraycopy(g[r], 0, cp[r], 0, 9);
-        return cp;
+    /**
+     * 流式批量求解：请求体每行一个 81 字符盘面，响应每解完一个写出一行 NDJSON。
+     * 请求体边读边解，不会整体缓冲在内存中。
+     */
+    @PostMapping(path = "/solve/stream",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> solveStream(InputStream body) {
+        logger.info("=== 收到流式求解请求 ===");
+        StreamingResponseBody stream = out -> streamSolver.solve(body, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(stream);
     }
 
-    private static List<List<Integer>> toList(int[][] g) {
-        List<List<Integer>> out = new ArrayList<>();
-        for (int r = 0; r < 9; r++) {
-            List<Integer> row = new ArrayList<>(9);
-            for (int c = 0; c < 9; c++) row.add(g[r][c]);
-            out.add(row);
-        }
-        return out;
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        long hits = solutionCache.getHits(), misses = solutionCache.getMisses();
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("enabled", solutionCache.isEnabled());
+        resp.put("size", solutionCache.size());
+        resp.put("hits", hits);
+        resp.put("misses", misses);
+        resp.put("evictions", solutionCache.getEvictions());
+        resp.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return ResponseEntity.ok(resp);
     }
-    
+
+    @GetMapping("/store/stats")
+    public ResponseEntity<Map<String, Object>> storeStats() {
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("enabled", solutionStore.isEnabled());
+        resp.put("records", solutionStore.size());
+        resp.put("hits", solutionStore.getHits());
+        resp.put("misses", solutionStore.getMisses());
+        return ResponseEntity.ok(resp);
+    }
+
     /**
-     * 判断是否是直接的 Map 格式 (如 {"1_1":1, "1_2":2})
+     * 压缩持久化存储，去掉被覆盖的旧记录。压缩期间查询与写入会等待。
      */
-    private static boolean isDirectMapFormat(Map<String, Object> requestBody) {
-        // 如果包含 boardData 或 board 字段，则不是直接格式
-        if (requestBody.containsKey("boardData") || requestBody.containsKey("board")) {
-            return false;
+    @PostMapping("/store/compact")
+    public ResponseEntity<Map<String, Object>> compactStore() {
+        Map<String, Object> resp = new LinkedHashMap<>();
+        if (!solutionStore.isEnabled()) {
+            resp.put("ok", false);
+            resp.put("message", "持久化存储未启用");
+            return ResponseEntity.badRequest().body(resp);
         }
-        
-        // 检查是否所有键都是 "数字_数字" 格式
-        for (String key : requestBody.keySet()) {
-            if (!key.matches("\\d+_\\d+")) {
-                return false;
-            }
+        try {
+            int removed = solutionStore.compact();
+            resp.put("ok", true);
+            resp.put("removed", removed);
+            resp.put("records", solutionStore.size());
+            return ResponseEntity.ok(resp);
+        } catch (IOException ex) {
+            logger.error("持久化存储压缩失败", ex);
+            resp.put("ok", false);
+            resp.put("message", "压缩失败");
+            return ResponseEntity.internalServerError().body(resp);
         }
-        
-        return !requestBody.isEmpty();
     }
-    
-    /**
-     * 打印数独网格到日志
-     */
-    private static void printSudokuGrid(int[][] grid) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n");
-        for (int r = 0; r < 9; r++) {
-            if (r % 3 == 0 && r > 0) {
-                sb.append("  ------+-------+------\n");
-            }
-            for (int c = 0; c < 9; c++) {
-                if (c % 3 == 0 && c > 0) {
-                    sb.append(" |");
-                }
-                if (grid[r][c] == 0) {
-                    sb.append(" .");
-                } else {
-                    sb.append(" ").append(grid[r][c]);
-                }
-            }
-            sb.append("\n");
+
+    @GetMapping("/sample/refresh")
+    public ResponseEntity<Map<String, Object>> refreshSample(@RequestParam(required = false) String difficulty) {
+        Map<String, Object> resp = new HashMap<>();
+        Difficulty level;
+        try {
+            level = difficulty == null ? Difficulty.MEDIUM : Difficulty.parse(difficulty);
+        } catch (IllegalArgumentException ex) {
+            resp.put("ok", false);
+            resp.put("message", ex.getMessage());
+            return ResponseEntity.badRequest().body(resp);
+        }
+        GeneratedPuzzle puzzle = puzzlePool.poll(level);
+        resp.put("ok", true);
+        if (puzzle != null) {
+            resp.put("board", toList(puzzle.getPuzzle()));
+            resp.put("difficulty", level.name().toLowerCase());
+            resp.put("clues", puzzle.getClues());
+            resp.put("message", "已返回新的示例题");
+        } else {
+            // 题库还在补充（或生成已关闭）时退回内置示例
+            resp.put("board", toList(FALLBACK_SAMPLES[ThreadLocalRandom.current().nextInt(FALLBACK_SAMPLES.length)]));
+            resp.put("message", "题库补充中，已返回内置示例题");
         }
-        logger.info(sb.toString());
+        return ResponseEntity.ok(resp);
     }
-}
-
 
+    static List<List<Integer>> toList(int[][] g) {
+        List<List<Integer>> out = new ArrayList<>();
+        for (int[] cells : g) {
+            List<Integer> row = new ArrayList<>(cells.length);
+            for (int v : cells) row.add(v);
+            out.add(row);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.sudoku.generator;
+
+import java.util.Locale;
+
+/**
+ * 题目难度，按解题所需的技巧划分。
+ */
+public enum Difficulty {
+    /** 只用唯一候选数（naked single）即可解出 */
+    EASY,
+    /** 需要隐性唯一数（hidden single） */
+    MEDIUM,
+    /** 需要数对/三数组、区块排除或 X-Wing */
+    HARD,
+    /** 以上技巧都推不下去，需要试探 */
+    EXPERT;
+
+    /**
+     * 解析请求参数中的难度，不区分大小写。
+     *
+     * @throws IllegalArgumentException 未知难度
+     */
+    public static Difficulty parse(String text) {
+        try {
+            return valueOf(text.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("未知难度: " + text + "，可选 easy、medium、hard、expert");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.sudoku.generator;
+
+/**
+ * 生成的题目及其唯一解。
+ */
+public final class GeneratedPuzzle {
+    private final int[][] puzzle;
+    private final int[][] solution;
+    private final Difficulty difficulty;
+    private final int clues;
+
+    GeneratedPuzzle(int[][] puzzle, int[][] solution, Difficulty difficulty, int clues) {
+        this.puzzle = puzzle;
+        this.solution = solution;
+        this.difficulty = difficulty;
+        this.clues = clues;
+    }
+
+    public int[][] getPuzzle() { return puzzle; }
+    public int[][] getSolution() { return solution; }
+    public Difficulty getDifficulty() { return difficulty; }
+    public int getClues() { return clues; }
+}
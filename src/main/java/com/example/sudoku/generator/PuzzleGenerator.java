@@ -0,0 +1,85 @@
+package com.example.sudoku.generator;
+
+import com.example.sudoku.solver.DlxSolver;
+import com.example.sudoku.solver.SudokuSolver;
+
+import java.util.Random;
+
+/**
+ * 随机生成有唯一解的题目。
+ * <p>
+ * 先随机填满对角线上互不影响的三个宫，再用位掩码求解器补全得到终盘；
+ * 然后按中心对称成对挖去数字，每挖一次都用 DLX 确认解仍然唯一，否则放回。
+ * 实例不是线程安全的，每个生成线程各持有一个。
+ */
+public final class PuzzleGenerator {
+
+    private static final int SIZE = 9;
+    private static final int CELLS = 81;
+
+    private final Random random;
+    private final SudokuSolver solver = new SudokuSolver();
+    private final DlxSolver dlx = new DlxSolver();
+
+    public PuzzleGenerator(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * 生成一道题目，提示数不少于 minClues；minClues 越小，挖得越彻底，题目通常越难。
+     */
+    public GeneratedPuzzle generate(int minClues) {
+        int[][] solution = randomSolution();
+        int[][] puzzle = copy(solution);
+        int clues = CELLS;
+
+        // 只需遍历前一半格子（含中心），对称位置一起挖
+        int half = CELLS / 2 + 1;
+        int[] order = new int[half];
+        for (int i = 0; i < half; i++) order[i] = i;
+        shuffle(order);
+
+        for (int i : order) {
+            int j = CELLS - 1 - i;
+            int removed = i == j ? 1 : 2;
+            if (clues - removed < minClues) continue;
+            int r1 = i / SIZE, c1 = i % SIZE, r2 = j / SIZE, c2 = j % SIZE;
+            puzzle[r1][c1] = 0;
+            puzzle[r2][c2] = 0;
+            if (dlx.countSolutions(copy(puzzle), 2) == 1) {
+                clues -= removed;
+            } else {
+                puzzle[r1][c1] = solution[r1][c1];
+                puzzle[r2][c2] = solution[r2][c2];
+            }
+        }
+        return new GeneratedPuzzle(puzzle, solution, PuzzleGrader.grade(puzzle), clues);
+    }
+
+    private int[][] randomSolution() {
+        int[][] grid = new int[SIZE][SIZE];
+        int[] digits = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (int box = 0; box < 3; box++) {
+            shuffle(digits);
+            for (int k = 0; k < SIZE; k++) grid[box * 3 + k / 3][box * 3 + k % 3] = digits[k];
+        }
+        // 对角线三宫互不相交，任何填法都能补全
+        solver.solve(grid);
+        return grid;
+    }
+
+    private void shuffle(int[] a) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int k = random.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[k];
+            a[k] = t;
+        }
+    }
+
+    private static int[][] copy(int[][] g) {
+        int[][] out = new int[SIZE][];
+        for (int r = 0; r < SIZE; r++) out[r] = g[r].clone();
+        return out;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.sudoku.generator;
+
+import com.example.sudoku.hint.CandidateGrid;
+import com.example.sudoku.hint.Step;
+import com.example.sudoku.hint.StepSolver;
+import com.example.sudoku.hint.Technique;
+
+/**
+ * 按人工解题所需的技巧给题目评级。
+ * <p>
+ * 用提示功能的 {@link StepSolver} 逐步推理到解完，按用到的最难技巧分级：
+ * 只用唯一候选数为 {@link Difficulty#EASY}，用到隐性唯一数为 {@link Difficulty#MEDIUM}，
+ * 用到数对、区块或 X-Wing 为 {@link Difficulty#HARD}；这些技巧都推不下去、必须试探的为 {@link Difficulty#EXPERT}。
+ * 调用方需保证题目有唯一解。
+ */
+public final class PuzzleGrader {
+
+    private PuzzleGrader() {}
+
+    public static Difficulty grade(int[][] puzzle) {
+        CandidateGrid grid = CandidateGrid.of(puzzle);
+        Technique hardest = Technique.NAKED_SINGLE;
+        while (!grid.isSolved()) {
+            Step step = StepSolver.next(grid);
+            if (step == null) return Difficulty.EXPERT;
+            if (step.getTechnique().compareTo(hardest) > 0) hardest = step.getTechnique();
+            if (step.isPlacement()) grid.place(step.getCell(), step.getDigit());
+            else step.apply(grid);
+        }
+        switch (hardest) {
+            case NAKED_SINGLE:
+                return Difficulty.EASY;
+            case HIDDEN_SINGLE:
+                return Difficulty.MEDIUM;
+            default:
+                return Difficulty.HARD;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.sudoku.generator;
+
+import com.example.sudoku.config.SudokuProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 按难度预先生成的题库。
+ * <p>
+ * 后台线程以最低优先级持续生成题目，按评级放入对应难度的有界队列，所有队列都满后挂起，
+ * 有题目被取走时再唤醒补充。请求线程只做一次出队，不在请求中生成题目。
+ */
+@Component
+public class PuzzlePool implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PuzzlePool.class);
+
+    private final Map<Difficulty, BlockingQueue<GeneratedPuzzle>> pools = new EnumMap<>(Difficulty.class);
+    private final boolean enabled;
+    private final int threads;
+    private final int poolSize;
+    private final Object demand = new Object();
+    private Thread[] workers = new Thread[0];
+    private volatile boolean running;
+
+    public PuzzlePool(SudokuProperties properties) {
+        SudokuProperties.Generator generator = properties.getGenerator();
+        this.enabled = generator.isEnabled();
+        this.threads = generator.getThreads();
+        this.poolSize = generator.getPoolSize();
+        for (Difficulty d : Difficulty.values()) pools.put(d, new ArrayBlockingQueue<>(Math.max(1, poolSize)));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled || threads <= 0 || poolSize <= 0) {
+            logger.info("题目生成已关闭，示例题使用内置题目");
+            return;
+        }
+        running = true;
+        workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            Thread t = new Thread(this::fill, "sudoku-generator-" + (i + 1));
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            workers[i] = t;
+            t.start();
+        }
+        logger.info("题目生成已启动: {} 个线程，每个难度保留 {} 道", threads, poolSize);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        for (Thread t : workers) t.interrupt();
+    }
+
+    /**
+     * 取出一道指定难度的题目，题库为空时返回 null。
+     */
+    public GeneratedPuzzle poll(Difficulty difficulty) {
+        GeneratedPuzzle puzzle = pools.get(difficulty).poll();
+        if (puzzle != null) {
+            synchronized (demand) {
+                demand.notifyAll();
+            }
+        }
+        return puzzle;
+    }
+
+    public int size(Difficulty difficulty) {
+        return pools.get(difficulty).size();
+    }
+
+    private void fill() {
+        PuzzleGenerator generator = new PuzzleGenerator(new Random());
+        long produced = 0;
+        while (running) {
+            Difficulty target = mostNeeded();
+            if (target == null) {
+                if (!await()) return;
+                continue;
+            }
+            try {
+                GeneratedPuzzle puzzle = generator.generate(minClues(target));
+                // 评级不一定等于目标难度，只要对应队列还有空位就留下
+                if (pools.get(puzzle.getDifficulty()).offer(puzzle)) produced++;
+            } catch (RuntimeException ex) {
+                logger.warn("生成题目失败", ex);
+            }
+            if (produced > 0 && produced % 1000 == 0) logger.debug("已生成 {} 道题目", produced);
+        }
+    }
+
+    /** 缺口最大的难度，全部满时返回 null */
+    private Difficulty mostNeeded() {
+        Difficulty best = null;
+        int bestSize = poolSize;
+        for (Difficulty d : Difficulty.values()) {
+            int size = pools.get(d).size();
+            if (size < bestSize) {
+                best = d;
+                bestSize = size;
+            }
+        }
+        return best;
+    }
+
+    /** 等待题目被取走，被中断时返回 false */
+    private boolean await() {
+        synchronized (demand) {
+            try {
+                while (running && mostNeeded() == null) demand.wait();
+                return running;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /** 按目标难度决定最少保留多少提示数：简单题少挖一些，难题挖到不能再挖 */
+    private static int minClues(Difficulty target) {
+        switch (target) {
+            case EASY:
+                return 36;
+            case MEDIUM:
+                return 30;
+            default:
+                return 0;
+        }
+    }
+}
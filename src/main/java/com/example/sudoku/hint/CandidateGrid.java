@@ -0,0 +1,66 @@
+package com.example.sudoku.hint;
+
+import com.example.sudoku.solver.Grid81;
+
+/**
+ * 候选数盘面：每个空格保存一个 9 位候选掩码（第 d-1 位表示数字 d）。
+ * <p>
+ * 填入数字时只从 20 个相关格子中去掉该数字；推理得到的排除也直接记在掩码上，
+ * 因此同一个实例可以在多次提示之间复用，而不必每次从头计算。实例不是线程安全的。
+ */
+public final class CandidateGrid {
+
+    static final int SIZE = Grid81.SIZE;
+    static final int CELLS = Grid81.CELLS;
+    static final int ALL = 0x1FF;
+
+    private final int[] values = new int[CELLS];
+    private final int[] candidates = new int[CELLS];
+    private int empty = CELLS;
+
+    private CandidateGrid() {
+        for (int i = 0; i < CELLS; i++) candidates[i] = ALL;
+    }
+
+    /**
+     * 由 9x9 盘面（0 为空格）建立候选数，调用方需先保证没有重复数字。
+     */
+    public static CandidateGrid of(int[][] grid) {
+        CandidateGrid g = new CandidateGrid();
+        for (int i = 0; i < CELLS; i++) {
+            int v = grid[Grid81.rowOf(i)][Grid81.colOf(i)];
+            if (v != 0) g.place(i, v);
+        }
+        return g;
+    }
+
+    /** 在空格 cell 填入 digit，并从相关格子中去掉该候选数 */
+    public void place(int cell, int digit) {
+        if (values[cell] == 0) empty--;
+        values[cell] = digit;
+        candidates[cell] = 0;
+        int bit = ~(1 << (digit - 1));
+        for (int k = 0; k < Grid81.PEER_COUNT; k++) candidates[Grid81.peer(cell, k)] &= bit;
+    }
+
+    /** 从 cell 的候选数中去掉 mask，返回是否有变化 */
+    public boolean eliminate(int cell, int mask) {
+        int before = candidates[cell];
+        candidates[cell] = before & ~mask;
+        return candidates[cell] != before;
+    }
+
+    public int valueAt(int cell) { return values[cell]; }
+
+    public int candidatesAt(int cell) { return candidates[cell]; }
+
+    public boolean isSolved() { return empty == 0; }
+
+    /** 第一个没有任何候选数的空格，没有时返回 -1 */
+    public int findDeadCell() {
+        for (int i = 0; i < CELLS; i++) {
+            if (values[i] == 0 && candidates[i] == 0) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.sudoku.hint;
+
+import com.example.sudoku.service.VerifyStatus;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一次提示的结果。正常情况下是一条推理链：若干排除步骤，最后一步是填数。
+ */
+public final class Hint {
+
+    public enum Kind {
+        /** 给出了下一步推理 */
+        STEP,
+        /** 盘面已经填完 */
+        SOLVED,
+        /** 盘面中有重复数字 */
+        CONFLICT,
+        /** 之前的填写有误 */
+        MISTAKE,
+        /** 当前局面无解 */
+        UNSOLVABLE,
+        /** 需要求解才能给出提示，但求解未能完成（超出预算或服务繁忙） */
+        UNAVAILABLE
+    }
+
+    private final Kind kind;
+    private final String message;
+    private final List<Step> steps;
+    private final int[] cells;
+    private final VerifyStatus status;
+
+    private Hint(Kind kind, String message, List<Step> steps, int[] cells, VerifyStatus status) {
+        this.kind = kind;
+        this.message = message;
+        this.steps = steps;
+        this.cells = cells;
+        this.status = status;
+    }
+
+    static Hint step(List<Step> chain) {
+        Step last = chain.get(chain.size() - 1);
+        return new Hint(Kind.STEP, last.getExplanation(), chain, last.getCells(), null);
+    }
+
+    static Hint solved() {
+        return new Hint(Kind.SOLVED, "盘面已经填完", Collections.<Step>emptyList(), new int[0], null);
+    }
+
+    static Hint conflict(int[] cells) {
+        return new Hint(Kind.CONFLICT, "盘面中有重复数字，请先修正", Collections.<Step>emptyList(), cells, null);
+    }
+
+    static Hint mistake(int cell, String message) {
+        return new Hint(Kind.MISTAKE, message, Collections.<Step>emptyList(), new int[]{cell}, null);
+    }
+
+    static Hint unsolvable() {
+        return new Hint(Kind.UNSOLVABLE, "当前局面无解，之前的填写有误", Collections.<Step>emptyList(), new int[0],
+                VerifyStatus.UNSOLVABLE);
+    }
+
+    static Hint unavailable(VerifyStatus status, String message) {
+        return new Hint(Kind.UNAVAILABLE, message, Collections.<Step>emptyList(), new int[0], status);
+    }
+
+    public Kind getKind() { return kind; }
+    public String getMessage() { return message; }
+    /** 推理链，最后一步是填数；没有给出推理时为空 */
+    public List<Step> getSteps() { return steps; }
+    /** 需要高亮的格子（0..80）：填数步骤的依据、冲突格子或填错的格子 */
+    public int[] getCells() { return cells; }
+    /** 求解失败时的求解状态，其他情况为 null */
+    public VerifyStatus getStatus() { return status; }
+
+    /** 推理链的最后一步（填数），没有时返回 null */
+    public Step getPlacement() {
+        return steps.isEmpty() ? null : steps.get(steps.size() - 1);
+    }
+}
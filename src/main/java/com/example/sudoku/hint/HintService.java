@@ -0,0 +1,111 @@
+package com.example.sudoku.hint;
+
+import com.example.sudoku.service.ConflictReport;
+import com.example.sudoku.service.VerifyDispatcher;
+import com.example.sudoku.service.VerifyResult;
+import com.example.sudoku.service.VerifyStatus;
+import com.example.sudoku.session.BoardSession;
+import com.example.sudoku.session.SessionManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.sudoku.solver.Grid81.colOf;
+import static com.example.sudoku.solver.Grid81.rowOf;
+
+/**
+ * 提示服务：在候选数盘面上按技巧代价从低到高推理，直到得出下一个可以填的数字。
+ * <p>
+ * 中间的排除步骤会记到候选数盘面上并一起返回，组成一条推理链。会话模式下候选数盘面保存在会话里，
+ * 下一次提示从上次推理的结果继续；所有技巧都无法推进时才求解整盘，揭示一个候选数最少的格子。
+ */
+@Service
+public class HintService {
+
+    private final VerifyDispatcher verifyDispatcher;
+    private final SessionManager sessionManager;
+
+    public HintService(VerifyDispatcher verifyDispatcher, SessionManager sessionManager) {
+        this.verifyDispatcher = verifyDispatcher;
+        this.sessionManager = sessionManager;
+    }
+
+    /**
+     * 针对一个独立的盘面给出提示，不保留任何状态。
+     */
+    public Hint hint(int[][] grid) {
+        ConflictReport conflicts = ConflictReport.scan(grid);
+        if (!conflicts.isEmpty()) return Hint.conflict(conflicts.cellIndices());
+        CandidateGrid candidates = CandidateGrid.of(grid);
+        List<Step> chain = new ArrayList<>();
+        Hint hint = reason(candidates, chain);
+        if (hint != null) return hint;
+        return reveal(chain, fewestCandidates(candidates), verifyDispatcher.verifyWithoutCache(grid));
+    }
+
+    /**
+     * 针对游戏会话给出提示，复用会话中的候选数盘面。
+     * <p>
+     * 题目解唯一而填写与解不一致时，直接指出第一个填错的格子，不再推理。
+     * 推理在会话锁内进行；需要求解时先释放锁，由 {@link SessionManager#check} 在锁外求解。
+     */
+    public Hint hint(BoardSession session) {
+        List<Step> chain = new ArrayList<>();
+        int cell;
+        synchronized (session) {
+            if (session.hasConflicts()) return Hint.conflict(ConflictReport.scan(session.snapshot()).cellIndices());
+            if (session.hasUniqueGivens() && !session.matchesSolution()) {
+                int mistake = session.firstMismatch();
+                return Hint.mistake(mistake, Step.name(mistake) + " 填写有误");
+            }
+            CandidateGrid candidates = session.candidates();
+            Hint hint = reason(candidates, chain);
+            if (hint != null) return hint;
+            cell = fewestCandidates(candidates);
+        }
+        return reveal(chain, cell, sessionManager.check(session));
+    }
+
+    /**
+     * 按技巧推理到下一个可以填的数字，排除步骤记到 grid 上并加入 chain。
+     * 已解完、出现死格或得出填数时返回对应的提示；所有技巧都无法推进时返回 null，需要求解。
+     */
+    private static Hint reason(CandidateGrid grid, List<Step> chain) {
+        if (grid.isSolved()) return Hint.solved();
+        while (true) {
+            int dead = grid.findDeadCell();
+            if (dead >= 0) return Hint.mistake(dead, Step.name(dead) + " 已没有可填的数字，之前的填写有误");
+            Step step = StepSolver.next(grid);
+            if (step == null) return null;
+            chain.add(step);
+            if (step.isPlacement()) return Hint.step(chain);
+            step.apply(grid);
+        }
+    }
+
+    private static Hint reveal(List<Step> chain, int cell, VerifyResult result) {
+        if (!result.isOk()) {
+            return result.getStatus() == VerifyStatus.UNSOLVABLE ? Hint.unsolvable()
+                    : Hint.unavailable(result.getStatus(), result.getMessage());
+        }
+        // 会话中保留的解是二维的，新求出的解是一维的
+        int[] cells = result.getCells();
+        int digit = cells != null ? cells[cell] : result.getSolution()[rowOf(cell)][colOf(cell)];
+        chain.add(Step.reveal(cell, digit));
+        return Hint.step(chain);
+    }
+
+    private static int fewestCandidates(CandidateGrid grid) {
+        int best = -1, bestCount = CandidateGrid.SIZE + 1;
+        for (int i = 0; i < CandidateGrid.CELLS; i++) {
+            if (grid.valueAt(i) != 0) continue;
+            int count = Integer.bitCount(grid.candidatesAt(i));
+            if (count < bestCount) {
+                best = i;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.sudoku.hint;
+
+import com.example.sudoku.solver.Grid81;
+
+/**
+ * 一步推理：要么在某格填入数字，要么从若干格子中排除候选数。
+ */
+public final class Step {
+
+    private final Technique technique;
+    private final int cell;
+    private final int digit;
+    private final int[] cells;
+    private final int[] eliminationCells;
+    private final int[] eliminationMasks;
+    private final String explanation;
+
+    private Step(Technique technique, int cell, int digit, int[] cells,
+                 int[] eliminationCells, int[] eliminationMasks, String explanation) {
+        this.technique = technique;
+        this.cell = cell;
+        this.digit = digit;
+        this.cells = cells;
+        this.eliminationCells = eliminationCells;
+        this.eliminationMasks = eliminationMasks;
+        this.explanation = explanation;
+    }
+
+    static Step placement(Technique technique, int cell, int digit, int[] cells, String explanation) {
+        return new Step(technique, cell, digit, cells, new int[0], new int[0], explanation);
+    }
+
+    static Step reveal(int cell, int digit) {
+        return placement(Technique.REVEAL, cell, digit, new int[]{cell},
+                "现有技巧都无法继续推进，直接揭示 " + name(cell) + " 为 " + digit);
+    }
+
+    static Step elimination(Technique technique, int digit, int[] cells,
+                            int[] eliminationCells, int[] eliminationMasks, String explanation) {
+        return new Step(technique, -1, digit, cells, eliminationCells, eliminationMasks, explanation);
+    }
+
+    public boolean isPlacement() { return cell >= 0; }
+
+    /**
+     * 把排除结果记到候选数盘面上；填数步骤由用户自己落子，这里不处理。
+     */
+    public void apply(CandidateGrid grid) {
+        for (int k = 0; k < eliminationCells.length; k++) grid.eliminate(eliminationCells[k], eliminationMasks[k]);
+    }
+
+    public Technique getTechnique() { return technique; }
+    /** 填数的格子（0..80），排除步骤为 -1 */
+    public int getCell() { return cell; }
+    /** 填入或排除的数字；排除多个数字时为 0 */
+    public int getDigit() { return digit; }
+    /** 构成推理依据的格子 */
+    public int[] getCells() { return cells; }
+    public int[] getEliminationCells() { return eliminationCells; }
+    /** 与 {@link #getEliminationCells()} 一一对应的排除掩码（第 d-1 位表示数字 d） */
+    public int[] getEliminationMasks() { return eliminationMasks; }
+    public String getExplanation() { return explanation; }
+
+    /** 格子的坐标写法，如 R3C5 */
+    static String name(int cell) {
+        return "R" + (Grid81.rowOf(cell) + 1) + "C" + (Grid81.colOf(cell) + 1);
+    }
+
+    /** 单元的中文名称，如 第3行、第5列、第2宫 */
+    static String unitName(int unit) {
+        int n = unit % CandidateGrid.SIZE + 1;
+        if (unit < CandidateGrid.SIZE) return "第" + n + "行";
+        if (unit < 2 * CandidateGrid.SIZE) return "第" + n + "列";
+        return "第" + n + "宫";
+    }
+
+    /** 候选掩码的写法，如 {2,6} */
+    static String digits(int mask) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int m = mask; m != 0; m &= m - 1) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(Integer.numberOfTrailingZeros(m) + 1);
+        }
+        return sb.append('}').toString();
+    }
+}
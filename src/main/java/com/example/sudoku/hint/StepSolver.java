@@ -0,0 +1,272 @@
+package com.example.sudoku.hint;
+
+import static com.example.sudoku.hint.CandidateGrid.CELLS;
+import static com.example.sudoku.hint.CandidateGrid.SIZE;
+import static com.example.sudoku.solver.Grid81.UNIT_COUNT;
+import static com.example.sudoku.solver.Grid81.boxOf;
+import static com.example.sudoku.solver.Grid81.colOf;
+import static com.example.sudoku.solver.Grid81.rowOf;
+import static com.example.sudoku.solver.Grid81.unitCell;
+
+/**
+ * 逻辑步进求解器：按 {@link Technique} 的顺序在候选数盘面上寻找下一步推理，只找一步，不求解整盘。
+ * 排除类技巧只在确实能排除候选数时才返回。
+ */
+public final class StepSolver {
+
+    private StepSolver() {}
+
+    /**
+     * 找出下一步推理，所有技巧都无法推进时返回 null。grid 不会被修改。
+     */
+    public static Step next(CandidateGrid grid) {
+        Step step = nakedSingle(grid);
+        if (step == null) step = hiddenSingle(grid);
+        if (step == null) step = nakedSubset(grid, 2);
+        if (step == null) step = nakedSubset(grid, 3);
+        if (step == null) step = pointing(grid);
+        if (step == null) step = claiming(grid);
+        if (step == null) step = xWing(grid);
+        return step;
+    }
+
+    private static Step nakedSingle(CandidateGrid grid) {
+        for (int i = 0; i < CELLS; i++) {
+            int cand = grid.candidatesAt(i);
+            if (grid.valueAt(i) == 0 && cand != 0 && (cand & (cand - 1)) == 0) {
+                int d = Integer.numberOfTrailingZeros(cand) + 1;
+                return Step.placement(Technique.NAKED_SINGLE, i, d, new int[]{i},
+                        Step.name(i) + " 只剩一个候选数 " + d);
+            }
+        }
+        return null;
+    }
+
+    private static Step hiddenSingle(CandidateGrid grid) {
+        // 先看宫，再看行和列，宫内的隐性唯一数对人来说最容易发现
+        for (int k = 0; k < UNIT_COUNT; k++) {
+            int u = (k + 2 * SIZE) % UNIT_COUNT;
+            for (int d = 1; d <= SIZE; d++) {
+                int bit = 1 << (d - 1), target = -1, count = 0;
+                boolean placed = false;
+                for (int j = 0; j < SIZE; j++) {
+                    int i = unitCell(u, j);
+                    if (grid.valueAt(i) == d) placed = true;
+                    else if ((grid.candidatesAt(i) & bit) != 0) {
+                        target = i;
+                        count++;
+                    }
+                }
+                if (!placed && count == 1) {
+                    return Step.placement(Technique.HIDDEN_SINGLE, target, d, unitCells(u),
+                            "在" + Step.unitName(u) + "中，数字 " + d + " 只能放在 " + Step.name(target));
+                }
+            }
+        }
+        return null;
+    }
+
+    /** 单元中 size 个空格的候选数合起来恰好 size 个数字，其他格子可排除这些数字 */
+    private static Step nakedSubset(CandidateGrid grid, int size) {
+        Technique technique = size == 2 ? Technique.NAKED_PAIR : Technique.NAKED_TRIPLE;
+        int[] pick = new int[size];
+        for (int u = 0; u < UNIT_COUNT; u++) {
+            int[] cells = new int[SIZE];
+            int n = 0;
+            for (int j = 0; j < SIZE; j++) {
+                int i = unitCell(u, j);
+                int cand = grid.candidatesAt(i);
+                if (grid.valueAt(i) == 0 && Integer.bitCount(cand) >= 2 && Integer.bitCount(cand) <= size) cells[n++] = i;
+            }
+            Step step = subset(grid, technique, u, cells, n, pick, 0, 0, 0);
+            if (step != null) return step;
+        }
+        return null;
+    }
+
+    private static Step subset(CandidateGrid grid, Technique technique, int u, int[] cells, int n,
+                               int[] pick, int depth, int from, int union) {
+        int size = pick.length;
+        if (Integer.bitCount(union) > size) return null;
+        if (depth == size) {
+            Eliminations elim = new Eliminations();
+            for (int j = 0; j < SIZE; j++) {
+                int i = unitCell(u, j);
+                if (grid.valueAt(i) != 0 || contains(pick, i)) continue;
+                elim.add(i, grid.candidatesAt(i) & union);
+            }
+            if (elim.isEmpty()) return null;
+            StringBuilder names = new StringBuilder();
+            for (int i : pick) names.append(names.length() == 0 ? "" : "、").append(Step.name(i));
+            return elim.toStep(technique, 0, pick.clone(),
+                    Step.unitName(u) + "中 " + names + " 只能填 " + Step.digits(union)
+                            + "，因此该单元其他格子可排除这些数字");
+        }
+        for (int k = from; k < n; k++) {
+            pick[depth] = cells[k];
+            Step step = subset(grid, technique, u, cells, n, pick, depth + 1, k + 1, union | grid.candidatesAt(cells[k]));
+            if (step != null) return step;
+        }
+        return null;
+    }
+
+    /** 宫内某数字的候选位置都在同一行（列）时，该行（列）宫外的格子可排除此数字 */
+    private static Step pointing(CandidateGrid grid) {
+        for (int b = 0; b < SIZE; b++) {
+            for (int d = 1; d <= SIZE; d++) {
+                int bit = 1 << (d - 1), rows = 0, cols = 0;
+                for (int j = 0; j < SIZE; j++) {
+                    int i = unitCell(2 * SIZE + b, j);
+                    if ((grid.candidatesAt(i) & bit) != 0) {
+                        rows |= 1 << rowOf(i);
+                        cols |= 1 << colOf(i);
+                    }
+                }
+                if (rows == 0) continue;
+                if (Integer.bitCount(rows) == 1) {
+                    Step step = lineOutsideBox(grid, Integer.numberOfTrailingZeros(rows), b, d, true);
+                    if (step != null) return step;
+                }
+                if (Integer.bitCount(cols) == 1) {
+                    Step step = lineOutsideBox(grid, SIZE + Integer.numberOfTrailingZeros(cols), b, d, true);
+                    if (step != null) return step;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** 行（列）中某数字的候选位置都在同一个宫时，该宫的其他格子可排除此数字 */
+    private static Step claiming(CandidateGrid grid) {
+        for (int u = 0; u < 2 * SIZE; u++) {
+            for (int d = 1; d <= SIZE; d++) {
+                int bit = 1 << (d - 1), boxes = 0;
+                for (int j = 0; j < SIZE; j++) {
+                    int i = unitCell(u, j);
+                    if ((grid.candidatesAt(i) & bit) != 0) boxes |= 1 << boxOf(i);
+                }
+                if (Integer.bitCount(boxes) != 1) continue;
+                Step step = lineOutsideBox(grid, u, Integer.numberOfTrailingZeros(boxes), d, false);
+                if (step != null) return step;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * pointing 为 true 时从 line 上宫 b 以外的格子排除 d；否则从宫 b 中 line 以外的格子排除 d。
+     */
+    private static Step lineOutsideBox(CandidateGrid grid, int line, int b, int d, boolean pointing) {
+        int bit = 1 << (d - 1);
+        int from = pointing ? line : 2 * SIZE + b;
+        Eliminations elim = new Eliminations();
+        for (int j = 0; j < SIZE; j++) {
+            int i = unitCell(from, j);
+            if (boxOf(i) == b && onLine(i, line)) continue;
+            elim.add(i, grid.candidatesAt(i) & bit);
+        }
+        if (elim.isEmpty()) return null;
+        int[] pattern = patternCells(grid, b, line, bit);
+        String box = Step.unitName(2 * SIZE + b), lineName = Step.unitName(line);
+        return pointing
+                ? elim.toStep(Technique.POINTING, d, pattern, "在" + box + "中，数字 " + d + " 只出现在" + lineName
+                        + "，因此" + lineName + "在宫外的格子可排除 " + d)
+                : elim.toStep(Technique.CLAIMING, d, pattern, "在" + lineName + "中，数字 " + d + " 只出现在" + box
+                        + "，因此" + box + "的其他格子可排除 " + d);
+    }
+
+    /** 宫与线交叉处含有该候选数的格子 */
+    private static int[] patternCells(CandidateGrid grid, int b, int line, int bit) {
+        int[] out = new int[3];
+        int n = 0;
+        for (int j = 0; j < SIZE; j++) {
+            int i = unitCell(2 * SIZE + b, j);
+            if (onLine(i, line) && (grid.candidatesAt(i) & bit) != 0) out[n++] = i;
+        }
+        int[] trimmed = new int[n];
+        System.arraycopy(out, 0, trimmed, 0, n);
+        return trimmed;
+    }
+
+    /** 某数字在两行中都只出现在同样的两列时，这两列的其他格子可排除此数字（行列互换同理） */
+    private static Step xWing(CandidateGrid grid) {
+        for (int d = 1; d <= SIZE; d++) {
+            int bit = 1 << (d - 1);
+            for (int byRow = 1; byRow >= 0; byRow--) {
+                int[] positions = new int[SIZE];
+                for (int line = 0; line < SIZE; line++) {
+                    for (int k = 0; k < SIZE; k++) {
+                        int i = unitCell(byRow == 1 ? line : SIZE + line, k);
+                        if ((grid.candidatesAt(i) & bit) != 0) positions[line] |= 1 << k;
+                    }
+                }
+                for (int a = 0; a < SIZE; a++) {
+                    if (Integer.bitCount(positions[a]) != 2) continue;
+                    for (int b = a + 1; b < SIZE; b++) {
+                        if (positions[b] != positions[a]) continue;
+                        Step step = xWingEliminate(grid, d, byRow == 1, a, b, positions[a]);
+                        if (step != null) return step;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Step xWingEliminate(CandidateGrid grid, int d, boolean byRow, int a, int b, int crossMask) {
+        int bit = 1 << (d - 1);
+        int k1 = Integer.numberOfTrailingZeros(crossMask), k2 = 31 - Integer.numberOfLeadingZeros(crossMask);
+        Eliminations elim = new Eliminations();
+        for (int line = 0; line < SIZE; line++) {
+            if (line == a || line == b) continue;
+            int u = byRow ? line : SIZE + line;
+            elim.add(unitCell(u, k1), grid.candidatesAt(unitCell(u, k1)) & bit);
+            elim.add(unitCell(u, k2), grid.candidatesAt(unitCell(u, k2)) & bit);
+        }
+        if (elim.isEmpty()) return null;
+        int ua = byRow ? a : SIZE + a, ub = byRow ? b : SIZE + b;
+        int[] corners = {unitCell(ua, k1), unitCell(ua, k2), unitCell(ub, k1), unitCell(ub, k2)};
+        String lines = byRow ? "第" + (a + 1) + "行和第" + (b + 1) + "行" : "第" + (a + 1) + "列和第" + (b + 1) + "列";
+        String cross = byRow ? "第" + (k1 + 1) + "列和第" + (k2 + 1) + "列" : "第" + (k1 + 1) + "行和第" + (k2 + 1) + "行";
+        return elim.toStep(Technique.X_WING, d, corners, "数字 " + d + " 在" + lines + "中都只出现在" + cross
+                + "，构成 X-Wing，因此" + cross + "的其他格子可排除 " + d);
+    }
+
+    /** line 为 0..8 时表示行，9..17 时表示列 */
+    private static boolean onLine(int cell, int line) {
+        return line < SIZE ? rowOf(cell) == line : colOf(cell) == line - SIZE;
+    }
+
+    private static int[] unitCells(int u) {
+        int[] cells = new int[SIZE];
+        for (int j = 0; j < SIZE; j++) cells[j] = unitCell(u, j);
+        return cells;
+    }
+
+    private static boolean contains(int[] a, int v) {
+        for (int x : a) if (x == v) return true;
+        return false;
+    }
+
+    /** 收集一步推理中的排除结果 */
+    private static final class Eliminations {
+        private final int[] cells = new int[CELLS];
+        private final int[] masks = new int[CELLS];
+        private int size;
+
+        void add(int cell, int mask) {
+            if (mask == 0) return;
+            cells[size] = cell;
+            masks[size++] = mask;
+        }
+
+        boolean isEmpty() { return size == 0; }
+
+        Step toStep(Technique technique, int digit, int[] pattern, String explanation) {
+            int[] c = new int[size], m = new int[size];
+            System.arraycopy(cells, 0, c, 0, size);
+            System.arraycopy(masks, 0, m, 0, size);
+            return Step.elimination(technique, digit, pattern, c, m, explanation);
+        }
+    }
+}
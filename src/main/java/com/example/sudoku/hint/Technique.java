@@ -0,0 +1,23 @@
+package com.example.sudoku.hint;
+
+/**
+ * 推理技巧，按代价从低到高排列，{@link StepSolver} 依次尝试。
+ */
+public enum Technique {
+    /** 格子只剩一个候选数 */
+    NAKED_SINGLE,
+    /** 某数字在一个单元中只有一个位置可放 */
+    HIDDEN_SINGLE,
+    /** 单元中两个格子的候选数恰好是同样两个数字 */
+    NAKED_PAIR,
+    /** 单元中三个格子的候选数合起来只有三个数字 */
+    NAKED_TRIPLE,
+    /** 宫内某数字只出现在同一行或同一列，可从该行/列的宫外格子排除 */
+    POINTING,
+    /** 行或列中某数字只出现在同一个宫，可从该宫的其他格子排除 */
+    CLAIMING,
+    /** 某数字在两行中都只出现在同样的两列（或反之） */
+    X_WING,
+    /** 以上技巧都无法推进时，直接给出一个格子的答案 */
+    REVEAL
+}
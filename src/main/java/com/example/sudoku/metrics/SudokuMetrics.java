@@ -0,0 +1,135 @@
+package com.example.sudoku.metrics;
+
+import com.example.sudoku.cache.SolutionCache;
+import com.example.sudoku.cache.SolutionStore;
+import com.example.sudoku.service.VerifyStatus;
+import com.example.sudoku.solver.SolveStats;
+import com.example.sudoku.trace.VerifyTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 校验与求解的 Micrometer 指标，通过 Actuator 的 {@code /actuator/prometheus} 暴露。
+ * <ul>
+ *     <li>{@code sudoku.verify.requests}：单次校验请求总耗时，按输入格式与结论打标签</li>
+ *     <li>{@code sudoku.verify.phase}：解析、在求解线程池排队、基础校验、缓存查询、求解、唯一性检查各阶段耗时</li>
+ *     <li>{@code sudoku.solver.nodes} / {@code sudoku.solver.backtracks}：每次求解的搜索节点数与回溯次数</li>
+ *     <li>{@code sudoku.solver.parallel}：单线程搜索让出、改为并行搜索的次数</li>
+ *     <li>{@code sudoku.verify.outcomes}：各结论的盘面数，覆盖单次、批量与流式请求</li>
+ *     <li>{@code sudoku.cache.*}：求解缓存的大小、命中、未命中与淘汰次数</li>
+ *     <li>{@code sudoku.store.*}：持久化存储的记录数、命中与未命中次数</li>
+ * </ul>
+ */
+@Component
+public class SudokuMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer parseTimer;
+    private final Timer queueTimer;
+    private final Timer checkTimer;
+    private final Timer cacheTimer;
+    private final Timer solveTimer;
+    private final Timer uniqueTimer;
+    private final DistributionSummary nodes;
+    private final DistributionSummary backtracks;
+    private final Counter parallel;
+    private final Map<VerifyStatus, Counter> outcomes = new EnumMap<>(VerifyStatus.class);
+    /** 按输入格式、结论缓存的请求计时器，避免每个请求都重新构造标签查找 */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Timer>> requestTimers = new ConcurrentHashMap<>();
+
+    public SudokuMetrics(MeterRegistry registry, SolutionCache solutionCache, SolutionStore solutionStore) {
+        this.registry = registry;
+        this.parseTimer = phaseTimer("parse");
+        this.queueTimer = phaseTimer("queue");
+        this.checkTimer = phaseTimer("check");
+        this.cacheTimer = phaseTimer("cache");
+        this.solveTimer = phaseTimer("solve");
+        this.uniqueTimer = phaseTimer("unique");
+        this.nodes = DistributionSummary.builder("sudoku.solver.nodes")
+                .description("每次求解的搜索节点数")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.backtracks = DistributionSummary.builder("sudoku.solver.backtracks")
+                .description("每次求解的回溯次数")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.parallel = Counter.builder("sudoku.solver.parallel")
+                .description("改为并行搜索的次数")
+                .register(registry);
+        for (VerifyStatus status : VerifyStatus.values()) {
+            outcomes.put(status, Counter.builder("sudoku.verify.outcomes")
+                    .description("按结论统计的盘面数")
+                    .tag("outcome", status.name().toLowerCase())
+                    .register(registry));
+        }
+
+        Gauge.builder("sudoku.cache.size", solutionCache, SolutionCache::size).register(registry);
+        FunctionCounter.builder("sudoku.cache.hits", solutionCache, SolutionCache::getHits).register(registry);
+        FunctionCounter.builder("sudoku.cache.misses", solutionCache, SolutionCache::getMisses).register(registry);
+        FunctionCounter.builder("sudoku.cache.evictions", solutionCache, SolutionCache::getEvictions).register(registry);
+        Gauge.builder("sudoku.store.records", solutionStore, SolutionStore::size).register(registry);
+        FunctionCounter.builder("sudoku.store.hits", solutionStore, SolutionStore::getHits).register(registry);
+        FunctionCounter.builder("sudoku.store.misses", solutionStore, SolutionStore::getMisses).register(registry);
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("sudoku.verify.phase")
+                .description("校验各阶段耗时")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void recordOutcome(VerifyStatus status) {
+        outcomes.get(status).increment();
+    }
+
+    public void recordSearch(SolveStats stats) {
+        nodes.record(stats.getNodes());
+        backtracks.record(stats.getBacktracks());
+    }
+
+    public void recordParallel() {
+        parallel.increment();
+    }
+
+    /**
+     * 单次校验请求结束时记录总耗时与各阶段耗时；未经过的阶段耗时为 0，不计入。
+     */
+    public void recordRequest(VerifyTrace trace, Object status) {
+        requestTimer(trace.getFormat(), String.valueOf(status)).record(trace.getTotalNanos(), TimeUnit.NANOSECONDS);
+        record(parseTimer, trace.getParseNanos());
+        record(queueTimer, trace.getQueueNanos());
+        record(checkTimer, trace.getCheckNanos());
+        record(cacheTimer, trace.getCacheNanos());
+        record(solveTimer, trace.getSolveNanos());
+        record(uniqueTimer, trace.getUniqueNanos());
+    }
+
+    private Timer requestTimer(String format, String status) {
+        ConcurrentHashMap<String, Timer> byStatus = requestTimers.get(format);
+        if (byStatus == null) byStatus = requestTimers.computeIfAbsent(format, f -> new ConcurrentHashMap<>());
+        Timer timer = byStatus.get(status);
+        if (timer != null) return timer;
+        return byStatus.computeIfAbsent(status, s -> Timer.builder("sudoku.verify.requests")
+                .description("单次校验请求总耗时")
+                .tag("format", format)
+                .tag("status", s)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private static void record(Timer timer, long nanos) {
+        if (nanos > 0) timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.sudoku.service;
+
+/**
+ * 批量校验因排队盘面过多被拒绝时抛出，调用方应稍后重试。
+ */
+public class BatchRejectedException extends RuntimeException {
+    public BatchRejectedException(String message) {
+        super(message);
+    }
+}
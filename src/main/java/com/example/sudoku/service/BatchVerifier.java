@@ -0,0 +1,147 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.metrics.SudokuMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 批量校验：把盘面分块提交到求解线程池并行处理，按原顺序返回结果。
+ * <p>
+ * 全局最多允许 {@code sudoku.batch.max-pending} 个盘面同时在途，超出时直接拒绝，
+ * 避免请求在队列中无限堆积。
+ * <p>
+ * 请求线程最多等待两倍的求解超时；到时仍未完成的盘面被取消，结果为 BUDGET_EXCEEDED。
+ */
+@Service
+public class BatchVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchVerifier.class);
+
+    /** 每个工作线程平均分到的块数，块越多负载越均衡 */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final SudokuService sudokuService;
+    private final SudokuMetrics metrics;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxSize;
+    private final Semaphore pending;
+    /** 等待整批结果的上限，0 表示不限 */
+    private final long waitNanos;
+
+    public BatchVerifier(SudokuService sudokuService,
+                         @Qualifier("solverExecutor") ExecutorService executor,
+                         SudokuProperties properties,
+                         SudokuMetrics metrics) {
+        SudokuProperties.Batch batch = properties.getBatch();
+        this.metrics = metrics;
+        this.sudokuService = sudokuService;
+        this.executor = executor;
+        this.parallelism = batch.resolveThreads();
+        this.maxSize = batch.getMaxSize();
+        this.pending = new Semaphore(batch.getMaxPending());
+        Duration timeout = properties.getBudget().getTimeout();
+        this.waitNanos = timeout == null ? 0 : timeout.toNanos() * 2;
+    }
+
+    /**
+     * 并行校验一组盘面，结果顺序与输入一致。
+     *
+     * @throws IllegalArgumentException 批量大小超过上限
+     * @throws BatchRejectedException   在途盘面已满
+     */
+    public List<VerifyResult> verifyAll(List<int[][]> grids) {
+        int n = grids.size();
+        if (n > maxSize) {
+            throw new IllegalArgumentException("单次批量最多 " + maxSize + " 个盘面");
+        }
+        if (n == 0) return new ArrayList<>();
+        if (!pending.tryAcquire(n)) {
+            logger.warn("批量校验被拒绝: 在途盘面已满，本次 {} 个", n);
+            throw new BatchRejectedException("服务繁忙，请稍后重试");
+        }
+        try {
+            // 工作线程与超时处理都只在槽位为空时写入，超时后迟到的结果不会改动已返回的列表
+            AtomicReferenceArray<VerifyResult> results = new AtomicReferenceArray<>(n);
+            int chunks = Math.min(n, parallelism * CHUNKS_PER_THREAD);
+            int chunkSize = (n + chunks - 1) / chunks;
+            List<Future<?>> futures = new ArrayList<>(chunks);
+            try {
+                for (int from = 0; from < n; from += chunkSize) {
+                    final int start = from, end = Math.min(n, from + chunkSize);
+                    futures.add(executor.submit(() -> {
+                        for (int i = start; i < end && !Thread.currentThread().isInterrupted(); i++) {
+                            results.compareAndSet(i, null, verifyOne(grids.get(i)));
+                        }
+                    }));
+                }
+                long deadline = System.nanoTime() + waitNanos;
+                for (Future<?> f : futures) {
+                    if (waitNanos > 0) f.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    else f.get();
+                }
+            } catch (TimeoutException ex) {
+                cancel(futures);
+                int unfinished = expire(results);
+                logger.warn("批量校验超时: {} 个盘面中 {} 个未完成", n, unfinished);
+            } catch (RejectedExecutionException ex) {
+                cancel(futures);
+                throw new BatchRejectedException("服务繁忙，请稍后重试");
+            } catch (InterruptedException ex) {
+                cancel(futures);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("批量校验被中断", ex);
+            } catch (ExecutionException ex) {
+                cancel(futures);
+                throw new IllegalStateException("批量校验失败", ex.getCause());
+            }
+            List<VerifyResult> list = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) list.add(results.get(i));
+            return list;
+        } finally {
+            pending.release(n);
+        }
+    }
+
+    /** 把尚未完成的盘面标记为超时，返回标记的个数 */
+    private int expire(AtomicReferenceArray<VerifyResult> results) {
+        VerifyResult expired = VerifyResult.budgetExceeded("批量校验超时，该盘面未完成");
+        int count = 0;
+        for (int i = 0; i < results.length(); i++) {
+            if (results.compareAndSet(i, null, expired)) {
+                metrics.recordOutcome(VerifyStatus.BUDGET_EXCEEDED);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private VerifyResult verifyOne(int[][] grid) {
+        try {
+            SudokuService.validateGrid(grid);
+        } catch (IllegalArgumentException ex) {
+            metrics.recordOutcome(VerifyStatus.INVALID_INPUT);
+            return VerifyResult.invalidInput(ex.getMessage());
+        }
+        return sudokuService.verify(grid);
+    }
+
+    private static void cancel(List<Future<?>> futures) {
+        for (Future<?> f : futures) f.cancel(true);
+    }
+}
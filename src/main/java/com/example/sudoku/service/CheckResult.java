@@ -0,0 +1,31 @@
+package com.example.sudoku.service;
+
+import java.util.List;
+
+// 校验结果类
+public class CheckResult {
+    private boolean valid;
+    private String message;
+    private List<String> errorPositions;
+    private int errorNumber;
+    
+    public CheckResult(boolean valid, String message, List<String> errorPositions, int errorNumber) {
+        this.valid = valid;
+        this.message = message;
+        this.errorPositions = errorPositions;
+        this.errorNumber = errorNumber;
+    }
+    
+    public static CheckResult valid() {
+        return new CheckResult(true, null, null, 0);
+    }
+    
+    public static CheckResult invalid(String message, List<String> errorPositions, int errorNumber) {
+        return new CheckResult(false, message, errorPositions, errorNumber);
+    }
+    
+    public boolean isValid() { return valid; }
+    public String getMessage() { return message; }
+    public List<String> getErrorPositions() { return errorPositions; }
+    public int getErrorNumber() { return errorNumber; }
+}
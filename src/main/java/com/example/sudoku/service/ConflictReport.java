@@ -0,0 +1,108 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.solver.Grid81;
+
+import java.util.Arrays;
+
+/**
+ * 盘面中所有冲突格子的集合，用 81 位掩码表示（第 i 位对应第 i 个格子，按行优先编号）。
+ * <p>
+ * {@link #scan(int[])} 先遍历一遍盘面，用位掩码记录每行、每列、每宫中出现过两次以上的数字，
+ * 再遍历一遍把数字落在这些掩码里的格子标出来。两组掩码放在按线程复用的数组里，
+ * 扫描一维盘面时没有冲突不分配内存，有冲突时只分配结果对象本身；二维盘面需要先展开一次。
+ * 与 {@link SudokuService#basicCheckWithPositions(int[][])} 遇到第一个重复就返回不同，它一次报告全部冲突。
+ */
+public final class ConflictReport {
+
+    private static final int SIZE = Grid81.SIZE;
+    private static final int CELLS = Grid81.CELLS;
+    private static final int DUP = 3 * SIZE;
+    private static final ConflictReport NONE = new ConflictReport(0L, 0L, 0);
+    /** 扫描用的掩码：前 27 个为各单元出现过的数字，后 27 个为出现过两次以上的数字 */
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[6 * SIZE]);
+
+    /** 第 0..63 个格子 */
+    private final long low;
+    /** 第 64..80 个格子 */
+    private final long high;
+    private final int count;
+
+    private ConflictReport(long low, long high, int count) {
+        this.low = low;
+        this.high = high;
+        this.count = count;
+    }
+
+    /**
+     * 扫描 9x9 盘面（0 为空格），调用方需保证数值在 0..9。
+     */
+    public static ConflictReport scan(int[][] g) {
+        return scan(Grid81.flatten(g));
+    }
+
+    /**
+     * 扫描 {@link Grid81} 的一维盘面，调用方需保证数值在 0..9。
+     */
+    public static ConflictReport scan(int[] cells) {
+        // 单元下标 0..8 为行，9..17 为列，18..26 为宫；dup 的单元 u 存在 masks[DUP + u]
+        int[] masks = SCRATCH.get();
+        Arrays.fill(masks, 0);
+        int anyDup = 0;
+        for (int i = 0; i < CELLS; i++) {
+            int v = cells[i];
+            if (v == 0) continue;
+            int bit = 1 << v, ru = Grid81.rowOf(i), cu = SIZE + Grid81.colOf(i), bu = 2 * SIZE + Grid81.boxOf(i);
+            anyDup |= (masks[DUP + ru] |= masks[ru] & bit) | (masks[DUP + cu] |= masks[cu] & bit)
+                    | (masks[DUP + bu] |= masks[bu] & bit);
+            masks[ru] |= bit;
+            masks[cu] |= bit;
+            masks[bu] |= bit;
+        }
+        if (anyDup == 0) return NONE;
+
+        long low = 0, high = 0;
+        int count = 0;
+        for (int i = 0; i < CELLS; i++) {
+            int v = cells[i];
+            if (v == 0) continue;
+            int dup = masks[DUP + Grid81.rowOf(i)] | masks[DUP + SIZE + Grid81.colOf(i)]
+                    | masks[DUP + 2 * SIZE + Grid81.boxOf(i)];
+            if ((dup & (1 << v)) == 0) continue;
+            if (i < 64) low |= 1L << i;
+            else high |= 1L << (i - 64);
+            count++;
+        }
+        return new ConflictReport(low, high, count);
+    }
+
+    public boolean isEmpty() { return count == 0; }
+
+    /** 冲突格子数 */
+    public int getCount() { return count; }
+
+    public boolean contains(int cell) {
+        return cell < 64 ? (low >>> cell & 1) != 0 : (high >>> (cell - 64) & 1) != 0;
+    }
+
+    /** 冲突格子的下标（0..80，行优先），按升序排列 */
+    public int[] cellIndices() {
+        int[] out = new int[count];
+        int n = 0;
+        for (long m = low; m != 0; m &= m - 1) out[n++] = Long.numberOfTrailingZeros(m);
+        for (long m = high; m != 0; m &= m - 1) out[n++] = 64 + Long.numberOfTrailingZeros(m);
+        return out;
+    }
+
+    /**
+     * 81 位掩码的十六进制表示，共 21 位，高位在前：最后一个字符的最低位对应第 0 个格子。
+     */
+    public String toHex() {
+        // high 只有 17 位，占前 5 个十六进制字符
+        String h = Long.toHexString(high), l = Long.toHexString(low);
+        StringBuilder sb = new StringBuilder(21);
+        for (int i = h.length(); i < 5; i++) sb.append('0');
+        sb.append(h);
+        for (int i = l.length(); i < 16; i++) sb.append('0');
+        return sb.append(l).toString();
+    }
+}
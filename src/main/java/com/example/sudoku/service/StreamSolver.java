@@ -0,0 +1,247 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.codec.BoardCodec;
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.trace.VerifyTrace;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 流式批量求解：逐行读取 81 字符盘面，在求解线程池上流水线处理，
+ * 每解完一个就写出一行 NDJSON。在途盘面数固定为一个窗口，内存占用与输入规模无关。
+ * 结果按完成顺序输出，通过 {@code line} 字段对应输入行号。
+ * <p>
+ * 每行最多保留 {@link #MAX_LINE} 个字符，更长的行其余部分直接丢弃并输出一行错误，
+ * 没有换行的超长输入也不会整行缓存在内存中。
+ */
+@Service
+public class StreamSolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamSolver.class);
+
+    /** 单行保留的最大字符数：81 个格子加上前后空白的余量 */
+    static final int MAX_LINE = 128;
+
+    private final SudokuService sudokuService;
+    private final SudokuMetrics metrics;
+    private final ExecutorService executor;
+    private final ObjectWriter writer;
+    private final int window;
+
+    public StreamSolver(SudokuService sudokuService,
+                        @Qualifier("solverExecutor") ExecutorService executor,
+                        ObjectMapper objectMapper,
+                        SudokuProperties properties,
+                        SudokuMetrics metrics) {
+        this.sudokuService = sudokuService;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.writer = objectMapper.writerFor(StreamResult.class);
+        this.window = properties.getStream().resolveWindow(properties.getBatch().resolveThreads());
+    }
+
+    /**
+     * 从 in 读取盘面直到结束，把结果写入 out，返回处理的盘面数。
+     */
+    public long solve(InputStream in, OutputStream out) throws IOException {
+        CompletionService<StreamResult> completion = new ExecutorCompletionService<>(executor);
+        LineReader reader = new LineReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long lineNo = 0, submitted = 0, written = 0;
+        // 客户端断开时写出会抛出 IOException，窗口内剩余的任务最多 window 个，任其在池中跑完
+        while (reader.next()) {
+            lineNo++;
+            if (reader.isOverlong()) {
+                metrics.recordOutcome(VerifyStatus.INVALID_INPUT);
+                write(out, StreamResult.of(lineNo, VerifyResult.invalidInput("行过长（超过 " + MAX_LINE + " 个字符），已跳过")));
+                continue;
+            }
+            String line = reader.text();
+            if (line.trim().isEmpty()) continue;
+            // 窗口已满时先等待最早完成的结果
+            while (submitted - written >= window) {
+                write(out, take(completion));
+                written++;
+            }
+            written += drainReady(completion, out);
+            final long n = lineNo;
+            final String text = line;
+            try {
+                completion.submit(() -> solveLine(n, text));
+            } catch (RejectedExecutionException ex) {
+                // 线程池已满时由读取线程自己求解，读取速度随之放缓
+                write(out, solveLine(n, text));
+                out.flush();
+                continue;
+            }
+            submitted++;
+        }
+        while (written < submitted) {
+            write(out, take(completion));
+            written++;
+            written += drainReady(completion, out);
+            out.flush();
+        }
+        out.flush();
+        logger.info("流式求解完成，共 {} 行，{} 个盘面", lineNo, written);
+        return written;
+    }
+
+    private long drainReady(CompletionService<StreamResult> completion, OutputStream out) throws IOException {
+        long count = 0;
+        Future<StreamResult> f;
+        while ((f = completion.poll()) != null) {
+            write(out, get(f));
+            count++;
+        }
+        if (count > 0) out.flush();
+        return count;
+    }
+
+    private StreamResult solveLine(long lineNo, String text) {
+        int[] cells;
+        try {
+            cells = BoardCodec.parseCells(text);
+        } catch (IllegalArgumentException ex) {
+            metrics.recordOutcome(VerifyStatus.INVALID_INPUT);
+            return StreamResult.of(lineNo, VerifyResult.invalidInput(ex.getMessage()));
+        }
+        // 流式结果只需要冲突掩码，不生成首个重复的描述
+        return StreamResult.of(lineNo, sudokuService.verify(cells, VerifyTrace.detached(), true));
+    }
+
+    private void write(OutputStream out, StreamResult result) throws IOException {
+        out.write(writer.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    private static StreamResult take(CompletionService<StreamResult> completion) throws IOException {
+        try {
+            return get(completion.take());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("流式求解被中断", ex);
+        }
+    }
+
+    private static StreamResult get(Future<StreamResult> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("流式求解被中断", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("流式求解失败", ex.getCause());
+        }
+    }
+
+    /**
+     * 按 {@code \n}、{@code \r} 或 {@code \r\n} 分行读取，每行最多保留 {@link #MAX_LINE} 个字符，
+     * 超出部分只跳过不保存。
+     */
+    static final class LineReader {
+        private final Reader in;
+        private final char[] buf = new char[8192];
+        private final char[] line = new char[MAX_LINE];
+        private int pos, limit, length;
+        private boolean overlong;
+        /** 上一行以 '\r' 结束，紧随的 '\n' 属于同一个换行 */
+        private boolean skipLf;
+
+        LineReader(Reader in) {
+            this.in = in;
+        }
+
+        /** 读取下一行，输入已结束时返回 false */
+        boolean next() throws IOException {
+            length = 0;
+            overlong = false;
+            boolean any = false;
+            while (true) {
+                if (pos == limit) {
+                    limit = in.read(buf, 0, buf.length);
+                    pos = 0;
+                    if (limit < 0) {
+                        limit = 0;
+                        return any;
+                    }
+                    continue;
+                }
+                char ch = buf[pos++];
+                if (skipLf) {
+                    skipLf = false;
+                    if (ch == '\n') continue;
+                }
+                if (ch == '\n') return true;
+                if (ch == '\r') {
+                    skipLf = true;
+                    return true;
+                }
+                any = true;
+                if (length < MAX_LINE) line[length++] = ch;
+                else overlong = true;
+            }
+        }
+
+        boolean isOverlong() { return overlong; }
+
+        String text() { return new String(line, 0, length); }
+    }
+
+    /**
+     * NDJSON 中的一行结果。
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class StreamResult {
+        private final long line;
+        private final VerifyStatus status;
+        private final String message;
+        private final String solution;
+        private final Boolean unique;
+        private final String conflictMask;
+
+        StreamResult(long line, VerifyStatus status, String message, String solution, Boolean unique,
+                     String conflictMask) {
+            this.line = line;
+            this.status = status;
+            this.message = message;
+            this.solution = solution;
+            this.unique = unique;
+            this.conflictMask = conflictMask;
+        }
+
+        static StreamResult of(long line, VerifyResult result) {
+            if (result.isOk()) {
+                return new StreamResult(line, result.getStatus(), null,
+                        BoardCodec.format81(result.getCells()), result.getUnique(), null);
+            }
+            return new StreamResult(line, result.getStatus(), result.getMessage(), null, null,
+                    result.getConflicts() == null ? null : result.getConflicts().toHex());
+        }
+
+        public long getLine() { return line; }
+        public VerifyStatus getStatus() { return status; }
+        public String getMessage() { return message; }
+        public String getSolution() { return solution; }
+        public Boolean getUnique() { return unique; }
+        public String getConflictMask() { return conflictMask; }
+    }
+}
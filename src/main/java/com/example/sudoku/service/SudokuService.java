@@ -0,0 +1,410 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.cache.BoardCanonicalizer;
+import com.example.sudoku.cache.BoardKey;
+import com.example.sudoku.cache.SolutionCache;
+import com.example.sudoku.cache.SolutionStore;
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.solver.BoardGeometry;
+import com.example.sudoku.solver.Grid81;
+import com.example.sudoku.solver.NxNSolver;
+import com.example.sudoku.solver.ParallelSolver;
+import com.example.sudoku.solver.SolveAbortedException;
+import com.example.sudoku.solver.SolveBudget;
+import com.example.sudoku.solver.SolveStats;
+import com.example.sudoku.solver.SolverEngine;
+import com.example.sudoku.trace.VerifyTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntSupplier;
+
+/**
+ * 盘面校验与求解：基础重复性检查、求解以及解的唯一性统计。
+ */
+@Service
+public class SudokuService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SudokuService.class);
+
+    private final SolverEngine solverEngine;
+    private final boolean checkUniqueness;
+    private final SolutionCache solutionCache;
+    private final SolutionStore solutionStore;
+    private final SudokuMetrics metrics;
+    private final long maxNodes;
+    private final long timeoutNanos;
+    private final long heavyAfterNodes;
+    /** 复杂盘面的并发求解名额，所有请求共享 */
+    private final Semaphore heavySolves;
+    /** 未启用并行搜索时为 null */
+    private final ParallelSolver parallelSolver;
+    private final long parallelAfterNodes;
+
+    public SudokuService(SudokuProperties properties, SolutionCache solutionCache, SolutionStore solutionStore,
+                         SudokuMetrics metrics, @Qualifier("searchPool") ForkJoinPool searchPool) {
+        this.solutionCache = solutionCache;
+        this.solutionStore = solutionStore;
+        this.metrics = metrics;
+        this.solverEngine = properties.getSolver().getEngine();
+        this.checkUniqueness = properties.getSolver().isCheckUniqueness();
+        SudokuProperties.Budget budget = properties.getBudget();
+        this.maxNodes = budget.getMaxNodes();
+        this.timeoutNanos = budget.getTimeout() == null ? 0 : budget.getTimeout().toNanos();
+        this.heavyAfterNodes = budget.getHeavyAfterNodes();
+        this.heavySolves = new Semaphore(budget.resolveMaxHeavySolves());
+        SudokuProperties.Parallel parallel = properties.getParallel();
+        this.parallelSolver = parallel.isEnabled() ? new ParallelSolver(searchPool) : null;
+        this.parallelAfterNodes = parallel.getAfterNodes();
+        logger.info("使用求解引擎: {}，唯一性检查: {}", solverEngine, checkUniqueness);
+        logger.info("求解预算: 最多 {} 个节点，超时 {}，复杂盘面（>{} 节点）最多 {} 个并发",
+                maxNodes, budget.getTimeout(), heavyAfterNodes, budget.resolveMaxHeavySolves());
+        if (parallelSolver != null) {
+            logger.info("并行搜索: 超过 {} 个节点后改用 {} 个线程", parallelAfterNodes, searchPool.getParallelism());
+        }
+    }
+
+    /**
+     * 校验并求解一个已解析好的盘面，grid 本身不会被修改。
+     * 9x9 之外的尺寸（4x4、16x16、25x25）固定使用 {@link NxNSolver}，不经过缓存，只报告首个重复。
+     */
+    public VerifyResult verify(int[][] grid) {
+        return verify(grid, VerifyTrace.detached());
+    }
+
+    /**
+     * 同 {@link #verify(int[][])}，并把各阶段耗时记录到 trace 中。
+     */
+    public VerifyResult verify(int[][] grid, VerifyTrace trace) {
+        return verify(grid, trace, false);
+    }
+
+    /**
+     * 同 {@link #verify(int[][], VerifyTrace)}。fullReport 为 true 时，有重复的盘面只返回全部冲突格子，
+     * 不再生成首个重复的描述和位置字符串。
+     */
+    public VerifyResult verify(int[][] grid, VerifyTrace trace, boolean fullReport) {
+        VerifyResult result = grid.length == 9
+                ? doVerify(Grid81.flatten(grid), trace, fullReport)
+                : verifySized(grid, trace);
+        metrics.recordOutcome(result.getStatus());
+        return result;
+    }
+
+    /**
+     * 同 {@link #verify(int[][], VerifyTrace, boolean)}，盘面已是 {@link Grid81} 的一维表示
+     * （如 {@link com.example.sudoku.codec.BoardCodec#parseCells} 的结果），校验期间不再转换为二维数组，
+     * 有解时结果通过 {@link VerifyResult#getCells()} 返回。cells 本身不会被修改。
+     */
+    public VerifyResult verify(int[] cells, VerifyTrace trace, boolean fullReport) {
+        if (cells.length != Grid81.CELLS) throw new IllegalArgumentException("盘面必须为 81 格");
+        VerifyResult result = doVerify(cells, trace, fullReport);
+        metrics.recordOutcome(result.getStatus());
+        return result;
+    }
+
+    /**
+     * 对一次性的中间盘面（如会话中的当前局面）做基础检查与求解，不读写缓存，也不计入结论统计。
+     */
+    public VerifyResult verifyWithoutCache(int[][] grid) {
+        int[] cells = Grid81.flatten(grid);
+        ConflictReport conflicts = ConflictReport.scan(cells);
+        if (!conflicts.isEmpty()) return VerifyResult.duplicate(basicCheckWithPositions(grid), conflicts);
+        SolveBudget budget = newBudget();
+        try {
+            return solve(cells, null, budget, VerifyTrace.detached());
+        } finally {
+            budget.release();
+        }
+    }
+
+    private VerifyResult doVerify(int[] cells, VerifyTrace trace, boolean fullReport) {
+        // 一次扫描找出全部冲突；只有存在冲突且需要旧格式时才转换为二维盘面生成首个重复的描述
+        ConflictReport conflicts = ConflictReport.scan(cells);
+        trace.markChecked();
+        if (!conflicts.isEmpty()) {
+            if (fullReport) return VerifyResult.conflicts(conflicts);
+            CheckResult checkResult = basicCheckWithPositions(Grid81.toRows(cells));
+            logger.debug("基础校验失败: {}", checkResult.getMessage());
+            return VerifyResult.duplicate(checkResult, conflicts);
+        }
+
+        // 之后的求解、复制、缓存键与结果都基于一维盘面，每次复制只需一个数组
+        BoardCanonicalizer.Canonical key = null;
+        if (solutionCache.isEnabled() || solutionStore.isEnabled()) {
+            key = solutionCache.keyOf(cells);
+            SolutionCache.Entry cached = lookup(key.getKey());
+            trace.markCacheLookup(cached != null);
+            if (cached != null) {
+                return cached.isSolvable()
+                        ? VerifyResult.solved(key.fromCanonicalCells(cached.getSolution()), cached.getUnique())
+                        : VerifyResult.unsolvable();
+            }
+        }
+
+        SolveBudget budget = newBudget();
+        try {
+            return solve(cells, key, budget, trace);
+        } finally {
+            budget.release();
+        }
+    }
+
+    /**
+     * cells 只作为只读的原始盘面；单线程搜索在副本上进行，让出时可能已填了一部分，并行搜索因此总是从 cells 重新开始。
+     */
+    private VerifyResult solve(int[] cells, BoardCanonicalizer.Canonical key, SolveBudget budget, VerifyTrace trace) {
+        int[] copy = cells.clone();
+        SolveStats stats = new SolveStats();
+        boolean solvable;
+        try {
+            solvable = search(budget,
+                    () -> solverEngine.solve(copy, stats, budget) ? 1 : 0,
+                    () -> countParallel(cells, copy, 1, stats, budget)) > 0;
+        } catch (SolveAbortedException ex) {
+            return aborted(ex);
+        } finally {
+            trace.markSolved();
+            trace.setSearch(stats.getNodes(), stats.getBacktracks());
+            metrics.recordSearch(stats);
+        }
+        if (!solvable) {
+            logger.debug("数独求解失败: 当前盘面无解或矛盾");
+            if (key != null) remember(key.getKey(), SolutionCache.Entry.unsolvable());
+            return VerifyResult.unsolvable();
+        }
+
+        Boolean unique = null;
+        if (checkUniqueness) {
+            // 最多数到 2 个解即可判断是否唯一
+            try {
+                unique = search(budget,
+                        () -> SolverEngine.dlx().count(cells, 2, budget),
+                        () -> countParallel(cells, null, 2, null, budget)) == 1;
+            } catch (SolveAbortedException ex) {
+                // 已经求出一个解，只是无法确定是否唯一；这种结果不放入缓存
+                logger.debug("唯一性统计中止: {}", ex.getMessage());
+                trace.markUniqueChecked();
+                return VerifyResult.solved(copy, null);
+            }
+            trace.markUniqueChecked();
+        }
+        if (key != null) remember(key.getKey(), new SolutionCache.Entry(key.toCanonical(copy), unique));
+        return VerifyResult.solved(copy, unique);
+    }
+
+    /**
+     * 从原始盘面 board 开始并行搜索，找到解时写入 target（为 null 时只计数）。
+     * 并行搜索只接受二维盘面，在让出后的少数复杂盘面上才会用到，转换的开销可以忽略。
+     */
+    private int countParallel(int[] board, int[] target, int limit, SolveStats stats, SolveBudget budget) {
+        int[][] rows = Grid81.toRows(board);
+        int count = limit == 1
+                ? (parallelSolver.solve(rows, stats, budget) ? 1 : 0)
+                : parallelSolver.countSolutions(rows, limit, stats, budget);
+        if (count > 0 && target != null) Grid81.flatten(rows, target);
+        return count;
+    }
+
+    /**
+     * 先查内存缓存，再查持久化存储；存储命中的结果放回内存缓存。
+     */
+    private SolutionCache.Entry lookup(BoardKey key) {
+        SolutionCache.Entry entry = solutionCache.isEnabled() ? solutionCache.get(key) : null;
+        if (entry == null) {
+            entry = solutionStore.get(key);
+            if (entry != null && solutionCache.isEnabled()) solutionCache.put(key, entry);
+        }
+        return entry;
+    }
+
+    private void remember(BoardKey key, SolutionCache.Entry entry) {
+        if (solutionCache.isEnabled()) solutionCache.put(key, entry);
+        solutionStore.put(key, entry);
+    }
+
+    private VerifyResult verifySized(int[][] grid, VerifyTrace trace) {
+        CheckResult checkResult = basicCheckWithPositions(grid);
+        trace.markChecked();
+        if (!checkResult.isValid()) {
+            logger.debug("基础校验失败: {}", checkResult.getMessage());
+            return VerifyResult.duplicate(checkResult);
+        }
+        int[][] copy = deepCopy(grid);
+        NxNSolver solver = new NxNSolver(grid.length);
+        SolveStats stats = new SolveStats();
+        SolveBudget budget = newBudget();
+        try {
+            int limit = checkUniqueness ? 2 : 1;
+            // 并行搜索从调用方的原始盘面重新复制，不沿用单线程搜索的工作盘面
+            int count = search(budget,
+                    () -> solver.countSolutions(copy, limit, budget),
+                    () -> {
+                        int[][] fresh = deepCopy(grid);
+                        int n = parallelSolver.countSolutions(fresh, limit, stats, budget);
+                        if (n > 0) copyInto(fresh, copy);
+                        return n;
+                    });
+            if (count == 0) return VerifyResult.unsolvable();
+            return VerifyResult.solved(copy, checkUniqueness ? count == 1 : null);
+        } catch (SolveAbortedException ex) {
+            return aborted(ex);
+        } finally {
+            budget.release();
+            trace.markSolved();
+            stats.add(solver.getNodes(), solver.getBacktracks());
+            trace.setSearch(stats.getNodes(), stats.getBacktracks());
+            metrics.recordSearch(stats);
+        }
+    }
+
+    /**
+     * 先执行单线程搜索；启用并行搜索时，单线程搜索超过 {@code sudoku.parallel.after-nodes} 个节点
+     * 且已占用复杂盘面名额后让出，改为从头并行搜索。两种搜索共用同一个预算。
+     */
+    private int search(SolveBudget budget, IntSupplier sequential, IntSupplier parallel) {
+        if (parallelSolver == null) return sequential.getAsInt();
+        budget.yieldAfter(budget.getNodes() + parallelAfterNodes);
+        try {
+            return sequential.getAsInt();
+        } catch (SolveAbortedException ex) {
+            if (ex.getReason() != SolveAbortedException.Reason.YIELD) throw ex;
+        } finally {
+            budget.yieldAfter(0);
+        }
+        logger.debug("单线程搜索已达 {} 个节点，改为并行搜索", budget.getNodes());
+        metrics.recordParallel();
+        return parallel.getAsInt();
+    }
+
+    private static VerifyResult aborted(SolveAbortedException ex) {
+        logger.debug("求解中止: {}", ex.getMessage());
+        switch (ex.getReason()) {
+            case BUSY:
+                return VerifyResult.busy();
+            case CANCELLED:
+                return VerifyResult.budgetExceeded("求解已取消");
+            case NODES:
+                return VerifyResult.budgetExceeded("盘面过于复杂，搜索节点数超出上限");
+            default:
+                return VerifyResult.budgetExceeded("盘面过于复杂，求解超时");
+        }
+    }
+
+    /**
+     * 按配置创建一次校验的求解预算，用完后需调用 {@link SolveBudget#release()}。
+     */
+    public SolveBudget newBudget() {
+        return new SolveBudget(maxNodes, timeoutNanos, heavyAfterNodes, heavySolves);
+    }
+
+    /**
+     * 检查未经解析的盘面（如批量请求直接绑定的 int[][]）尺寸与取值范围，边长可以是 4、9、16 或 25。
+     */
+    public static void validateGrid(int[][] g) {
+        if (g == null || BoardGeometry.boxSizeOf(g.length) < 0) {
+            throw new IllegalArgumentException("board 必须为 9x9（或 4x4、16x16、25x25）");
+        }
+        int side = g.length;
+        for (int r = 0; r < side; r++) {
+            if (g[r] == null || g[r].length != side) throw new IllegalArgumentException("board 每行必须有 " + side + " 个数");
+            for (int c = 0; c < side; c++) {
+                if (g[r][c] < 0 || g[r][c] > side) throw new IllegalArgumentException("数值必须在 0.." + side);
+            }
+        }
+    }
+
+    /**
+     * 按行、列、宫的顺序找出第一个重复数字及其全部位置，盘面边长由 g 决定。
+     */
+    public static CheckResult basicCheckWithPositions(int[][] g) {
+        int side = g.length, box = BoardGeometry.boxSizeOf(side);
+        // 行重复性检查（忽略 0）
+        for (int r = 0; r < side; r++) {
+            boolean[] seen = new boolean[side + 1];
+            List<String> positions = new ArrayList<>();
+            for (int c = 0; c < side; c++) {
+                int v = g[r][c];
+                if (v == 0) continue;
+                if (seen[v]) {
+                    // 找到重复数字的所有位置
+                    for (int c2 = 0; c2 < side; c2++) {
+                        if (g[r][c2] == v) {
+                            positions.add((r + 1) + "_" + (c2 + 1));
+                        }
+                    }
+                    logger.debug("第{}行存在重复数: {}，位置: {}", r + 1, v, positions);
+                    return CheckResult.invalid("第" + (r + 1) + "行存在重复数 " + v, positions, v);
+                }
+                seen[v] = true;
+            }
+        }
+        
+        // 列重复性检查（忽略 0）
+        for (int c = 0; c < side; c++) {
+            boolean[] seen = new boolean[side + 1];
+            List<String> positions = new ArrayList<>();
+            for (int r = 0; r < side; r++) {
+                int v = g[r][c];
+                if (v == 0) continue;
+                if (seen[v]) {
+                    // 找到重复数字的所有位置
+                    for (int r2 = 0; r2 < side; r2++) {
+                        if (g[r2][c] == v) {
+                            positions.add((r2 + 1) + "_" + (c + 1));
+                        }
+                    }
+                    logger.debug("第{}列存在重复数: {}，位置: {}", c + 1, v, positions);
+                    return CheckResult.invalid("第" + (c + 1) + "列存在重复数 " + v, positions, v);
+                }
+                seen[v] = true;
+            }
+        }
+        
+        // 宫重复性检查（忽略 0）
+        for (int br = 0; br < box; br++) {
+            for (int bc = 0; bc < box; bc++) {
+                boolean[] seen = new boolean[side + 1];
+                List<String> positions = new ArrayList<>();
+                for (int r = br * box; r < br * box + box; r++) {
+                    for (int c = bc * box; c < bc * box + box; c++) {
+                        int v = g[r][c];
+                        if (v == 0) continue;
+                        if (seen[v]) {
+                            // 找到重复数字的所有位置
+                            for (int r2 = br * box; r2 < br * box + box; r2++) {
+                                for (int c2 = bc * box; c2 < bc * box + box; c2++) {
+                                    if (g[r2][c2] == v) {
+                                        positions.add((r2 + 1) + "_" + (c2 + 1));
+                                    }
+                                }
+                            }
+                            logger.debug("第{},{} 宫存在重复数: {}，位置: {}", br + 1, bc + 1, v, positions);
+                            return CheckResult.invalid("第" + (br + 1) + "," + (bc + 1) + " 宫存在重复数 " + v, positions, v);
+                        }
+                        seen[v] = true;
+                    }
+                }
+            }
+        }
+        return CheckResult.valid();
+    }
+
+    static int[][] deepCopy(int[][] g) {
+        int side = g.length;
+        int[][] cp = new int[side][side];
+        for (int r = 0; r < side; r++) System.arraycopy(g[r], 0, cp[r], 0, side);
+        return cp;
+    }
+
+    private static void copyInto(int[][] from, int[][] to) {
+        for (int r = 0; r < from.length; r++) System.arraycopy(from[r], 0, to[r], 0, from.length);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.trace.VerifyTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 决定单盘面校验在哪个线程上执行。
+ * <p>
+ * 默认直接在请求线程上求解（thread-per-request）。开启 {@code sudoku.execution.offload} 后，
+ * 求解提交到按 CPU 核数配置的求解线程池，请求线程只负责读请求、等结果和写响应：
+ * 同时进行的求解不超过核数，读写缓慢的客户端只占用请求线程，不占用求解线程。
+ * 配合虚拟线程时，等待中的请求几乎没有开销。
+ * <p>
+ * 请求线程最多等待两倍的求解超时（排队与求解各一份）。等不到结果时取消任务：
+ * 尚未开始的返回 BUSY，已在求解的返回超时。
+ * <p>
+ * 开启 {@code sudoku.execution.async} 后，控制器改用 {@link #verifyAsync}：求解同样在求解线程池上进行，
+ * 但请求线程立即归还给 Tomcat，结果由 Servlet 异步处理写回，等待中的请求不占用任何线程。
+ */
+@Service
+public class VerifyDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifyDispatcher.class);
+
+    private final SudokuService sudokuService;
+    private final SudokuMetrics metrics;
+    private final ExecutorService executor;
+    private final boolean offload;
+    private final boolean async;
+    /** 等待结果的上限，0 表示不限 */
+    private final long waitNanos;
+    /** 异步模式下允许的排队时间，0 表示不限 */
+    private final long queueNanos;
+
+    public VerifyDispatcher(SudokuService sudokuService,
+                            @Qualifier("solverExecutor") ExecutorService executor,
+                            SudokuProperties properties,
+                            SudokuMetrics metrics) {
+        this.sudokuService = sudokuService;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.offload = properties.getExecution().isOffload();
+        this.async = properties.getExecution().isAsync();
+        Duration timeout = properties.getBudget().getTimeout();
+        this.queueNanos = timeout == null ? 0 : timeout.toNanos();
+        this.waitNanos = queueNanos * 2;
+        if (async) {
+            logger.info("单盘面校验以 Servlet 异步方式在求解线程池上执行，线程数 {}", properties.getBatch().resolveThreads());
+        } else if (offload) {
+            logger.info("单盘面校验将在求解线程池上执行，线程数 {}", properties.getBatch().resolveThreads());
+        }
+    }
+
+    /** 控制器是否应使用 {@link #verifyAsync} */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * 同 {@link SudokuService#verify(int[][], VerifyTrace, boolean)}；求解线程池已满或排队超时返回 BUSY。
+     */
+    public VerifyResult verify(int[][] grid, VerifyTrace trace, boolean allConflicts) {
+        if (!offload) return sudokuService.verify(grid, trace, allConflicts);
+        return dispatch(() -> {
+            trace.markDequeued();
+            return sudokuService.verify(grid, trace, allConflicts);
+        }, true);
+    }
+
+    /**
+     * 同 {@link SudokuService#verify(int[], VerifyTrace, boolean)}，盘面为 {@link com.example.sudoku.solver.Grid81} 的一维表示。
+     */
+    public VerifyResult verify(int[] cells, VerifyTrace trace, boolean allConflicts) {
+        if (!offload) return sudokuService.verify(cells, trace, allConflicts);
+        return dispatch(() -> {
+            trace.markDequeued();
+            return sudokuService.verify(cells, trace, allConflicts);
+        }, true);
+    }
+
+    /**
+     * 同 {@link SudokuService#verifyWithoutCache(int[][])}，用于会话与提示中的中间盘面。
+     * 开启 offload 或 async 时同样在求解线程池上执行；不计入结论统计，BUSY 也不计。
+     */
+    public VerifyResult verifyWithoutCache(int[][] grid) {
+        if (!offload && !async) return sudokuService.verifyWithoutCache(grid);
+        return dispatch(() -> sudokuService.verifyWithoutCache(grid), false);
+    }
+
+    /**
+     * 同 {@link #verify}，但不等待结果：立即返回，求解完成后在求解线程上完成返回的 future。
+     * 排队超过求解超时的任务不再求解，以 BUSY 完成；开始求解后由求解预算限制耗时，
+     * 因此 future 最晚在两倍求解超时后完成。求解抛出的异常原样作为 future 的异常。
+     */
+    public CompletableFuture<VerifyResult> verifyAsync(int[][] grid, VerifyTrace trace, boolean allConflicts) {
+        return submit(() -> sudokuService.verify(grid, trace, allConflicts), trace);
+    }
+
+    /**
+     * 同 {@link #verifyAsync(int[][], VerifyTrace, boolean)}，盘面为一维表示。
+     */
+    public CompletableFuture<VerifyResult> verifyAsync(int[] cells, VerifyTrace trace, boolean allConflicts) {
+        return submit(() -> sudokuService.verify(cells, trace, allConflicts), trace);
+    }
+
+    private CompletableFuture<VerifyResult> submit(Supplier<VerifyResult> task, VerifyTrace trace) {
+        CompletableFuture<VerifyResult> future = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                if (queueNanos > 0 && System.nanoTime() - queuedAt > queueNanos) {
+                    logger.debug("校验在求解线程池中排队超时");
+                    metrics.recordOutcome(VerifyStatus.BUSY);
+                    future.complete(VerifyResult.busy());
+                    return;
+                }
+                trace.markDequeued();
+                try {
+                    future.complete(task.get());
+                } catch (RuntimeException | Error ex) {
+                    future.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            metrics.recordOutcome(VerifyStatus.BUSY);
+            future.complete(VerifyResult.busy());
+        }
+        return future;
+    }
+
+    /**
+     * 把任务提交到求解线程池并等待结果，最多等待 waitNanos。record 为 false 时 BUSY 不计入结论统计。
+     */
+    private VerifyResult dispatch(Callable<VerifyResult> task, boolean record) {
+        // 任务与等待方谁先置位谁决定结果：任务先置位则开始求解，等待方先置位则任务不再执行
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<VerifyResult> future;
+        try {
+            future = executor.submit(() -> claimed.compareAndSet(false, true) ? task.call() : null);
+        } catch (RejectedExecutionException ex) {
+            if (record) metrics.recordOutcome(VerifyStatus.BUSY);
+            return VerifyResult.busy();
+        }
+        try {
+            return waitNanos > 0 ? future.get(waitNanos, TimeUnit.NANOSECONDS) : future.get();
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            if (claimed.compareAndSet(false, true)) {
+                logger.debug("校验在求解线程池中排队超时");
+                if (record) metrics.recordOutcome(VerifyStatus.BUSY);
+                return VerifyResult.busy();
+            }
+            // 已开始的求解被中断后在下一次检查预算时退出，结论由 SudokuService 记录
+            logger.debug("等待校验结果超时");
+            return VerifyResult.budgetExceeded("盘面过于复杂，求解超时");
+        } catch (InterruptedException ex) {
+            // 请求线程被中断（如服务关闭）时不再需要结果，求解在下一次检查预算时退出
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("校验被中断", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            // 保持与直接调用相同的异常类型，控制器据此区分 400 与 500
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException("校验失败", cause);
+        }
+    }
+}
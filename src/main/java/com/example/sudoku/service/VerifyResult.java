@@ -0,0 +1,93 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.solver.Grid81;
+
+import java.util.List;
+
+/**
+ * 一次盘面校验的结果，由控制器转换为响应体。
+ */
+public class VerifyResult {
+    private final VerifyStatus status;
+    private final String message;
+    private final int[][] solution;
+    /** 9x9 的解按 {@link Grid81} 一维存放，此时 solution 为 null */
+    private final int[] cells;
+    private final List<String> errorPositions;
+    private final int errorNumber;
+    private final Boolean unique;
+    private final ConflictReport conflicts;
+
+    private VerifyResult(VerifyStatus status, String message, int[][] solution,
+                         List<String> errorPositions, int errorNumber, Boolean unique) {
+        this(status, message, solution, null, errorPositions, errorNumber, unique, null);
+    }
+
+    private VerifyResult(VerifyStatus status, String message, int[][] solution, int[] cells,
+                         List<String> errorPositions, int errorNumber, Boolean unique, ConflictReport conflicts) {
+        this.status = status;
+        this.message = message;
+        this.solution = solution;
+        this.cells = cells;
+        this.errorPositions = errorPositions;
+        this.errorNumber = errorNumber;
+        this.unique = unique;
+        this.conflicts = conflicts;
+    }
+
+    public static VerifyResult solved(int[][] solution, Boolean unique) {
+        return new VerifyResult(VerifyStatus.SOLVED, "校验通过，存在解", solution, null, 0, unique);
+    }
+
+    /** 9x9 盘面的解，直接保存一维盘面，不转换为二维数组 */
+    public static VerifyResult solved(int[] cells, Boolean unique) {
+        return new VerifyResult(VerifyStatus.SOLVED, "校验通过，存在解", null, cells, null, 0, unique, null);
+    }
+
+    public static VerifyResult invalidInput(String message) {
+        return new VerifyResult(VerifyStatus.INVALID_INPUT, message, null, null, 0, null);
+    }
+
+    public static VerifyResult duplicate(CheckResult check) {
+        return duplicate(check, null);
+    }
+
+    /** 首个重复的描述与位置，附带全部冲突格子 */
+    public static VerifyResult duplicate(CheckResult check, ConflictReport conflicts) {
+        return new VerifyResult(VerifyStatus.DUPLICATE, check.getMessage(), null, null,
+                check.getErrorPositions(), check.getErrorNumber(), null, conflicts);
+    }
+
+    /** 只报告全部冲突格子，不生成位置字符串 */
+    public static VerifyResult conflicts(ConflictReport conflicts) {
+        return new VerifyResult(VerifyStatus.DUPLICATE, "共有 " + conflicts.getCount() + " 个格子与同行、同列或同宫的数字重复",
+                null, null, null, 0, null, conflicts);
+    }
+
+    public static VerifyResult unsolvable() {
+        return new VerifyResult(VerifyStatus.UNSOLVABLE, "当前盘面无解或矛盾", null, null, 0, null);
+    }
+
+    public static VerifyResult budgetExceeded(String message) {
+        return new VerifyResult(VerifyStatus.BUDGET_EXCEEDED, message, null, null, 0, null);
+    }
+
+    public static VerifyResult busy() {
+        return new VerifyResult(VerifyStatus.BUSY, "复杂盘面求解繁忙，请稍后重试", null, null, 0, null);
+    }
+
+    public boolean isOk() { return status == VerifyStatus.SOLVED; }
+    public VerifyStatus getStatus() { return status; }
+    public String getMessage() { return message; }
+    /** 解的二维数组，9x9 的解每次调用都会新建数组，响应等热路径应使用 {@link #getCells()} */
+    public int[][] getSolution() {
+        return solution != null || cells == null ? solution : Grid81.toRows(cells);
+    }
+    /** 9x9 盘面的解（{@link Grid81} 一维表示，只读），其他尺寸或没有解时为 null */
+    public int[] getCells() { return cells; }
+    public List<String> getErrorPositions() { return errorPositions; }
+    public int getErrorNumber() { return errorNumber; }
+    public Boolean getUnique() { return unique; }
+    /** 有重复时的全部冲突格子，其他情况为 null */
+    public ConflictReport getConflicts() { return conflicts; }
+}
@@ -0,0 +1,19 @@
+package com.example.sudoku.service;
+
+/**
+ * 单个盘面的校验结论。
+ */
+public enum VerifyStatus {
+    /** 校验通过且存在解 */
+    SOLVED,
+    /** 盘面尺寸或数值不合法 */
+    INVALID_INPUT,
+    /** 行、列或宫存在重复数字 */
+    DUPLICATE,
+    /** 无重复但无解 */
+    UNSOLVABLE,
+    /** 求解超出节点数或时间预算，未能得出结论 */
+    BUDGET_EXCEEDED,
+    /** 复杂盘面的并发求解名额已满，稍后可重试 */
+    BUSY
+}
@@ -0,0 +1,184 @@
+package com.example.sudoku.session;
+
+import com.example.sudoku.hint.CandidateGrid;
+import com.example.sudoku.solver.Grid81;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一局游戏的盘面状态。
+ * <p>
+ * 每行、每列、每宫分别记录各数字出现的次数，落子时只更新三个计数，
+ * 冲突判断与整盘是否仍有重复都是 O(1)。同时保留一个已知解，并记录当前填写与该解不一致的格子数，
+ * 检查可解性时大多数情况下无需重新搜索。
+ * <p>
+ * 所有方法都需要在持有实例锁时调用（公开方法已同步）。
+ */
+public final class BoardSession {
+
+    private static final int SIZE = Grid81.SIZE;
+    private static final int CELLS = Grid81.CELLS;
+
+    private final String id;
+    private final int[] cells = new int[CELLS];
+    private final boolean[] given = new boolean[CELLS];
+    /** 下标为 单元 * 10 + 数字 */
+    private final int[] rowCount = new int[SIZE * 10];
+    private final int[] colCount = new int[SIZE * 10];
+    private final int[] boxCount = new int[SIZE * 10];
+    /** 各单元中重复出现的数字个数之和（同一数字出现 k 次记 k-1），为 0 表示没有冲突 */
+    private int excess;
+    private int filled;
+    /** 已知的一个解；题目有唯一解时，与之不一致的填写必然导致无解 */
+    private int[] solution;
+    private final boolean uniqueGivens;
+    private int mismatches;
+    /** 提示用的候选数盘面，首次提示时建立；只填入空格时增量更新，其他改动使其失效 */
+    private CandidateGrid candidates;
+    /** 每次落子改变盘面时加一，用于判断锁外求解期间局面是否变化 */
+    private long version;
+    private volatile long lastAccess;
+
+    BoardSession(String id, int[][] givens, int[][] solution, boolean uniqueGivens) {
+        this.id = id;
+        this.uniqueGivens = uniqueGivens;
+        this.solution = Grid81.flatten(solution);
+        for (int i = 0; i < CELLS; i++) {
+            int v = givens[Grid81.rowOf(i)][Grid81.colOf(i)];
+            if (v == 0) continue;
+            given[i] = true;
+            add(i, v);
+        }
+        touch();
+    }
+
+    /**
+     * 在 (row, col)（从 0 开始）填入 value，value 为 0 表示清空。
+     *
+     * @throws IllegalArgumentException 坐标或数值越界，或试图修改题目给出的格子
+     */
+    public synchronized MoveResult move(int row, int col, int value) {
+        if (row < 0 || row >= SIZE || col < 0 || col >= SIZE) throw new IllegalArgumentException("行列必须在 1..9");
+        if (value < 0 || value > SIZE) throw new IllegalArgumentException("数值必须在 0..9");
+        int i = row * SIZE + col;
+        if (given[i]) throw new IllegalArgumentException("题目给出的格子不能修改");
+        touch();
+        int old = cells[i];
+        if (old != value) {
+            version++;
+            if (old != 0) remove(i, old);
+            if (value != 0) add(i, value);
+            if (candidates != null) {
+                if (old == 0 && excess == 0) candidates.place(i, value);
+                else candidates = null;
+            }
+        }
+        boolean conflict = value != 0 && (rowCount[row * 10 + value] > 1
+                || colCount[col * 10 + value] > 1
+                || boxCount[Grid81.boxOf(i) * 10 + value] > 1);
+        return new MoveResult(conflict, conflict ? conflictPositions(i, value) : null,
+                excess == 0, filled, isComplete());
+    }
+
+    public synchronized int[][] snapshot() {
+        touch();
+        return Grid81.toRows(cells);
+    }
+
+    public synchronized int[][] givens() {
+        int[][] g = new int[SIZE][SIZE];
+        for (int i = 0; i < CELLS; i++) if (given[i]) g[Grid81.rowOf(i)][Grid81.colOf(i)] = cells[i];
+        return g;
+    }
+
+    /** 是否存在行、列或宫内的重复数字 */
+    public synchronized boolean hasConflicts() { return excess > 0; }
+
+    /** 当前填写是否都与已知解一致 */
+    public synchronized boolean matchesSolution() { return mismatches == 0; }
+
+    /** 题目本身是否有唯一解 */
+    public boolean hasUniqueGivens() { return uniqueGivens; }
+
+    public synchronized boolean isComplete() { return filled == CELLS && excess == 0; }
+
+    public synchronized int getFilled() { return filled; }
+
+    /** 第一个与已知解不一致的格子（0..80），没有时返回 -1 */
+    public synchronized int firstMismatch() {
+        if (mismatches == 0) return -1;
+        for (int i = 0; i < CELLS; i++) {
+            if (cells[i] != 0 && cells[i] != solution[i]) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 提示用的候选数盘面，调用方需持有实例锁并保证当前没有冲突。返回的实例会随落子更新，调用方可以在上面记录排除结果。
+     */
+    public synchronized CandidateGrid candidates() {
+        if (candidates == null) candidates = CandidateGrid.of(snapshot());
+        return candidates;
+    }
+
+    public synchronized int[][] getSolution() {
+        return Grid81.toRows(solution);
+    }
+
+    /**
+     * 用新求出的、与当前填写一致的解替换已知解。
+     */
+    synchronized void retainSolution(int[][] newSolution) {
+        solution = Grid81.flatten(newSolution);
+        mismatches = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if (cells[i] != 0 && cells[i] != solution[i]) mismatches++;
+        }
+    }
+
+    public String getId() { return id; }
+
+    synchronized long getVersion() { return version; }
+
+    long getLastAccess() { return lastAccess; }
+
+    private void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    private void add(int i, int v) {
+        int r = Grid81.rowOf(i), c = Grid81.colOf(i), b = Grid81.boxOf(i);
+        if (rowCount[r * 10 + v]++ > 0) excess++;
+        if (colCount[c * 10 + v]++ > 0) excess++;
+        if (boxCount[b * 10 + v]++ > 0) excess++;
+        if (v != solution[i]) mismatches++;
+        cells[i] = v;
+        filled++;
+    }
+
+    private void remove(int i, int v) {
+        int r = Grid81.rowOf(i), c = Grid81.colOf(i), b = Grid81.boxOf(i);
+        if (--rowCount[r * 10 + v] > 0) excess--;
+        if (--colCount[c * 10 + v] > 0) excess--;
+        if (--boxCount[b * 10 + v] > 0) excess--;
+        if (v != solution[i]) mismatches--;
+        cells[i] = 0;
+        filled--;
+    }
+
+    /** 与 cell 同行、同列或同宫且数字相同的格子，包含自身，格式与 errorPositions 一致 */
+    private List<String> conflictPositions(int cell, int value) {
+        List<String> positions = new ArrayList<>();
+        positions.add(position(cell));
+        for (int k = 0; k < Grid81.PEER_COUNT; k++) {
+            int p = Grid81.peer(cell, k);
+            if (cells[p] == value) positions.add(position(p));
+        }
+        return positions;
+    }
+
+    private static String position(int cell) {
+        return (Grid81.rowOf(cell) + 1) + "_" + (Grid81.colOf(cell) + 1);
+    }
+}
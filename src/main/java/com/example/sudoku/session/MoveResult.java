@@ -0,0 +1,32 @@
+package com.example.sudoku.session;
+
+import java.util.List;
+
+/**
+ * 一次落子的结果。
+ */
+public final class MoveResult {
+    private final boolean conflict;
+    private final List<String> conflictPositions;
+    private final boolean valid;
+    private final int filled;
+    private final boolean complete;
+
+    MoveResult(boolean conflict, List<String> conflictPositions, boolean valid, int filled, boolean complete) {
+        this.conflict = conflict;
+        this.conflictPositions = conflictPositions;
+        this.valid = valid;
+        this.filled = filled;
+        this.complete = complete;
+    }
+
+    /** 本次填入的数字是否与同行、同列或同宫的数字重复 */
+    public boolean isConflict() { return conflict; }
+    /** 冲突时相关格子的位置（"行_列"，从 1 开始），否则为 null */
+    public List<String> getConflictPositions() { return conflictPositions; }
+    /** 整个盘面是否没有任何重复 */
+    public boolean isValid() { return valid; }
+    public int getFilled() { return filled; }
+    /** 是否已填满且没有重复 */
+    public boolean isComplete() { return complete; }
+}
@@ -0,0 +1,10 @@
+package com.example.sudoku.session;
+
+/**
+ * 会话数已达上限时抛出，调用方应稍后重试。
+ */
+public class SessionLimitException extends RuntimeException {
+    public SessionLimitException(String message) {
+        super(message);
+    }
+}
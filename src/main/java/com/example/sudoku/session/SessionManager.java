@@ -0,0 +1,151 @@
+package com.example.sudoku.session;
+
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.service.ConflictReport;
+import com.example.sudoku.service.SudokuService;
+import com.example.sudoku.service.VerifyDispatcher;
+import com.example.sudoku.service.VerifyResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 管理游戏会话：创建、查找、可解性检查以及空闲淘汰。
+ * <p>
+ * 会话数有上限，后台线程按固定间隔清理超过 {@code sudoku.session.idle-timeout} 未访问的会话。
+ */
+@Service
+public class SessionManager implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionManager.class);
+
+    private final ConcurrentHashMap<String, BoardSession> sessions = new ConcurrentHashMap<>();
+    /** 已占用的会话名额，先占名额再放入 sessions，移除成功后归还，保证并发创建时不超过上限 */
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final VerifyDispatcher verifyDispatcher;
+    private final long idleTimeoutNanos;
+    private final long sweepIntervalMillis;
+    private final int maxSessions;
+    private ScheduledExecutorService sweeper;
+
+    public SessionManager(VerifyDispatcher verifyDispatcher, SudokuProperties properties) {
+        SudokuProperties.Session session = properties.getSession();
+        this.verifyDispatcher = verifyDispatcher;
+        this.idleTimeoutNanos = session.getIdleTimeout().toNanos();
+        this.sweepIntervalMillis = Math.max(1, session.getSweepInterval().toMillis());
+        this.maxSessions = session.getMaxSessions();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sudoku-session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::evictIdle, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (sweeper != null) sweeper.shutdownNow();
+    }
+
+    /**
+     * 以给定题目和它的一个解开启新会话。
+     *
+     * @param uniqueGivens 题目是否已确认只有这一个解
+     * @throws SessionLimitException 会话数已满
+     */
+    public BoardSession open(int[][] givens, int[][] solution, boolean uniqueGivens) {
+        if (!reserve()) {
+            evictIdle();
+            if (!reserve()) throw new SessionLimitException("会话数已满，请稍后重试");
+        }
+        BoardSession session = new BoardSession(UUID.randomUUID().toString(), givens, solution, uniqueGivens);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /** 查找会话，不存在或已过期时返回 null */
+    public BoardSession get(String id) {
+        return sessions.get(id);
+    }
+
+    public boolean close(String id) {
+        if (sessions.remove(id) == null) return false;
+        reserved.decrementAndGet();
+        return true;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * 检查当前局面是否仍然可解。
+     * <p>
+     * 有重复数字时直接报告重复；填写都与已知解一致时无需搜索；题目解唯一而填写与之不符时必然无解；
+     * 只有题目解不唯一且填写偏离已知解时才重新求解，求出的新解会保留下来供之后的检查使用。
+     * <p>
+     * 求解可能阻塞（并行搜索、在求解线程池中排队），因此只在锁内复制局面，求解时不持有会话锁，
+     * 求解期间局面没有变化时才保留新解。
+     */
+    public VerifyResult check(BoardSession session) {
+        int[][] current;
+        long version;
+        synchronized (session) {
+            current = session.snapshot();
+            if (session.hasConflicts()) {
+                return VerifyResult.duplicate(SudokuService.basicCheckWithPositions(current), ConflictReport.scan(current));
+            }
+            if (session.matchesSolution()) {
+                return VerifyResult.solved(session.getSolution(), session.hasUniqueGivens() ? Boolean.TRUE : null);
+            }
+            if (session.hasUniqueGivens()) return VerifyResult.unsolvable();
+            version = session.getVersion();
+        }
+
+        VerifyResult result = verifyDispatcher.verifyWithoutCache(current);
+        if (result.isOk()) {
+            synchronized (session) {
+                if (session.getVersion() == version) session.retainSolution(result.getSolution());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 原子地占用一个会话名额，已满时返回 false。
+     */
+    private boolean reserve() {
+        while (true) {
+            int n = reserved.get();
+            if (n >= maxSessions) return false;
+            if (reserved.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Map.Entry<String, BoardSession> e : sessions.entrySet()) {
+            // 与 close 并发时只有一方移除成功，名额只归还一次
+            if (now - e.getValue().getLastAccess() > idleTimeoutNanos && sessions.remove(e.getKey(), e.getValue())) {
+                reserved.decrementAndGet();
+                evicted++;
+            }
+        }
+        if (evicted > 0) logger.debug("清理空闲会话 {} 个，剩余 {} 个", evicted, sessions.size());
+    }
+}
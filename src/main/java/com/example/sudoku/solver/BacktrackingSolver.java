@@ -0,0 +1,70 @@
+package com.example.sudoku.solver;
+
+/**
+ * 朴素回溯求解器：按行列顺序找空格，逐个尝试 1..9。
+ * 仅作为参考实现保留，便于与 {@link SudokuSolver} 对照结果与性能。
+ */
+public final class BacktrackingSolver {
+
+    private BacktrackingSolver() {}
+
+    public static boolean solve(int[][] g) {
+        return solve(g, null);
+    }
+
+    /**
+     * 求解并把搜索节点数与回溯次数累加到 stats（可为 null）。
+     */
+    public static boolean solve(int[][] g, SolveStats stats) {
+        return solve(g, stats, null);
+    }
+
+    /**
+     * 在预算内求解（budget 可为 null），预算用完时抛出 {@link SolveAbortedException}，g 中可能残留部分填写。
+     */
+    public static boolean solve(int[][] g, SolveStats stats, SolveBudget budget) {
+        int[] cells = Grid81.flatten(g);
+        try {
+            return solve(cells, stats, budget);
+        } finally {
+            Grid81.unflatten(cells, g);
+        }
+    }
+
+    /**
+     * 同 {@link #solve(int[][], SolveStats, SolveBudget)}，盘面为 {@link Grid81} 的一维表示。
+     */
+    public static boolean solve(int[] cells, SolveStats stats, SolveBudget budget) {
+        long[] counters = new long[2];
+        try {
+            return search(cells, 0, counters, budget);
+        } finally {
+            if (stats != null) stats.add(counters[0], counters[1]);
+        }
+    }
+
+    /** 从 from 开始按行列顺序找空格；counters[0] 为节点数，counters[1] 为回溯次数 */
+    private static boolean search(int[] cells, int from, long[] counters, SolveBudget budget) {
+        counters[0]++;
+        if (budget != null) budget.tick();
+        int i = from;
+        while (i < Grid81.CELLS && cells[i] != 0) i++;
+        if (i == Grid81.CELLS) return true;
+        for (int v = 1; v <= 9; v++) {
+            if (isValid(cells, i, v)) {
+                cells[i] = v;
+                if (search(cells, i + 1, counters, budget)) return true;
+                cells[i] = 0;
+                counters[1]++;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isValid(int[] cells, int i, int v) {
+        for (int peer : Grid81.PEERS[i]) {
+            if (cells[peer] == v) return false;
+        }
+        return true;
+    }
+}
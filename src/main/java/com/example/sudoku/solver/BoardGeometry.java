@@ -0,0 +1,82 @@
+package com.example.sudoku.solver;
+
+/**
+ * 宫大小为 n 的盘面（边长 n²，共 n⁴ 个格子）的查找表：单元、相关格子以及宫与行/列的交叉段。
+ * 支持 n = 2..5，即 4x4 到 25x25；每种尺寸只构建一次。
+ */
+public final class BoardGeometry {
+
+    public static final int MIN_BOX = 2;
+    public static final int MAX_BOX = 5;
+
+    private static final BoardGeometry[] BY_BOX = new BoardGeometry[MAX_BOX + 1];
+
+    static {
+        for (int n = MIN_BOX; n <= MAX_BOX; n++) BY_BOX[n] = new BoardGeometry(n);
+    }
+
+    /** 宫的边长 */
+    final int box;
+    /** 盘面边长，也是数字的个数 */
+    final int side;
+    final int cells;
+    /** 全部数字的候选掩码，第 d-1 位表示数字 d */
+    final int all;
+    final int[] rowOf;
+    final int[] colOf;
+    final int[] boxOf;
+    /** 3 * side 个单元（行、列、宫）各自包含的格子 */
+    final int[][] units;
+    /** 每个格子同行、同列、同宫的其他格子 */
+    final int[][] peers;
+
+    private BoardGeometry(int n) {
+        box = n;
+        side = n * n;
+        cells = side * side;
+        all = (1 << side) - 1;
+        rowOf = new int[cells];
+        colOf = new int[cells];
+        boxOf = new int[cells];
+        units = new int[3 * side][side];
+        for (int i = 0; i < cells; i++) {
+            int r = i / side, c = i % side, b = (r / n) * n + c / n;
+            rowOf[i] = r;
+            colOf[i] = c;
+            boxOf[i] = b;
+            units[r][c] = i;
+            units[side + c][r] = i;
+            units[2 * side + b][(r % n) * n + c % n] = i;
+        }
+        peers = new int[cells][3 * side - 2 * n - 1];
+        for (int i = 0; i < cells; i++) {
+            int k = 0;
+            for (int j = 0; j < cells; j++) {
+                if (j != i && (rowOf[j] == rowOf[i] || colOf[j] == colOf[i] || boxOf[j] == boxOf[i])) peers[i][k++] = j;
+            }
+        }
+    }
+
+    /**
+     * 按盘面边长取查找表。
+     *
+     * @throws IllegalArgumentException 不支持的边长
+     */
+    public static BoardGeometry forSide(int side) {
+        int n = boxSizeOf(side);
+        if (n < 0) throw new IllegalArgumentException("盘面边长必须为 4、9、16 或 25");
+        return BY_BOX[n];
+    }
+
+    /** 边长对应的宫大小，不支持的边长返回 -1 */
+    public static int boxSizeOf(int side) {
+        for (int n = MIN_BOX; n <= MAX_BOX; n++) {
+            if (n * n == side) return n;
+        }
+        return -1;
+    }
+
+    public int getBox() { return box; }
+    public int getSide() { return side; }
+    public int getCells() { return cells; }
+}
@@ -0,0 +1,225 @@
+package com.example.sudoku.solver;
+
+/**
+ * 基于 Dancing Links（Knuth Algorithm X）的精确覆盖求解器，主要用于统计解的个数。
+ * <p>
+ * 9x9 数独对应 324 列约束（格子、行-数字、列-数字、宫-数字）和 729 行候选，
+ * 完整的链表结构只在类加载时构建一次，每次求解时从模板拷贝到实例数组中，
+ * 再覆盖已给出的数字所在的行。实例不是线程安全的，但可以复用。
+ */
+public final class DlxSolver {
+
+    private static final int SIZE = 9;
+    private static final int CELLS = 81;
+    private static final int COLUMNS = 4 * CELLS;
+    private static final int ROWS = CELLS * SIZE;
+    private static final int NODES = 1 + COLUMNS + ROWS * 4;
+
+    /** 模板链表，按节点编号存储；0 为根节点，1..324 为列头 */
+    private static final int[] T_LEFT = new int[NODES];
+    private static final int[] T_RIGHT = new int[NODES];
+    private static final int[] T_UP = new int[NODES];
+    private static final int[] T_DOWN = new int[NODES];
+    private static final int[] T_SIZE = new int[COLUMNS + 1];
+    /** 节点所属的列头，以及所在候选行编号 (格子 * 9 + 数字 - 1) */
+    private static final int[] COLUMN = new int[NODES];
+    private static final int[] ROW = new int[NODES];
+    /** 每个候选行的第一个节点 */
+    private static final int[] ROW_HEAD = new int[ROWS];
+
+    static {
+        for (int c = 0; c <= COLUMNS; c++) {
+            T_LEFT[c] = c == 0 ? COLUMNS : c - 1;
+            T_RIGHT[c] = c == COLUMNS ? 0 : c + 1;
+            T_UP[c] = c;
+            T_DOWN[c] = c;
+            COLUMN[c] = c;
+            ROW[c] = -1;
+        }
+        int node = COLUMNS + 1;
+        for (int row = 0; row < ROWS; row++) {
+            int cell = row / SIZE, d = row % SIZE;
+            int r = cell / SIZE, c = cell % SIZE, b = (r / 3) * 3 + c / 3;
+            int[] cols = {
+                    1 + cell,
+                    1 + CELLS + r * SIZE + d,
+                    1 + 2 * CELLS + c * SIZE + d,
+                    1 + 3 * CELLS + b * SIZE + d
+            };
+            ROW_HEAD[row] = node;
+            for (int k = 0; k < 4; k++) {
+                int n = node + k, col = cols[k];
+                COLUMN[n] = col;
+                ROW[n] = row;
+                T_LEFT[n] = node + (k + 3) % 4;
+                T_RIGHT[n] = node + (k + 1) % 4;
+                // 追加到列尾
+                T_UP[n] = T_UP[col];
+                T_DOWN[n] = col;
+                T_DOWN[T_UP[col]] = n;
+                T_UP[col] = n;
+                T_SIZE[col]++;
+            }
+            node += 4;
+        }
+    }
+
+    private final int[] left = new int[NODES];
+    private final int[] right = new int[NODES];
+    private final int[] up = new int[NODES];
+    private final int[] down = new int[NODES];
+    private final int[] size = new int[COLUMNS + 1];
+    /** 当前搜索路径上选中的候选行 */
+    private final int[] chosen = new int[CELLS];
+    /** 找到的第一个解 */
+    private final int[] firstSolution = new int[CELLS];
+    /** 二维盘面展开后的输入，避免每次求解分配 */
+    private final int[] input = new int[CELLS];
+    private int count;
+    private int limit;
+    /** 本次求解的搜索节点数与回溯次数 */
+    private long nodes;
+    private long backtracks;
+    /** 本次求解的预算，为 null 时不限制 */
+    private SolveBudget budget;
+
+    /**
+     * 统计解的个数，达到 limit 即停止，因此返回值不超过 limit。
+     * 找到至少一个解时把第一个解写回 grid。
+     */
+    public int countSolutions(int[][] grid, int limit) {
+        return countSolutions(grid, limit, null);
+    }
+
+    /**
+     * 在预算内统计解的个数，预算用完时抛出 {@link SolveAbortedException}，grid 保持不变。
+     */
+    public int countSolutions(int[][] grid, int limit, SolveBudget budget) {
+        Grid81.flatten(grid, input);
+        int found = countSolutions(input, limit, budget);
+        if (found > 0) Grid81.unflatten(input, grid);
+        return found;
+    }
+
+    /**
+     * 同 {@link #countSolutions(int[][], int, SolveBudget)}，盘面为 {@link Grid81} 的一维表示。
+     */
+    public int countSolutions(int[] board, int limit, SolveBudget budget) {
+        int found = count(board, limit, budget);
+        if (found > 0) System.arraycopy(firstSolution, 0, board, 0, CELLS);
+        return found;
+    }
+
+    /**
+     * 同 {@link #countSolutions(int[], int, SolveBudget)}，但不把解写回 board，
+     * 只需要解的个数时（如唯一性统计）调用方不必先复制盘面。
+     */
+    public int count(int[] board, int limit, SolveBudget budget) {
+        this.count = 0;
+        this.limit = limit;
+        this.nodes = 0;
+        this.backtracks = 0;
+        if (!load(board)) return 0;
+        this.budget = budget;
+        try {
+            search(0);
+        } finally {
+            this.budget = null;
+        }
+        return count;
+    }
+
+    /**
+     * 求出一个解并写回 grid，无解返回 false。
+     */
+    public boolean solve(int[][] grid) {
+        return countSolutions(grid, 1) > 0;
+    }
+
+    public boolean solve(int[][] grid, SolveBudget budget) {
+        return countSolutions(grid, 1, budget) > 0;
+    }
+
+    public boolean solve(int[] board, SolveBudget budget) {
+        return countSolutions(board, 1, budget) > 0;
+    }
+
+    public long getNodes() { return nodes; }
+    public long getBacktracks() { return backtracks; }
+
+    private boolean load(int[] board) {
+        System.arraycopy(T_LEFT, 0, left, 0, NODES);
+        System.arraycopy(T_RIGHT, 0, right, 0, NODES);
+        System.arraycopy(T_UP, 0, up, 0, NODES);
+        System.arraycopy(T_DOWN, 0, down, 0, NODES);
+        System.arraycopy(T_SIZE, 0, size, 0, COLUMNS + 1);
+
+        for (int i = 0; i < CELLS; i++) {
+            int v = board[i];
+            firstSolution[i] = v;
+            if (v == 0) continue;
+            int head = ROW_HEAD[i * SIZE + v - 1];
+            // 任一约束列已被覆盖说明给定数字互相冲突
+            for (int k = 0; k < 4; k++) {
+                int col = COLUMN[head + k];
+                if (right[left[col]] != col) return false;
+            }
+            for (int k = 0; k < 4; k++) cover(COLUMN[head + k]);
+        }
+        return true;
+    }
+
+    private void search(int depth) {
+        nodes++;
+        if (budget != null) budget.tick();
+        if (right[0] == 0) {
+            if (++count == 1) {
+                for (int k = 0; k < depth; k++) {
+                    int row = chosen[k];
+                    firstSolution[row / SIZE] = row % SIZE + 1;
+                }
+            }
+            return;
+        }
+
+        int col = right[0], best = col;
+        for (int c = right[col]; c != 0 && size[best] > 1; c = right[c]) {
+            if (size[c] < size[best]) best = c;
+        }
+        if (size[best] == 0) return;
+
+        cover(best);
+        for (int r = down[best]; r != best && count < limit; r = down[r]) {
+            chosen[depth] = ROW[r];
+            for (int j = right[r]; j != r; j = right[j]) cover(COLUMN[j]);
+            search(depth + 1);
+            for (int j = left[r]; j != r; j = left[j]) uncover(COLUMN[j]);
+            if (count < limit) backtracks++;
+        }
+        uncover(best);
+    }
+
+    private void cover(int col) {
+        right[left[col]] = right[col];
+        left[right[col]] = left[col];
+        for (int i = down[col]; i != col; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                size[COLUMN[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int col) {
+        for (int i = up[col]; i != col; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[COLUMN[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[col]] = col;
+        left[right[col]] = col;
+    }
+}
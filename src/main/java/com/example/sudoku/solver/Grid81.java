@@ -0,0 +1,93 @@
+package com.example.sudoku.solver;
+
+/**
+ * 9x9 盘面的一维表示：下标 {@code i = 行 * 9 + 列}，一个 {@code int[81]} 就是一个盘面，
+ * 复制只需一次 {@link System#arraycopy}。
+ * <p>
+ * 行、列、宫、单元与相关格子都在类加载时算好，求解器按下标查表，不再在搜索中做除法或分配坐标数组。
+ * 表本身只对本包可见；提示、会话与出题通过 {@link #rowOf}、{@link #unitCell}、{@link #peer} 等方法查表。
+ */
+public final class Grid81 {
+
+    public static final int SIZE = 9;
+    public static final int CELLS = 81;
+    /** 9 个数字全部可用的候选掩码，第 d-1 位表示数字 d */
+    static final int ALL = 0x1FF;
+
+    /** 单元数：0..8 为行，9..17 为列，18..26 为宫 */
+    public static final int UNIT_COUNT = 3 * SIZE;
+    /** 每个格子的相关格子数（同行、同列、同宫） */
+    public static final int PEER_COUNT = 20;
+
+    static final int[] ROW_OF = new int[CELLS];
+    static final int[] COL_OF = new int[CELLS];
+    static final int[] BOX_OF = new int[CELLS];
+    /** 各单元包含的格子：行与宫内按行优先，列内从上到下 */
+    static final int[][] UNITS = new int[UNIT_COUNT][SIZE];
+    /** 每个格子的相关格子 */
+    static final int[][] PEERS = new int[CELLS][PEER_COUNT];
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            int r = i / SIZE, c = i % SIZE, b = (r / 3) * 3 + c / 3;
+            ROW_OF[i] = r;
+            COL_OF[i] = c;
+            BOX_OF[i] = b;
+            UNITS[r][c] = i;
+            UNITS[SIZE + c][r] = i;
+            UNITS[2 * SIZE + b][(r % 3) * 3 + c % 3] = i;
+        }
+        for (int i = 0; i < CELLS; i++) {
+            int n = 0;
+            for (int j = 0; j < CELLS; j++) {
+                if (j != i && (ROW_OF[j] == ROW_OF[i] || COL_OF[j] == COL_OF[i] || BOX_OF[j] == BOX_OF[i])) {
+                    PEERS[i][n++] = j;
+                }
+            }
+        }
+    }
+
+    private Grid81() {}
+
+    public static int rowOf(int cell) { return ROW_OF[cell]; }
+    public static int colOf(int cell) { return COL_OF[cell]; }
+    public static int boxOf(int cell) { return BOX_OF[cell]; }
+
+    /** 第 unit 个单元中的第 k 个格子 */
+    public static int unitCell(int unit, int k) { return UNITS[unit][k]; }
+
+    /** cell 的第 k 个相关格子，k 在 0..{@value #PEER_COUNT}-1 */
+    public static int peer(int cell, int k) { return PEERS[cell][k]; }
+
+    /**
+     * 把 9x9 的二维盘面展开为新的一维数组。
+     */
+    public static int[] flatten(int[][] g) {
+        int[] out = new int[CELLS];
+        flatten(g, out);
+        return out;
+    }
+
+    /**
+     * 把 9x9 的二维盘面展开到 out 中，不分配内存。
+     */
+    public static void flatten(int[][] g, int[] out) {
+        for (int r = 0; r < SIZE; r++) System.arraycopy(g[r], 0, out, r * SIZE, SIZE);
+    }
+
+    /**
+     * 把一维盘面写回 9x9 的二维数组，不分配内存。
+     */
+    public static void unflatten(int[] cells, int[][] g) {
+        for (int r = 0; r < SIZE; r++) System.arraycopy(cells, r * SIZE, g[r], 0, SIZE);
+    }
+
+    /**
+     * 转为新的二维数组，供响应与旧接口使用。
+     */
+    public static int[][] toRows(int[] cells) {
+        int[][] g = new int[SIZE][SIZE];
+        unflatten(cells, g);
+        return g;
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.sudoku.solver;
+
+import java.util.List;
+
+/**
+ * 任意宫大小（2..5，即 4x4 到 25x25）的约束传播求解器。
+ * <p>
+ * 每个格子保存一个候选掩码（最多 25 位），填入数字时从相关格子中去掉该数字。
+ * 每个搜索节点反复执行唯一候选数、隐性唯一数与区块排除（宫与行/列交叉处的 pointing / claiming），
+ * 直到不再变化，再选择候选数最少的格子分支。大盘面的搜索空间增长极快，区块排除可以大幅减少分支。
+ * <p>
+ * 候选数的每次修改都记录在轨迹中，回溯时按轨迹撤销。沿一条搜索路径每个候选位最多被去掉一次，
+ * 因此轨迹长度不超过 格子数 x 边长，所有数组都在构造时分配，搜索过程中不再分配内存。
+ * 实例不是线程安全的，但可以对同一尺寸的盘面复用。
+ */
+public final class NxNSolver {
+
+    private final BoardGeometry geo;
+    private final int side;
+    private final int cells;
+    private final int box;
+
+    private final int[] values;
+    private final int[] cand;
+    /** 候选数修改轨迹：格子与修改前的掩码 */
+    private final int[] trailCell;
+    private final int[] trailMask;
+    private int trailSize;
+    /** 填数轨迹 */
+    private final int[] placed;
+    private int placedSize;
+    /** 等待填入的唯一候选数格子 */
+    private final int[] singles;
+    private int singlesSize;
+    /** 区块排除的工作区：rowSeg[r * box + bc] 为第 r 行在第 bc 个宫列中的候选并集，colSeg 同理 */
+    private final int[] rowSeg;
+    private final int[] colSeg;
+    private final int[] firstSolution;
+
+    private int count;
+    private int limit;
+    private long nodes;
+    private long backtracks;
+    private SolveBudget budget;
+
+    public NxNSolver(int side) {
+        this.geo = BoardGeometry.forSide(side);
+        this.side = side;
+        this.cells = geo.cells;
+        this.box = geo.box;
+        this.values = new int[cells];
+        this.cand = new int[cells];
+        this.trailCell = new int[cells * (side + 1)];
+        this.trailMask = new int[cells * (side + 1)];
+        this.placed = new int[cells];
+        this.singles = new int[cells];
+        this.rowSeg = new int[side * box];
+        this.colSeg = new int[side * box];
+        this.firstSolution = new int[cells];
+    }
+
+    /**
+     * 求出一个解并写回 grid，无解返回 false，grid 保持不变。
+     */
+    public boolean solve(int[][] grid, SolveBudget budget) {
+        return countSolutions(grid, 1, budget) > 0;
+    }
+
+    /**
+     * 在预算内统计解的个数，达到 limit 即停止；找到至少一个解时把第一个解写回 grid。
+     * 预算用完时抛出 {@link SolveAbortedException}，grid 保持不变。
+     */
+    public int countSolutions(int[][] grid, int limit, SolveBudget budget) {
+        if (grid.length != side) throw new IllegalArgumentException("盘面边长与求解器不一致");
+        this.count = 0;
+        this.limit = limit;
+        this.nodes = 0;
+        this.backtracks = 0;
+        if (!load(grid)) return 0;
+        this.budget = budget;
+        try {
+            search();
+        } finally {
+            this.budget = null;
+        }
+        if (count > 0) {
+            for (int i = 0; i < cells; i++) grid[i / side][i % side] = firstSolution[i];
+        }
+        return count;
+    }
+
+    /**
+     * 对 grid 做一次约束传播，然后在候选数最少的格子上分支，把每个分支的盘面加入 children。
+     * 用于把搜索树的前几层拆成并行任务。
+     *
+     * @return 分支数；传播后盘面已填满时返回 0 并把解写回 grid；出现矛盾时返回 -1
+     */
+    public int split(int[][] grid, List<int[][]> children) {
+        if (grid.length != side) throw new IllegalArgumentException("盘面边长与求解器不一致");
+        nodes = 1;
+        backtracks = 0;
+        if (!load(grid) || !propagate()) return -1;
+        int best = -1, bestCount = side + 1;
+        for (int i = 0; i < cells; i++) {
+            if (values[i] != 0) continue;
+            int n = Integer.bitCount(cand[i]);
+            if (n < bestCount) {
+                best = i;
+                bestCount = n;
+                if (n == 2) break;
+            }
+        }
+        if (best < 0) {
+            for (int i = 0; i < cells; i++) grid[i / side][i % side] = values[i];
+            return 0;
+        }
+        for (int options = cand[best]; options != 0; options &= options - 1) {
+            int[][] child = new int[side][side];
+            for (int i = 0; i < cells; i++) child[i / side][i % side] = values[i];
+            child[best / side][best % side] = Integer.numberOfTrailingZeros(options) + 1;
+            children.add(child);
+        }
+        return bestCount;
+    }
+
+    public long getNodes() { return nodes; }
+    public long getBacktracks() { return backtracks; }
+
+    private boolean load(int[][] grid) {
+        trailSize = 0;
+        placedSize = 0;
+        singlesSize = 0;
+        for (int i = 0; i < cells; i++) {
+            values[i] = 0;
+            cand[i] = geo.all;
+        }
+        for (int i = 0; i < cells; i++) {
+            int v = grid[i / side][i % side];
+            if (v == 0) continue;
+            if ((cand[i] & (1 << (v - 1))) == 0) return false;
+            if (!assign(i, v)) return false;
+        }
+        // 初始盘面的修改不需要撤销
+        trailSize = 0;
+        placedSize = 0;
+        return true;
+    }
+
+    private void search() {
+        nodes++;
+        if (budget != null) budget.tick();
+        int trailMark = trailSize, placedMark = placedSize;
+        if (!propagate()) {
+            undo(trailMark, placedMark);
+            return;
+        }
+
+        int best = -1, bestCount = side + 1;
+        for (int i = 0; i < cells; i++) {
+            if (values[i] != 0) continue;
+            int n = Integer.bitCount(cand[i]);
+            if (n < bestCount) {
+                best = i;
+                bestCount = n;
+                if (n == 2) break;
+            }
+        }
+        if (best < 0) {
+            if (++count == 1) System.arraycopy(values, 0, firstSolution, 0, cells);
+            undo(trailMark, placedMark);
+            return;
+        }
+
+        int options = cand[best];
+        while (options != 0 && count < limit) {
+            int bit = options & -options;
+            options ^= bit;
+            int branchTrail = trailSize, branchPlaced = placedSize;
+            if (assign(best, Integer.numberOfTrailingZeros(bit) + 1)) search();
+            undo(branchTrail, branchPlaced);
+            if (count < limit) backtracks++;
+        }
+        undo(trailMark, placedMark);
+    }
+
+    /**
+     * 反复应用唯一候选数、隐性唯一数和区块排除直到不再变化；发现矛盾时返回 false。
+     */
+    private boolean propagate() {
+        while (true) {
+            if (!drainSingles()) return false;
+            int before = trailSize;
+            if (!hiddenSingles()) return false;
+            if (trailSize != before) continue;
+            if (!lockedCandidates()) return false;
+            if (trailSize == before && singlesSize == 0) return true;
+        }
+    }
+
+    private boolean drainSingles() {
+        while (singlesSize > 0) {
+            int i = singles[--singlesSize];
+            if (values[i] != 0) continue;
+            int c = cand[i];
+            if (c == 0) return false;
+            if (!assign(i, Integer.numberOfTrailingZeros(c) + 1)) return false;
+        }
+        return true;
+    }
+
+    private boolean hiddenSingles() {
+        for (int[] unit : geo.units) {
+            int used = 0, once = 0, twice = 0;
+            for (int i : unit) {
+                if (values[i] != 0) {
+                    used |= 1 << (values[i] - 1);
+                } else {
+                    twice |= once & cand[i];
+                    once |= cand[i];
+                }
+            }
+            // 某个数字在该单元已无处可放
+            if ((used | once) != geo.all) return false;
+            int hidden = once & ~twice;
+            while (hidden != 0) {
+                int bit = hidden & -hidden;
+                hidden ^= bit;
+                int target = -1;
+                for (int i : unit) {
+                    if (values[i] == 0 && (cand[i] & bit) != 0) {
+                        target = i;
+                        break;
+                    }
+                }
+                if (target < 0 || !assign(target, Integer.numberOfTrailingZeros(bit) + 1)) return false;
+            }
+            if (singlesSize > 0 && !drainSingles()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 区块排除：宫内某数字只出现在同一行（列）时从该行（列）的宫外格子排除，
+     * 行（列）中某数字只出现在同一个宫时从该宫的其他格子排除。
+     */
+    private boolean lockedCandidates() {
+        for (int i = 0; i < side * box; i++) {
+            rowSeg[i] = 0;
+            colSeg[i] = 0;
+        }
+        for (int i = 0; i < cells; i++) {
+            int r = geo.rowOf[i], c = geo.colOf[i];
+            rowSeg[r * box + c / box] |= cand[i];
+            colSeg[c * box + r / box] |= cand[i];
+        }
+        return lockedSegments(rowSeg, true) && lockedSegments(colSeg, false);
+    }
+
+    /**
+     * byRow 为 true 时 seg 按行划分：line 为行号，k 为宫列；否则按列划分。
+     */
+    private boolean lockedSegments(int[] seg, boolean byRow) {
+        for (int line = 0; line < side; line++) {
+            int band = line / box;
+            for (int k = 0; k < box; k++) {
+                int mine = seg[line * box + k];
+                if (mine == 0) continue;
+                int lineRest = 0, boxRest = 0;
+                for (int k2 = 0; k2 < box; k2++) if (k2 != k) lineRest |= seg[line * box + k2];
+                for (int l2 = band * box; l2 < band * box + box; l2++) if (l2 != line) boxRest |= seg[l2 * box + k];
+                int pointing = mine & ~boxRest, claiming = mine & ~lineRest;
+                if (pointing != 0) {
+                    // 从本行（列）其他宫的格子排除
+                    for (int k2 = 0; k2 < box; k2++) {
+                        if (k2 == k) continue;
+                        for (int j = k2 * box; j < k2 * box + box; j++) {
+                            if (!eliminate(byRow ? line * side + j : j * side + line, pointing)) return false;
+                        }
+                    }
+                }
+                if (claiming != 0) {
+                    // 从本宫其他行（列）的格子排除
+                    for (int l2 = band * box; l2 < band * box + box; l2++) {
+                        if (l2 == line) continue;
+                        for (int j = k * box; j < k * box + box; j++) {
+                            if (!eliminate(byRow ? l2 * side + j : j * side + l2, claiming)) return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /** 在 i 填入 v 并从相关格子中去掉 v；某个相关格子因此没有候选数时返回 false */
+    private boolean assign(int i, int v) {
+        setCand(i, 0);
+        values[i] = v;
+        placed[placedSize++] = i;
+        int bit = 1 << (v - 1);
+        for (int p : geo.peers[i]) {
+            if ((cand[p] & bit) != 0 && !eliminate(p, bit)) return false;
+        }
+        return true;
+    }
+
+    /** 从空格 i 的候选数中去掉 mask；候选数因此为空时返回 false，只剩一个时加入待填队列 */
+    private boolean eliminate(int i, int mask) {
+        int c = cand[i];
+        if ((c & mask) == 0 || values[i] != 0) return true;
+        c &= ~mask;
+        setCand(i, c);
+        if (c == 0) return false;
+        if ((c & (c - 1)) == 0) singles[singlesSize++] = i;
+        return true;
+    }
+
+    private void setCand(int i, int mask) {
+        trailCell[trailSize] = i;
+        trailMask[trailSize++] = cand[i];
+        cand[i] = mask;
+    }
+
+    private void undo(int trailMark, int placedMark) {
+        while (trailSize > trailMark) {
+            trailSize--;
+            cand[trailCell[trailSize]] = trailMask[trailSize];
+        }
+        while (placedSize > placedMark) values[placed[--placedSize]] = 0;
+        singlesSize = 0;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.sudoku.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 单个盘面的并行搜索：在搜索树的前几层按候选数最少的格子分支，把各分支作为 ForkJoin 任务，
+ * 直到任务数达到并行度的 {@value #TASKS_PER_THREAD} 倍，再由各任务用 {@link NxNSolver} 顺序搜索各自的子树。
+ * 子树大小差异很大，空闲线程通过工作窃取接手其他分支。
+ * <p>
+ * 求解时任一子树找到解即取消其余子树；统计解的个数时累加各子树的结果，总数达到上限后同样取消其余子树。
+ * 所有子任务的预算都来自调用方预算的 {@link SolveBudget#fork()}，节点数与时间上限按全部子任务合计；
+ * 拆分阶段每次拆分前也会检查取消与截止时间。
+ * <p>
+ * 适用于所有尺寸（9x9 也使用 {@link NxNSolver}）。实例是线程安全的，可以同时处理多个盘面。
+ */
+public final class ParallelSolver {
+
+    static final int TASKS_PER_THREAD = 8;
+
+    /** 每个工作线程按尺寸缓存一个求解器，避免每个任务重新分配轨迹数组 */
+    private static final ThreadLocal<NxNSolver[]> SOLVERS =
+            ThreadLocal.withInitial(() -> new NxNSolver[BoardGeometry.MAX_BOX + 1]);
+
+    private final ForkJoinPool pool;
+    private final int targetTasks;
+
+    public ParallelSolver(ForkJoinPool pool) {
+        this.pool = pool;
+        this.targetTasks = pool.getParallelism() * TASKS_PER_THREAD;
+    }
+
+    /**
+     * 求出一个解并写回 grid，无解返回 false。预算用完时抛出 {@link SolveAbortedException}，grid 保持不变。
+     */
+    public boolean solve(int[][] grid, SolveStats stats, SolveBudget budget) {
+        return countSolutions(grid, 1, stats, budget) > 0;
+    }
+
+    /**
+     * 统计解的个数，达到 limit 即停止；找到至少一个解时把其中一个写回 grid。stats 与 budget 都可以为 null。
+     */
+    public int countSolutions(int[][] grid, int limit, SolveStats stats, SolveBudget budget) {
+        SolveBudget group = (budget != null ? budget : new SolveBudget(0, 0, 0, null)).fork();
+        Search search = new Search(limit, group);
+        try {
+            pool.invoke(new Branch(search, copy(grid), 1));
+        } finally {
+            if (stats != null) stats.add(search.nodes.get(), search.backtracks.get());
+        }
+        if (search.failure.get() != null) throw search.failure.get();
+        int count = Math.min(search.count.get(), limit);
+        if (count > 0) {
+            int[][] first = search.first.get();
+            for (int r = 0; r < grid.length; r++) System.arraycopy(first[r], 0, grid[r], 0, grid.length);
+        }
+        return count;
+    }
+
+    private static NxNSolver solverFor(int side) {
+        NxNSolver[] solvers = SOLVERS.get();
+        int box = BoardGeometry.boxSizeOf(side);
+        if (solvers[box] == null) solvers[box] = new NxNSolver(side);
+        return solvers[box];
+    }
+
+    private static int[][] copy(int[][] g) {
+        int[][] out = new int[g.length][];
+        for (int r = 0; r < g.length; r++) out[r] = g[r].clone();
+        return out;
+    }
+
+    /** 一次并行搜索的共享状态 */
+    private static final class Search {
+        final int limit;
+        /** 所有子任务预算的父预算，取消它即取消全部子树 */
+        final SolveBudget group;
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicReference<int[][]> first = new AtomicReference<>();
+        final AtomicReference<SolveAbortedException> failure = new AtomicReference<>();
+        final AtomicLong nodes = new AtomicLong();
+        final AtomicLong backtracks = new AtomicLong();
+
+        Search(int limit, SolveBudget group) {
+            this.limit = limit;
+            this.group = group;
+        }
+
+        boolean isDone() {
+            return count.get() >= limit || failure.get() != null;
+        }
+
+        void found(int[][] solution, int n) {
+            first.compareAndSet(null, copy(solution));
+            if (count.addAndGet(n) >= limit) group.cancel();
+        }
+
+        void fail(SolveAbortedException ex) {
+            failure.compareAndSet(null, ex);
+            group.cancel();
+        }
+    }
+
+    private final class Branch extends RecursiveAction {
+        private final Search search;
+        private final int[][] grid;
+        /** 到这一层为止的分支数之积，用来估计已拆出的任务数 */
+        private final int width;
+
+        Branch(Search search, int[][] grid, int width) {
+            this.search = search;
+            this.grid = grid;
+            this.width = width;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.isDone()) return;
+            NxNSolver solver = solverFor(grid.length);
+            if (width < targetTasks) {
+                // 拆分阶段不经过 tick()，每次拆分前单独检查取消与截止时间
+                try {
+                    search.group.checkpoint();
+                } catch (SolveAbortedException ex) {
+                    if (!search.isDone()) search.fail(ex);
+                    return;
+                }
+                List<int[][]> children = new ArrayList<>();
+                int n = solver.split(grid, children);
+                search.nodes.incrementAndGet();
+                if (n < 0) return;
+                if (n == 0) {
+                    search.found(grid, 1);
+                    return;
+                }
+                List<Branch> tasks = new ArrayList<>(n);
+                for (int[][] child : children) tasks.add(new Branch(search, child, width * n));
+                invokeAll(tasks);
+                return;
+            }
+            try {
+                int n = solver.countSolutions(grid, search.limit, search.group.fork());
+                if (n > 0) search.found(grid, n);
+            } catch (SolveAbortedException ex) {
+                // 因为已经找够解而被取消的子树直接结束
+                if (!search.isDone()) search.fail(ex);
+            } finally {
+                search.nodes.addAndGet(solver.getNodes());
+                search.backtracks.addAndGet(solver.getBacktracks());
+            }
+        }
+    }
+}
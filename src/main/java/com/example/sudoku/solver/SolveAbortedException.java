@@ -0,0 +1,34 @@
+package com.example.sudoku.solver;
+
+/**
+ * 求解因超出 {@link SolveBudget} 而中止。
+ * <p>
+ * 该异常用于从深层递归中快速退出，属于预期内的控制流，因此不记录堆栈。
+ */
+public class SolveAbortedException extends RuntimeException {
+
+    public enum Reason {
+        /** 搜索节点数超出上限 */
+        NODES,
+        /** 求解时间超出上限 */
+        TIME,
+        /** 调用方取消或线程被中断 */
+        CANCELLED,
+        /** 复杂盘面的并发求解名额已满 */
+        BUSY,
+        /** 单线程搜索让出，由调用方改用并行搜索继续，见 {@link SolveBudget#yieldAfter(long)} */
+        YIELD
+    }
+
+    private final Reason reason;
+    private final long nodes;
+
+    public SolveAbortedException(Reason reason, long nodes) {
+        super("求解中止: " + reason + "，已搜索 " + nodes + " 个节点", null, false, false);
+        this.reason = reason;
+        this.nodes = nodes;
+    }
+
+    public Reason getReason() { return reason; }
+    public long getNodes() { return nodes; }
+}
@@ -0,0 +1,164 @@
+package com.example.sudoku.solver;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一次请求的求解预算：搜索节点数上限、截止时间以及复杂盘面的并发名额。
+ * <p>
+ * 求解器在每个搜索节点调用 {@link #tick()}，预算每 {@value #CHECK_INTERVAL} 个节点检查一次，
+ * 超出时抛出 {@link SolveAbortedException} 中止搜索。同一个预算可以依次用于求解和唯一性统计，
+ * 节点数与时间合并计算。
+ * <p>
+ * 简单盘面通常在很少的节点内解完；节点数达到 {@code heavyAfterNodes} 后，
+ * 求解需要先占用一个复杂盘面名额才能继续，名额已满时立即以 {@link SolveAbortedException.Reason#BUSY} 中止，
+ * 这样少量代价高的盘面不会占满所有线程、拖慢简单盘面。用完后必须调用 {@link #release()}。
+ * <p>
+ * 除 {@link #cancel()} 外，实例只应由求解线程使用。并行搜索时每个子任务通过 {@link #fork()} 取得自己的子预算，
+ * 子预算的节点数累加到根预算上，共用根预算的节点数与时间上限，任一祖先被取消时一起中止。
+ */
+public final class SolveBudget {
+
+    /** 检查间隔，必须是 2 的幂 */
+    static final int CHECK_INTERVAL = 256;
+
+    private final long maxNodes;
+    private final long deadline;
+    private final long heavyAfterNodes;
+    private final Semaphore heavyPermits;
+    /** 根预算为 null；子预算指向创建它的预算与最顶层的预算 */
+    private final SolveBudget parent;
+    private final SolveBudget root;
+    /** 子预算累计的节点数，只在根预算上使用，第一次 fork 时创建 */
+    private volatile AtomicLong forked;
+    private long nodes;
+    private boolean heavy;
+    private long yieldAfter;
+    private volatile boolean cancelled;
+
+    /**
+     * @param maxNodes        节点数上限，0 表示不限
+     * @param timeoutNanos    时间上限，0 表示不限
+     * @param heavyAfterNodes 超过该节点数即视为复杂盘面，0 表示不区分
+     * @param heavyPermits    复杂盘面的并发名额，为 null 时不限制
+     */
+    public SolveBudget(long maxNodes, long timeoutNanos, long heavyAfterNodes, Semaphore heavyPermits) {
+        this.maxNodes = maxNodes > 0 ? maxNodes : Long.MAX_VALUE;
+        this.deadline = timeoutNanos > 0 ? System.nanoTime() + timeoutNanos : 0;
+        this.heavyAfterNodes = heavyAfterNodes;
+        this.heavyPermits = heavyAfterNodes > 0 ? heavyPermits : null;
+        this.parent = null;
+        this.root = this;
+    }
+
+    private SolveBudget(SolveBudget parent) {
+        this.maxNodes = parent.maxNodes;
+        this.deadline = parent.deadline;
+        this.heavyAfterNodes = 0;
+        this.heavyPermits = null;
+        this.parent = parent;
+        this.root = parent.root;
+    }
+
+    /**
+     * 为并行搜索的子任务创建子预算。调用时根预算的求解线程应已停止计数，等待子任务完成。
+     */
+    public SolveBudget fork() {
+        if (root.forked == null) {
+            synchronized (root) {
+                if (root.forked == null) root.forked = new AtomicLong();
+            }
+        }
+        return new SolveBudget(this);
+    }
+
+    /**
+     * 累计节点数达到 n 且已占用复杂盘面名额（或不需要名额）时以 {@link SolveAbortedException.Reason#YIELD} 中止，
+     * 调用方可以改用并行搜索继续；0 表示不让出。只对根预算有效。
+     */
+    public void yieldAfter(long n) {
+        this.yieldAfter = n;
+    }
+
+    /**
+     * 记录一个搜索节点，必要时检查预算。
+     *
+     * @throws SolveAbortedException 预算已用完
+     */
+    public void tick() {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0) check();
+    }
+
+    private void check() {
+        if (root != this) {
+            checkForked();
+            return;
+        }
+        long total = forked == null ? nodes : nodes + forked.get();
+        if (total > maxNodes) throw new SolveAbortedException(SolveAbortedException.Reason.NODES, total);
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new SolveAbortedException(SolveAbortedException.Reason.CANCELLED, total);
+        }
+        if (deadline != 0 && System.nanoTime() - deadline > 0) {
+            throw new SolveAbortedException(SolveAbortedException.Reason.TIME, total);
+        }
+        if (!heavy && heavyPermits != null && nodes >= heavyAfterNodes) {
+            if (!heavyPermits.tryAcquire()) throw new SolveAbortedException(SolveAbortedException.Reason.BUSY, total);
+            heavy = true;
+        }
+        if (yieldAfter > 0 && total >= yieldAfter && (heavy || heavyPermits == null)) {
+            throw new SolveAbortedException(SolveAbortedException.Reason.YIELD, total);
+        }
+    }
+
+    private void checkForked() {
+        // 根预算的求解线程此时在等待子任务，它的 nodes 不会再变化
+        long total = root.nodes + root.forked.addAndGet(CHECK_INTERVAL);
+        if (total > maxNodes) throw new SolveAbortedException(SolveAbortedException.Reason.NODES, total);
+        for (SolveBudget b = this; b != null; b = b.parent) {
+            if (b.cancelled) throw new SolveAbortedException(SolveAbortedException.Reason.CANCELLED, total);
+        }
+        if (deadline != 0 && System.nanoTime() - deadline > 0) {
+            throw new SolveAbortedException(SolveAbortedException.Reason.TIME, total);
+        }
+    }
+
+    /**
+     * 不记节点，立即检查自身及各祖先是否已取消、是否已过截止时间。
+     * 供并行搜索在拆分子树时调用，拆分阶段不经过 {@link #tick()}。
+     *
+     * @throws SolveAbortedException 已取消或已超时
+     */
+    void checkpoint() {
+        for (SolveBudget b = this; b != null; b = b.parent) {
+            if (b.cancelled) throw new SolveAbortedException(SolveAbortedException.Reason.CANCELLED, root.getNodes());
+        }
+        if (deadline != 0 && System.nanoTime() - deadline > 0) {
+            throw new SolveAbortedException(SolveAbortedException.Reason.TIME, root.getNodes());
+        }
+    }
+
+    /**
+     * 请求中止，求解线程会在下一次检查时退出。可以从任意线程调用。
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * 归还占用的复杂盘面名额，可重复调用。
+     */
+    public void release() {
+        if (heavy) {
+            heavy = false;
+            heavyPermits.release();
+        }
+    }
+
+    /** 已搜索的节点数，根预算上包含各子预算已上报的节点 */
+    public long getNodes() {
+        AtomicLong f = forked;
+        return root == this && f != null ? nodes + f.get() : nodes;
+    }
+    public boolean isHeavy() { return heavy; }
+}
@@ -0,0 +1,17 @@
+package com.example.sudoku.solver;
+
+/**
+ * 一次求解的搜索统计：搜索节点数与回溯次数，用于发现代价高的盘面。
+ */
+public final class SolveStats {
+    private long nodes;
+    private long backtracks;
+
+    public void add(long nodes, long backtracks) {
+        this.nodes += nodes;
+        this.backtracks += backtracks;
+    }
+
+    public long getNodes() { return nodes; }
+    public long getBacktracks() { return backtracks; }
+}
@@ -0,0 +1,81 @@
+package com.example.sudoku.solver;
+
+/**
+ * 可选的求解引擎，通过配置项 {@code sudoku.solver.engine} 选择。
+ * <p>
+ * 求解器实例按线程缓存复用（DLX 的链表数组约 50KB），一次求解除栈帧外不再分配内存。
+ */
+public enum SolverEngine {
+    /** 位掩码 + 约束传播（默认） */
+    BITMASK {
+        private final ThreadLocal<SudokuSolver> solvers = ThreadLocal.withInitial(SudokuSolver::new);
+
+        @Override
+        public boolean solve(int[] board, SolveStats stats, SolveBudget budget) {
+            SudokuSolver solver = solvers.get();
+            try {
+                return solver.solve(board, budget);
+            } finally {
+                if (stats != null) stats.add(solver.getNodes(), solver.getBacktracks());
+            }
+        }
+    },
+    /** Dancing Links 精确覆盖 */
+    DLX {
+        @Override
+        public boolean solve(int[] board, SolveStats stats, SolveBudget budget) {
+            DlxSolver solver = dlx();
+            try {
+                return solver.solve(board, budget);
+            } finally {
+                if (stats != null) stats.add(solver.getNodes(), solver.getBacktracks());
+            }
+        }
+    },
+    /** 朴素回溯，参考实现 */
+    BACKTRACKING {
+        @Override
+        public boolean solve(int[] board, SolveStats stats, SolveBudget budget) {
+            return BacktrackingSolver.solve(board, stats, budget);
+        }
+    };
+
+    private static final ThreadLocal<DlxSolver> DLX_SOLVERS = ThreadLocal.withInitial(DlxSolver::new);
+
+    /**
+     * 当前线程复用的 DLX 求解器，供唯一性统计使用；同一线程内不能嵌套使用。
+     */
+    public static DlxSolver dlx() {
+        return DLX_SOLVERS.get();
+    }
+
+    /**
+     * 就地求解，成功返回 true 并把解写入 grid。
+     */
+    public boolean solve(int[][] grid) {
+        return solve(grid, null);
+    }
+
+    /**
+     * 同 {@link #solve(int[][])}，并把搜索节点数与回溯次数累加到 stats（可为 null）。
+     */
+    public boolean solve(int[][] grid, SolveStats stats) {
+        return solve(grid, stats, null);
+    }
+
+    /**
+     * 在预算内求解（budget 可为 null），预算用完时抛出 {@link SolveAbortedException}。
+     * 中止时 stats 仍会累加已搜索的节点数。
+     */
+    public boolean solve(int[][] grid, SolveStats stats, SolveBudget budget) {
+        int[] board = Grid81.flatten(grid);
+        if (!solve(board, stats, budget)) return false;
+        Grid81.unflatten(board, grid);
+        return true;
+    }
+
+    /**
+     * 同 {@link #solve(int[][], SolveStats, SolveBudget)}，盘面为 {@link Grid81} 的一维表示，成功时就地写入解。
+     */
+    public abstract boolean solve(int[] board, SolveStats stats, SolveBudget budget);
+}
@@ -0,0 +1,211 @@
+package com.example.sudoku.solver;
+
+/**
+ * 位掩码约束传播求解器。
+ * <p>
+ * 每行、每列、每宫各用一个 9 位掩码记录已使用的数字，候选数由三个掩码按位求补得到；
+ * 搜索前反复执行唯一候选数（naked single）与隐性唯一数（hidden single）传播，
+ * 分支时选择候选数最少的格子（MRV）。所有状态都在构造时分配，搜索过程中不再分配内存。
+ * <p>
+ * 盘面可以是 9x9 二维数组，也可以是 {@link Grid81} 的一维表示，后者免去展开与写回。
+ * 实例不是线程安全的，但可以复用：每次 {@link #solve(int[][])} 都会重置内部状态。
+ */
+public final class SudokuSolver {
+
+    private static final int SIZE = Grid81.SIZE;
+    private static final int CELLS = Grid81.CELLS;
+    private static final int ALL = Grid81.ALL;
+
+    /** 每个格子所在的行、列、宫，以及 27 个单元，均来自 {@link Grid81} 的预计算表 */
+    private static final int[] ROW_OF = Grid81.ROW_OF;
+    private static final int[] COL_OF = Grid81.COL_OF;
+    private static final int[] BOX_OF = Grid81.BOX_OF;
+    private static final int[][] UNITS = Grid81.UNITS;
+
+    private final int[] cells = new int[CELLS];
+    /** 二维盘面展开后的输入，避免每次求解分配 */
+    private final int[] input = new int[CELLS];
+    private final int[] rowUsed = new int[SIZE];
+    private final int[] colUsed = new int[SIZE];
+    private final int[] boxUsed = new int[SIZE];
+    /** 按放置顺序记录填入的格子，回溯时据此撤销 */
+    private final int[] trail = new int[CELLS];
+    private int trailSize;
+    /** 本次求解的搜索节点数与回溯次数 */
+    private long nodes;
+    private long backtracks;
+    /** 本次求解的预算，为 null 时不限制 */
+    private SolveBudget budget;
+
+    /**
+     * 求解数独，成功时把解写回 grid 并返回 true；无解或题面自相矛盾时返回 false，grid 保持不变。
+     */
+    public boolean solve(int[][] grid) {
+        return solve(grid, null);
+    }
+
+    /**
+     * 在预算内求解，预算用完时抛出 {@link SolveAbortedException}，grid 保持不变。
+     */
+    public boolean solve(int[][] grid, SolveBudget budget) {
+        Grid81.flatten(grid, input);
+        if (!solve(input, budget)) return false;
+        Grid81.unflatten(input, grid);
+        return true;
+    }
+
+    /**
+     * 求解一维盘面，成功时把解写回 board 并返回 true；无解或预算用完时 board 保持不变。
+     */
+    public boolean solve(int[] board, SolveBudget budget) {
+        if (!load(board)) return false;
+        this.budget = budget;
+        try {
+            if (!search()) return false;
+        } finally {
+            this.budget = null;
+        }
+        System.arraycopy(cells, 0, board, 0, CELLS);
+        return true;
+    }
+
+    public long getNodes() { return nodes; }
+    public long getBacktracks() { return backtracks; }
+
+    private boolean load(int[] board) {
+        trailSize = 0;
+        nodes = 0;
+        backtracks = 0;
+        for (int i = 0; i < SIZE; i++) {
+            rowUsed[i] = 0;
+            colUsed[i] = 0;
+            boxUsed[i] = 0;
+        }
+        for (int i = 0; i < CELLS; i++) {
+            int v = board[i];
+            cells[i] = v;
+            if (v == 0) continue;
+            int bit = 1 << (v - 1);
+            if (((rowUsed[ROW_OF[i]] | colUsed[COL_OF[i]] | boxUsed[BOX_OF[i]]) & bit) != 0) return false;
+            rowUsed[ROW_OF[i]] |= bit;
+            colUsed[COL_OF[i]] |= bit;
+            boxUsed[BOX_OF[i]] |= bit;
+        }
+        return true;
+    }
+
+    private boolean search() {
+        nodes++;
+        if (budget != null) budget.tick();
+        int mark = trailSize;
+        if (!propagate()) {
+            undo(mark);
+            return false;
+        }
+
+        // 选择候选数最少的空格
+        int best = -1, bestCount = SIZE + 1;
+        for (int i = 0; i < CELLS; i++) {
+            if (cells[i] != 0) continue;
+            int count = Integer.bitCount(candidates(i));
+            if (count < bestCount) {
+                best = i;
+                bestCount = count;
+                if (count == 2) break;
+            }
+        }
+        if (best < 0) return true;
+
+        int cand = candidates(best);
+        while (cand != 0) {
+            int bit = cand & -cand;
+            cand ^= bit;
+            int branch = trailSize;
+            place(best, Integer.numberOfTrailingZeros(bit) + 1);
+            if (search()) return true;
+            undo(branch);
+            backtracks++;
+        }
+        undo(mark);
+        return false;
+    }
+
+    /**
+     * 反复应用唯一候选数与隐性唯一数直到不再变化；发现矛盾时返回 false。
+     */
+    private boolean propagate() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int i = 0; i < CELLS; i++) {
+                if (cells[i] != 0) continue;
+                int cand = candidates(i);
+                if (cand == 0) return false;
+                if ((cand & (cand - 1)) == 0) {
+                    place(i, Integer.numberOfTrailingZeros(cand) + 1);
+                    changed = true;
+                }
+            }
+
+            for (int u = 0; u < UNITS.length; u++) {
+                int[] unit = UNITS[u];
+                int used = 0, once = 0, twice = 0;
+                for (int k = 0; k < SIZE; k++) {
+                    int i = unit[k];
+                    if (cells[i] != 0) {
+                        used |= 1 << (cells[i] - 1);
+                    } else {
+                        int cand = candidates(i);
+                        twice |= once & cand;
+                        once |= cand;
+                    }
+                }
+                // 某个数字在该单元已无处可放
+                if ((used | once) != ALL) return false;
+
+                int singles = once & ~twice;
+                while (singles != 0) {
+                    int bit = singles & -singles;
+                    singles ^= bit;
+                    int target = -1;
+                    for (int k = 0; k < SIZE; k++) {
+                        int i = unit[k];
+                        if (cells[i] == 0 && (candidates(i) & bit) != 0) {
+                            target = i;
+                            break;
+                        }
+                    }
+                    if (target < 0) return false;
+                    place(target, Integer.numberOfTrailingZeros(bit) + 1);
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int candidates(int i) {
+        return ~(rowUsed[ROW_OF[i]] | colUsed[COL_OF[i]] | boxUsed[BOX_OF[i]]) & ALL;
+    }
+
+    private void place(int i, int v) {
+        int bit = 1 << (v - 1);
+        cells[i] = v;
+        rowUsed[ROW_OF[i]] |= bit;
+        colUsed[COL_OF[i]] |= bit;
+        boxUsed[BOX_OF[i]] |= bit;
+        trail[trailSize++] = i;
+    }
+
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            int i = trail[--trailSize];
+            int bit = ~(1 << (cells[i] - 1));
+            rowUsed[ROW_OF[i]] &= bit;
+            colUsed[COL_OF[i]] &= bit;
+            boxUsed[BOX_OF[i]] &= bit;
+            cells[i] = 0;
+        }
+    }
+}
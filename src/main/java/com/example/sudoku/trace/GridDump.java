@@ -0,0 +1,52 @@
+package com.example.sudoku.trace;
+
+/**
+ * 盘面的延迟渲染包装：作为日志参数传入，只有日志真正输出时才会调用 {@link #toString()} 拼接字符串。
+ * 二维盘面与一维（81 格，行优先）盘面都直接引用，不做复制或转换。
+ */
+public final class GridDump {
+    private final int[][] grid;
+    private final int[] cells;
+
+    private GridDump(int[][] grid, int[] cells) {
+        this.grid = grid;
+        this.cells = cells;
+    }
+
+    public static GridDump of(int[][] grid) {
+        return new GridDump(grid, null);
+    }
+
+    public static GridDump of(int[] cells) {
+        return new GridDump(null, cells);
+    }
+
+    private int valueAt(int r, int c) {
+        return grid != null ? grid[r][c] : cells[r * 9 + c];
+    }
+
+    @Override
+    public String toString() {
+        if (grid == null && cells == null) return "null";
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n");
+        for (int r = 0; r < 9; r++) {
+            if (r % 3 == 0 && r > 0) {
+                sb.append("  ------+-------+------\n");
+            }
+            for (int c = 0; c < 9; c++) {
+                if (c % 3 == 0 && c > 0) {
+                    sb.append(" |");
+                }
+                int v = valueAt(r, c);
+                if (v == 0) {
+                    sb.append(" .");
+                } else {
+                    sb.append(" ").append(v);
+                }
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.sudoku.trace;
+
+import com.example.sudoku.config.SudokuProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 校验请求的跟踪日志。
+ * <ul>
+ *     <li>盘面转储：DEBUG 级别，或按 {@code sudoku.trace.sample-rate} 抽中的请求以 INFO 输出，渲染延迟到真正输出时</li>
+ *     <li>请求摘要：每个请求一行 key=value，由 {@code sudoku.trace.summary-enabled} 控制</li>
+ * </ul>
+ * 使用独立的 logger {@code com.example.sudoku.trace}，也可以通过日志级别单独开关。
+ */
+@Component
+public class TraceLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger("com.example.sudoku.trace");
+
+    private final double sampleRate;
+    private final boolean summaryEnabled;
+
+    public TraceLogger(SudokuProperties properties) {
+        this.sampleRate = properties.getTrace().getSampleRate();
+        this.summaryEnabled = properties.getTrace().isSummaryEnabled();
+    }
+
+    public VerifyTrace start(String format) {
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        return new VerifyTrace(format, sampled);
+    }
+
+    public void dump(VerifyTrace trace, String title, Object detail) {
+        if (trace.isSampled()) {
+            logger.info("{}: {}", title, detail);
+        } else {
+            logger.debug("{}: {}", title, detail);
+        }
+    }
+
+    public void dumpGrid(VerifyTrace trace, String title, int[][] grid) {
+        if (enabled(trace)) dump(trace, title, GridDump.of(grid));
+    }
+
+    /** 同上，盘面为一维（81 格，行优先）表示 */
+    public void dumpGrid(VerifyTrace trace, String title, int[] cells) {
+        if (enabled(trace)) dump(trace, title, GridDump.of(cells));
+    }
+
+    /** 不输出时连包装对象也不创建 */
+    private static boolean enabled(VerifyTrace trace) {
+        return trace.isSampled() ? logger.isInfoEnabled() : logger.isDebugEnabled();
+    }
+
+    /**
+     * 输出一行请求摘要，耗时单位为微秒。
+     */
+    public void summary(VerifyTrace trace, int httpStatus, Object status, Boolean unique) {
+        if (!summaryEnabled || !logger.isInfoEnabled()) return;
+        logger.info("verify format={} http={} status={} unique={} cache={} nodes={} backtracks={} parseUs={} checkUs={} cacheUs={} solveUs={} uniqueUs={} totalUs={}",
+                trace.getFormat(), httpStatus, status, unique,
+                trace.getCacheHit() == null ? "-" : (trace.getCacheHit() ? "hit" : "miss"),
+                trace.getNodes(), trace.getBacktracks(),
+                micros(trace.getParseNanos()), micros(trace.getCheckNanos()), micros(trace.getCacheNanos()),
+                micros(trace.getSolveNanos()), micros(trace.getUniqueNanos()), micros(trace.getTotalNanos()));
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1000;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.sudoku.trace;
+
+/**
+ * 单次校验请求的跟踪信息：输入格式、是否被抽样，以及各阶段耗时。
+ * 同一时刻只由一个线程使用（提交到求解线程池时随任务移交），不是线程安全的。
+ */
+public final class VerifyTrace {
+
+    private final boolean sampled;
+    private final long startNanos;
+    private long lastMark;
+    private String format;
+    private long parseNanos;
+    private long queueNanos;
+    private long checkNanos;
+    private long cacheNanos;
+    private long solveNanos;
+    private long uniqueNanos;
+    private Boolean cacheHit;
+    private long nodes;
+    private long backtracks;
+
+    VerifyTrace(String format, boolean sampled) {
+        this.format = format;
+        this.sampled = sampled;
+        this.startNanos = System.nanoTime();
+        this.lastMark = startNanos;
+    }
+
+    /**
+     * 不参与抽样、不输出摘要的跟踪对象，用于批量与流式求解中的单个盘面。
+     */
+    public static VerifyTrace detached() {
+        return new VerifyTrace("internal", false);
+    }
+
+    public void setFormat(String format) { this.format = format; }
+    public void markParsed() { parseNanos = lap(); }
+    public void markDequeued() { queueNanos = lap(); }
+    public void markChecked() { checkNanos = lap(); }
+    public void markCacheLookup(boolean hit) { cacheNanos = lap(); cacheHit = hit; }
+    public void markSolved() { solveNanos = lap(); }
+    public void markUniqueChecked() { uniqueNanos = lap(); }
+
+    public void setSearch(long nodes, long backtracks) {
+        this.nodes = nodes;
+        this.backtracks = backtracks;
+    }
+
+    private long lap() {
+        long now = System.nanoTime();
+        long elapsed = now - lastMark;
+        lastMark = now;
+        return elapsed;
+    }
+
+    public boolean isSampled() { return sampled; }
+    public String getFormat() { return format; }
+    public long getParseNanos() { return parseNanos; }
+    public long getQueueNanos() { return queueNanos; }
+    public long getCheckNanos() { return checkNanos; }
+    public long getCacheNanos() { return cacheNanos; }
+    public long getSolveNanos() { return solveNanos; }
+    public long getUniqueNanos() { return uniqueNanos; }
+    public Boolean getCacheHit() { return cacheHit; }
+    public long getNodes() { return nodes; }
+    public long getBacktracks() { return backtracks; }
+    public long getTotalNanos() { return System.nanoTime() - startNanos; }
+}
@@ -0,0 +1,56 @@
+package com.example.sudoku;
+
+import com.example.sudoku.codec.BoardCodec;
+
+/**
+ * 测试共用的题目与解的检查。
+ */
+public final class TestBoards {
+
+    /** 只靠唯一候选数即可解出的题目 */
+    public static final String[] EASY = {
+            "53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79",
+            "...26.7.168..7..9.19...45..82.1...4...46.29...5...3.28..93...74.4..5..367.3.18...",
+    };
+    /** 需要大量猜测的唯一解难题 */
+    public static final String[] HARD = {
+            "1.......2.9.4...5...6...7...5.9.3.......7.......85..4.7.....6...3...9.8...2.....1",
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..",
+    };
+    /** 专门针对按顺序试数的回溯构造的题目，各引擎都需要较多的搜索节点 */
+    public static final String ADVERSARIAL =
+            "..............3.85..1.2.......5.7.....4...1...9.......5......73..2.1........4...9";
+    /** 恰好两个解：在 EASY[0] 的解中挖掉两行两列交叉处、两个数字可以互换的四个格子 */
+    public static final String TWO_SOLUTIONS =
+            "53467891267219534819834256785976.42.42685.79.713924856961537284287419635345286179";
+    /** 没有重复数字但无解：第一行的空格只能填 9，而第 9 列已有 9 */
+    public static final String UNSOLVABLE =
+            "12345678.........9...............................................................";
+
+    private TestBoards() {}
+
+    public static int[][] grid(String puzzle) {
+        return BoardCodec.parse81(puzzle);
+    }
+
+    /**
+     * solution 是完整且合法的数独，并且保留了 puzzle 中的全部已知数。
+     */
+    public static boolean solves(int[][] puzzle, int[][] solution) {
+        int side = solution.length, box = (int) Math.round(Math.sqrt(side));
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = solution[r][c];
+                if (v < 1 || v > side) return false;
+                if (puzzle[r][c] != 0 && puzzle[r][c] != v) return false;
+                for (int k = 0; k < side; k++) {
+                    if (k != c && solution[r][k] == v) return false;
+                    if (k != r && solution[k][c] == v) return false;
+                    int br = (r / box) * box + k / box, bc = (c / box) * box + k % box;
+                    if ((br != r || bc != c) && solution[br][bc] == v) return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.sudoku.cache;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.solver.Grid81;
+import com.example.sudoku.solver.SolverEngine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class BoardCanonicalizerTest {
+
+    @Test
+    void symmetricBoardsShareKey() {
+        for (String puzzle : TestBoards.HARD) {
+            int[][] g = TestBoards.grid(puzzle);
+            BoardKey key = BoardCanonicalizer.canonicalize(g).getKey();
+            assertEquals(key, BoardCanonicalizer.canonicalize(transform(g)).getKey(), puzzle);
+            assertEquals(key, BoardCanonicalizer.canonicalize(transpose(g)).getKey(), puzzle);
+        }
+    }
+
+    @Test
+    void differentBoardsHaveDifferentKeys() {
+        assertNotEquals(BoardCanonicalizer.canonicalize(TestBoards.grid(TestBoards.HARD[0])).getKey(),
+                BoardCanonicalizer.canonicalize(TestBoards.grid(TestBoards.HARD[1])).getKey());
+    }
+
+    @Test
+    void solutionRoundTripsThroughCanonicalForm() {
+        for (String puzzle : TestBoards.HARD) {
+            int[][] g = TestBoards.grid(puzzle);
+            int[][] solution = TestBoards.grid(puzzle);
+            SolverEngine.BITMASK.solve(solution);
+            BoardCanonicalizer.Canonical canonical = BoardCanonicalizer.canonicalize(g);
+            assertArrayEquals(solution, canonical.fromCanonical(canonical.toCanonical(solution)), puzzle);
+        }
+    }
+
+    @Test
+    void cachedSolutionMapsBackToTransformedBoard() {
+        int[][] g = TestBoards.grid(TestBoards.HARD[0]);
+        int[][] solution = TestBoards.grid(TestBoards.HARD[0]);
+        SolverEngine.BITMASK.solve(solution);
+        byte[] stored = BoardCanonicalizer.canonicalize(g).toCanonical(solution);
+
+        // 另一个对称变换后的盘面命中同一个缓存项，取回的解要对应到它自己的坐标与数字
+        int[][] other = transform(g);
+        int[][] restored = BoardCanonicalizer.canonicalize(other).fromCanonical(stored);
+        assertArrayEquals(transform(solution), restored);
+    }
+
+    @Test
+    void flatAndRowBoardsGiveSameKey() {
+        int[][] g = TestBoards.grid(TestBoards.EASY[0]);
+        int[] cells = Grid81.flatten(g);
+        assertEquals(BoardCanonicalizer.canonicalize(g).getKey(), BoardCanonicalizer.canonicalize(cells).getKey());
+        assertEquals(BoardCanonicalizer.identity(g).getKey(), BoardCanonicalizer.identity(cells).getKey());
+    }
+
+    @Test
+    void identityRoundTrips() {
+        int[][] solution = TestBoards.grid(TestBoards.EASY[1]);
+        SolverEngine.BITMASK.solve(solution);
+        BoardCanonicalizer.Canonical identity = BoardCanonicalizer.identity(TestBoards.grid(TestBoards.EASY[1]));
+        assertArrayEquals(solution, identity.fromCanonical(identity.toCanonical(solution)));
+    }
+
+    /**
+     * 交换第一、二列栈和第一、三行带，再把数字 d 换成 10-d，都在规范化考虑的变换之内。
+     */
+    private static int[][] transform(int[][] g) {
+        int[][] out = new int[9][9];
+        for (int r = 0; r < 9; r++) {
+            int sr = r < 3 ? r + 6 : r >= 6 ? r - 6 : r;
+            for (int c = 0; c < 9; c++) {
+                int sc = c < 3 ? c + 3 : c < 6 ? c - 3 : c;
+                int v = g[sr][sc];
+                out[r][c] = v == 0 ? 0 : 10 - v;
+            }
+        }
+        return out;
+    }
+
+    private static int[][] transpose(int[][] g) {
+        int[][] out = new int[9][9];
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) out[c][r] = g[r][c];
+        }
+        return out;
+    }
+}
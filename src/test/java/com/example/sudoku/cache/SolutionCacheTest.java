@@ -0,0 +1,94 @@
+package com.example.sudoku.cache;
+
+import com.example.sudoku.config.SudokuProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolutionCacheTest {
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        SolutionCache cache = cache(100);
+        SolutionCache.Entry entry = SolutionCache.Entry.unsolvable();
+        assertNull(cache.get(key(1)));
+        cache.put(key(1), entry);
+        assertSame(entry, cache.get(key(1)));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void sizeNeverExceedsCapacity() {
+        SolutionCache cache = cache(100);
+        for (int i = 0; i < 1000; i++) cache.put(key(i), SolutionCache.Entry.unsolvable());
+        assertTrue(cache.size() <= 100);
+        assertEquals(1000 - cache.size(), cache.getEvictions());
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvictedFirst() {
+        // 容量为 1 时只有一段，淘汰顺序就是严格的 LRU
+        SolutionCache single = cache(1);
+        single.put(key(1), SolutionCache.Entry.unsolvable());
+        single.put(key(2), SolutionCache.Entry.unsolvable());
+        assertNull(single.get(key(1)));
+        assertNotNull(single.get(key(2)));
+
+        SolutionCache cache = cache(3);
+        cache.put(key(1), SolutionCache.Entry.unsolvable());
+        cache.put(key(2), SolutionCache.Entry.unsolvable());
+        cache.get(key(1));
+        cache.put(key(3), SolutionCache.Entry.unsolvable());
+        cache.put(key(4), SolutionCache.Entry.unsolvable());
+        assertEquals(3, cache.size());
+        assertNotNull(cache.get(key(4)));
+    }
+
+    @Test
+    void concurrentAccessKeepsCountsConsistent() throws Exception {
+        SolutionCache cache = cache(256);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int base = t * 10_000;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        BoardKey key = key(base + i % 500);
+                        if (cache.get(key) == null) cache.put(key, SolutionCache.Entry.unsolvable());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(20_000, cache.getHits() + cache.getMisses());
+        assertTrue(cache.size() <= 256);
+    }
+
+    private static SolutionCache cache(int maxSize) {
+        SudokuProperties properties = new SudokuProperties();
+        properties.getCache().setMaxSize(maxSize);
+        return new SolutionCache(properties);
+    }
+
+    private static BoardKey key(int i) {
+        byte[] packed = new byte[41];
+        packed[0] = (byte) i;
+        packed[1] = (byte) (i >> 8);
+        packed[2] = (byte) (i >> 16);
+        return new BoardKey(packed);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.sudoku.cache;
+
+import com.example.sudoku.config.SudokuProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SolutionStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<SolutionStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeAll() throws IOException {
+        for (SolutionStore store : opened) store.destroy();
+    }
+
+    @Test
+    void entriesSurviveReopen() throws IOException {
+        SolutionStore store = open(100);
+        store.put(key(1), solved(1, Boolean.TRUE));
+        store.put(key(2), SolutionCache.Entry.unsolvable());
+        close(store);
+
+        SolutionStore reopened = open(100);
+        assertEquals(2, reopened.size());
+        assertSolved(reopened.get(key(1)), 1, Boolean.TRUE);
+        SolutionCache.Entry unsolvable = reopened.get(key(2));
+        assertNotNull(unsolvable);
+        assertEquals(false, unsolvable.isSolvable());
+        assertNull(reopened.get(key(3)));
+    }
+
+    @Test
+    void compactionDropsOverwrittenRecords() throws IOException {
+        SolutionStore store = open(100);
+        store.put(key(1), solved(1, null));
+        store.put(key(1), solved(1, Boolean.TRUE));
+        store.put(key(2), solved(2, Boolean.FALSE));
+        // 内容相同的写入不追加
+        store.put(key(2), solved(2, Boolean.FALSE));
+        assertEquals(3, store.size());
+
+        assertEquals(1, store.compact());
+        assertEquals(2, store.size());
+        assertSolved(store.get(key(1)), 1, Boolean.TRUE);
+        assertSolved(store.get(key(2)), 2, Boolean.FALSE);
+        close(store);
+
+        SolutionStore reopened = open(100);
+        assertEquals(2, reopened.size());
+        assertSolved(reopened.get(key(1)), 1, Boolean.TRUE);
+    }
+
+    @Test
+    void indexWithWrongGenerationIsRebuilt() throws IOException {
+        SolutionStore store = open(100);
+        store.put(key(1), solved(1, null));
+        store.put(key(1), solved(1, Boolean.TRUE));
+        store.put(key(2), solved(2, Boolean.TRUE));
+        close(store);
+
+        // 改写索引头部的代号，模拟压缩中途退出
+        try (FileChannel index = FileChannel.open(dir.resolve("solutions.idx"), StandardOpenOption.WRITE)) {
+            ByteBuffer generation = ByteBuffer.allocate(8).putLong(0, 42L);
+            index.write(generation, 8);
+        }
+
+        SolutionStore reopened = open(100);
+        assertEquals(3, reopened.size());
+        assertSolved(reopened.get(key(1)), 1, Boolean.TRUE);
+        assertSolved(reopened.get(key(2)), 2, Boolean.TRUE);
+    }
+
+    @Test
+    void recordCapAppliesToNewAndExistingBoards() throws IOException {
+        SolutionStore store = open(3);
+        for (int i = 1; i <= 3; i++) store.put(key(i), solved(i, null));
+        store.put(key(4), solved(4, null));
+        assertNull(store.get(key(4)));
+
+        // 更新已有盘面也要追加记录，同样受上限约束
+        store.put(key(1), solved(1, Boolean.TRUE));
+        assertEquals(3, store.size());
+        assertSolved(store.get(key(1)), 1, null);
+    }
+
+    @Test
+    void updateCompactsGarbageBeforeHittingTheCap() throws IOException {
+        SolutionStore store = open(3);
+        store.put(key(1), solved(1, null));
+        store.put(key(1), solved(1, Boolean.FALSE));
+        store.put(key(2), solved(2, null));
+        // 记录数已满，但其中一条是垃圾：压缩后仍可写入
+        store.put(key(2), solved(2, Boolean.TRUE));
+        assertEquals(3, store.size());
+        assertSolved(store.get(key(1)), 1, Boolean.FALSE);
+        assertSolved(store.get(key(2)), 2, Boolean.TRUE);
+    }
+
+    @Test
+    void lowerCapOnReopenKeepsNewestBoards() throws IOException {
+        SolutionStore store = open(100);
+        for (int i = 1; i <= 5; i++) store.put(key(i), solved(i, Boolean.TRUE));
+        close(store);
+
+        SolutionStore reopened = open(3);
+        assertEquals(3, reopened.size());
+        assertNull(reopened.get(key(1)));
+        assertNull(reopened.get(key(2)));
+        for (int i = 3; i <= 5; i++) assertSolved(reopened.get(key(i)), i, Boolean.TRUE);
+    }
+
+    @Test
+    void lowerCapAfterLostIndexKeepsNewestBoards() throws IOException {
+        SolutionStore store = open(100);
+        for (int i = 1; i <= 5; i++) store.put(key(i), solved(i, Boolean.TRUE));
+        close(store);
+        Files.delete(dir.resolve("solutions.idx"));
+
+        SolutionStore reopened = open(2);
+        assertEquals(2, reopened.size());
+        assertNull(reopened.get(key(3)));
+        assertSolved(reopened.get(key(4)), 4, Boolean.TRUE);
+        assertSolved(reopened.get(key(5)), 5, Boolean.TRUE);
+    }
+
+    @Test
+    void failedCompactionLeavesStoreUsable() throws IOException {
+        SolutionStore store = open(100);
+        store.put(key(1), solved(1, null));
+        store.put(key(1), solved(1, Boolean.TRUE));
+        // 临时文件的位置被目录占用，压缩在写新文件时失败
+        Files.createDirectory(dir.resolve("solutions.dat.tmp"));
+        assertThrows(IOException.class, store::compact);
+
+        assertSolved(store.get(key(1)), 1, Boolean.TRUE);
+        store.put(key(2), solved(2, Boolean.TRUE));
+        assertSolved(store.get(key(2)), 2, Boolean.TRUE);
+        assertEquals(1, store.compact());
+        close(store);
+
+        SolutionStore reopened = open(100);
+        assertEquals(2, reopened.size());
+        assertSolved(reopened.get(key(2)), 2, Boolean.TRUE);
+    }
+
+    private SolutionStore open(int maxRecords) throws IOException {
+        SudokuProperties properties = new SudokuProperties();
+        properties.getStore().setEnabled(true);
+        properties.getStore().setDirectory(dir.toString());
+        properties.getStore().setMaxRecords(maxRecords);
+        SolutionStore store = new SolutionStore(properties);
+        store.afterPropertiesSet();
+        opened.add(store);
+        return store;
+    }
+
+    private void close(SolutionStore store) throws IOException {
+        opened.remove(store);
+        store.destroy();
+    }
+
+    /** 不同的 i 对应不同的 41 字节盘面 */
+    private static BoardKey key(int i) {
+        byte[] packed = new byte[41];
+        packed[0] = (byte) i;
+        return new BoardKey(packed);
+    }
+
+    private static SolutionCache.Entry solved(int i, Boolean unique) {
+        byte[] solution = new byte[41];
+        solution[40] = (byte) i;
+        return new SolutionCache.Entry(solution, unique);
+    }
+
+    private static void assertSolved(SolutionCache.Entry entry, int i, Boolean unique) {
+        assertNotNull(entry);
+        byte[] expected = new byte[41];
+        expected[40] = (byte) i;
+        assertArrayEquals(expected, entry.getSolution());
+        assertEquals(unique, entry.getUnique());
+    }
+}
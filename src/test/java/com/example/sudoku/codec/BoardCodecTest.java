@@ -0,0 +1,112 @@
+package com.example.sudoku.codec;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.solver.Grid81;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardCodecTest {
+
+    @Test
+    void text81AndPackedRoundTrip() {
+        int[][] g = TestBoards.grid(TestBoards.EASY[0]);
+        assertEquals(TestBoards.EASY[0], BoardCodec.format81(g));
+        assertArrayEquals(g, BoardCodec.parse81(" " + TestBoards.EASY[0] + "\n"));
+        assertArrayEquals(g, BoardCodec.unpack(BoardCodec.pack(g)));
+        int[] cells = BoardCodec.parseCells(TestBoards.EASY[0]);
+        assertArrayEquals(Grid81.flatten(g), cells);
+        assertEquals(TestBoards.EASY[0], BoardCodec.format81(cells));
+        assertArrayEquals(cells, BoardCodec.unpackCells(BoardCodec.pack(cells)));
+    }
+
+    @Test
+    void mapDefaultsToNineByNine() {
+        Map<String, Integer> cells = new HashMap<>();
+        cells.put("1_1", 5);
+        cells.put("9_9", 9);
+        int[][] g = BoardCodec.toGridFromMap(cells);
+        assertEquals(9, g.length);
+        assertEquals(5, g[0][0]);
+        assertEquals(9, g[8][8]);
+    }
+
+    @Test
+    void nineByNineMapRejectsOutOfRangeValuesAndKeys() {
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toGridFromMap(single("1_1", 12)));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toGridFromMap(single("10_3", 4)));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toGridFromMap(single("0_3", 4)));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toGridFromMap(single("1_1", 0)));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toGridFromMap(single("1-1", 1)));
+    }
+
+    @Test
+    void explicitSizeAllowsLargerAndSmallerMaps() {
+        int[][] big = BoardCodec.toGridFromMap(single("16_16", 16), 16);
+        assertEquals(16, big.length);
+        assertEquals(16, big[15][15]);
+
+        int[][] small = BoardCodec.toGridFromMap(single("4_4", 4), 4);
+        assertEquals(4, small.length);
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toGridFromMap(single("1_1", 5), 4));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toGridFromMap(single("1_1", 1), 10));
+    }
+
+    @Test
+    void sizeFieldIsReadFromRequestBody() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("1_1", 3);
+        assertEquals(9, BoardCodec.sizeOf(body));
+        assertTrue(BoardCodec.isDirectMapFormat(body));
+
+        body.put("size", 16);
+        assertEquals(16, BoardCodec.sizeOf(body));
+        assertTrue(BoardCodec.isDirectMapFormat(body));
+        assertFalse(BoardCodec.toCellMap(body).containsKey("size"));
+
+        body.put("size", 10);
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.sizeOf(body));
+        body.put("size", "16");
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.sizeOf(body));
+
+        Map<String, Object> onlySize = new HashMap<>();
+        onlySize.put("size", 9);
+        assertFalse(BoardCodec.isDirectMapFormat(onlySize));
+    }
+
+    @Test
+    void boardArrayTakesItsSideFromTheRows() {
+        List<List<Integer>> board = Arrays.asList(
+                Arrays.asList(1, 2, 3, 4),
+                Arrays.asList(3, 4, 1, 2),
+                Arrays.asList(2, 1, 4, 3),
+                Arrays.asList(4, 3, 2, null));
+        int[][] g = BoardCodec.toGrid(board);
+        assertEquals(4, g.length);
+        assertEquals(0, g[3][3]);
+
+        List<List<Integer>> tooLarge = Arrays.asList(
+                Arrays.asList(1, 2, 3, 5),
+                Arrays.asList(0, 0, 0, 0),
+                Arrays.asList(0, 0, 0, 0),
+                Arrays.asList(0, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toGrid(tooLarge));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toGrid(Arrays.asList(
+                Arrays.asList(1, 2), Arrays.asList(2, 1))));
+    }
+
+    private static Map<String, Integer> single(String key, int value) {
+        Map<String, Integer> cells = new HashMap<>();
+        cells.put(key, value);
+        return cells;
+    }
+}
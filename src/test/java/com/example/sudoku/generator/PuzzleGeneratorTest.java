@@ -0,0 +1,61 @@
+package com.example.sudoku.generator;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.solver.DlxSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleGeneratorTest {
+
+    @Test
+    void generatedPuzzlesHaveTheirSolutionAsOnlySolution() {
+        PuzzleGenerator generator = new PuzzleGenerator(new Random(42));
+        DlxSolver dlx = new DlxSolver();
+        for (int k = 0; k < 40; k++) {
+            int minClues = k % 2 == 0 ? 30 : 0;
+            GeneratedPuzzle generated = generator.generate(minClues);
+            int[][] puzzle = generated.getPuzzle();
+
+            assertTrue(TestBoards.solves(puzzle, generated.getSolution()), "解与题目一致");
+            assertEquals(1, dlx.countSolutions(copy(puzzle), 2), "解唯一");
+            assertTrue(generated.getClues() >= minClues);
+            assertEquals(generated.getClues(), countClues(puzzle));
+            assertEquals(PuzzleGrader.grade(puzzle), generated.getDifficulty());
+        }
+    }
+
+    @Test
+    void cluesAreRemovedSymmetrically() {
+        GeneratedPuzzle generated = new PuzzleGenerator(new Random(7)).generate(0);
+        int[][] puzzle = generated.getPuzzle();
+        for (int i = 0; i < 81; i++) {
+            int j = 80 - i;
+            assertEquals(puzzle[i / 9][i % 9] == 0, puzzle[j / 9][j % 9] == 0, "第 " + i + " 格与对称格");
+        }
+    }
+
+    @Test
+    void sameSeedGivesSamePuzzle() {
+        GeneratedPuzzle a = new PuzzleGenerator(new Random(3)).generate(30);
+        GeneratedPuzzle b = new PuzzleGenerator(new Random(3)).generate(30);
+        for (int r = 0; r < 9; r++) assertEquals(Arrays.toString(a.getPuzzle()[r]),
+                Arrays.toString(b.getPuzzle()[r]));
+    }
+
+    private static int countClues(int[][] g) {
+        int n = 0;
+        for (int[] row : g) for (int v : row) if (v != 0) n++;
+        return n;
+    }
+
+    private static int[][] copy(int[][] g) {
+        int[][] out = new int[9][];
+        for (int r = 0; r < 9; r++) out[r] = g[r].clone();
+        return out;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.sudoku.generator;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.codec.BoardCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleGraderTest {
+
+    @Test
+    void knownBoardsGetExpectedGrades() {
+        assertEquals(Difficulty.EASY, PuzzleGrader.grade(TestBoards.grid(TestBoards.EASY[0])));
+        assertEquals(Difficulty.EASY, PuzzleGrader.grade(TestBoards.grid(TestBoards.EASY[1])));
+        // 对回溯很难，但只靠隐性唯一数就能解完
+        assertEquals(Difficulty.MEDIUM, PuzzleGrader.grade(TestBoards.grid(TestBoards.ADVERSARIAL)));
+        assertEquals(Difficulty.EXPERT, PuzzleGrader.grade(TestBoards.grid(TestBoards.HARD[0])));
+        assertEquals(Difficulty.EXPERT, PuzzleGrader.grade(TestBoards.grid(TestBoards.HARD[1])));
+    }
+
+    @Test
+    void gradeDoesNotModifyPuzzle() {
+        int[][] puzzle = TestBoards.grid(TestBoards.HARD[0]);
+        PuzzleGrader.grade(puzzle);
+        assertEquals(TestBoards.HARD[0], BoardCodec.format81(puzzle));
+    }
+
+    /**
+     * 固定种子生成 400 道题，检查各难度的占比。
+     */
+    @Test
+    void generatedGradeDistribution() {
+        PuzzleGenerator generator = new PuzzleGenerator(new Random(1));
+        int[] minClues = {36, 30, 0, 0};
+        Map<Difficulty, Integer> counts = new EnumMap<>(Difficulty.class);
+        for (Difficulty d : Difficulty.values()) counts.put(d, 0);
+        int total = 400;
+        for (int i = 0; i < total; i++) {
+            Difficulty d = generator.generate(minClues[i % 4]).getDifficulty();
+            counts.put(d, counts.get(d) + 1);
+        }
+        for (Difficulty d : Difficulty.values()) assertTrue(counts.get(d) > 0, d + " 没有出现: " + counts);
+        assertTrue(counts.get(Difficulty.EASY) + counts.get(Difficulty.MEDIUM) > total / 2, counts.toString());
+        assertTrue(counts.get(Difficulty.HARD) + counts.get(Difficulty.EXPERT) < total / 2, counts.toString());
+    }
+}
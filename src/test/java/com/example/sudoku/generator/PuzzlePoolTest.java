@@ -0,0 +1,68 @@
+package com.example.sudoku.generator;
+
+import com.example.sudoku.config.SudokuProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzlePoolTest {
+
+    private PuzzlePool pool;
+
+    @AfterEach
+    void shutdown() {
+        if (pool != null) pool.destroy();
+    }
+
+    @Test
+    void disabledPoolNeverGeneratesOnCaller() {
+        pool = pool(false, 5);
+        for (Difficulty d : Difficulty.values()) {
+            assertNull(pool.poll(d));
+            assertEquals(0, pool.size(d));
+        }
+    }
+
+    @Test
+    void pollServesPregeneratedPuzzlesAndPoolRefills() throws InterruptedException {
+        pool = pool(true, 2);
+        awaitFull(2);
+
+        for (Difficulty d : Difficulty.values()) {
+            long start = System.nanoTime();
+            GeneratedPuzzle puzzle = pool.poll(d);
+            long elapsed = System.nanoTime() - start;
+            assertNotNull(puzzle);
+            assertEquals(d, puzzle.getDifficulty());
+            // 只是一次出队，远小于生成一道题的时间
+            assertTrue(elapsed < 50_000_000L, "取题耗时 " + elapsed + " ns");
+        }
+        // 取走后后台线程补齐
+        awaitFull(2);
+    }
+
+    private void awaitFull(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            boolean full = true;
+            for (Difficulty d : Difficulty.values()) full &= pool.size(d) == size;
+            if (full) return;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("题库在 30 秒内没有补满");
+    }
+
+    private static PuzzlePool pool(boolean enabled, int size) {
+        SudokuProperties properties = new SudokuProperties();
+        properties.getGenerator().setEnabled(enabled);
+        properties.getGenerator().setThreads(1);
+        properties.getGenerator().setPoolSize(size);
+        PuzzlePool pool = new PuzzlePool(properties);
+        pool.afterPropertiesSet();
+        return pool;
+    }
+}
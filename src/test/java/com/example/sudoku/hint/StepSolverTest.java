@@ -0,0 +1,111 @@
+package com.example.sudoku.hint;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.solver.SolverEngine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StepSolverTest {
+
+    @Test
+    void nakedSingleComesFirst() {
+        int[][] g = new int[9][9];
+        for (int c = 0; c < 8; c++) g[0][c] = c + 1;
+        Step step = StepSolver.next(CandidateGrid.of(g));
+        assertEquals(Technique.NAKED_SINGLE, step.getTechnique());
+        assertEquals(8, step.getCell());
+        assertEquals(9, step.getDigit());
+    }
+
+    @Test
+    void hiddenSingleInBox() {
+        int[][] g = new int[9][9];
+        // 第 2、3 行和第 1、2 列都已有 1，左上宫的 1 只能放在第 1 行第 3 列
+        g[1][3] = 1;
+        g[2][6] = 1;
+        g[3][0] = 1;
+        g[6][1] = 1;
+        Step step = StepSolver.next(CandidateGrid.of(g));
+        assertEquals(Technique.HIDDEN_SINGLE, step.getTechnique());
+        assertEquals(2, step.getCell());
+        assertEquals(1, step.getDigit());
+    }
+
+    @Test
+    void nakedPairEliminatesFromSharedBox() {
+        int[][] g = new int[9][9];
+        // 第 1 行只剩第 8、9 列，两格的候选数都是 {8, 9}
+        for (int c = 0; c < 7; c++) g[0][c] = c + 1;
+        Step step = StepSolver.next(CandidateGrid.of(g));
+        assertEquals(Technique.NAKED_PAIR, step.getTechnique());
+        assertArrayEquals(new int[]{7, 8}, step.getCells());
+        assertArrayEquals(new int[]{15, 16, 17, 24, 25, 26}, step.getEliminationCells());
+        for (int mask : step.getEliminationMasks()) assertEquals(0x180, mask);
+    }
+
+    @Test
+    void nextDoesNotModifyGrid() {
+        CandidateGrid grid = CandidateGrid.of(TestBoards.grid(TestBoards.EASY[0]));
+        int[] before = new int[81];
+        for (int i = 0; i < 81; i++) before[i] = grid.candidatesAt(i);
+        assertNotNull(StepSolver.next(grid));
+        for (int i = 0; i < 81; i++) assertEquals(before[i], grid.candidatesAt(i));
+    }
+
+    @Test
+    void stepsSolveEasyBoardsCorrectly() {
+        for (String puzzle : TestBoards.EASY) {
+            CandidateGrid grid = CandidateGrid.of(TestBoards.grid(puzzle));
+            assertTrue(followSteps(grid, solution(puzzle)), puzzle);
+        }
+    }
+
+    @Test
+    void stepsOnHardBoardsNeverContradictSolution() {
+        for (String puzzle : TestBoards.HARD) {
+            // 难题靠现有技巧走不完，只检查每一步都与唯一解一致
+            followSteps(CandidateGrid.of(TestBoards.grid(puzzle)), solution(puzzle));
+        }
+    }
+
+    @Test
+    void solvedBoardHasNoNextStep() {
+        CandidateGrid grid = CandidateGrid.of(solution(TestBoards.EASY[0]));
+        assertTrue(grid.isSolved());
+        assertNull(StepSolver.next(grid));
+    }
+
+    /**
+     * 反复取下一步并应用，检查填数与解一致、排除不会去掉解中的数字；返回是否填满。
+     */
+    private static boolean followSteps(CandidateGrid grid, int[][] solution) {
+        for (int n = 0; n < 1000 && !grid.isSolved(); n++) {
+            Step step = StepSolver.next(grid);
+            if (step == null) return false;
+            if (step.isPlacement()) {
+                int cell = step.getCell();
+                assertEquals(solution[cell / 9][cell % 9], step.getDigit(), step.getExplanation());
+                grid.place(cell, step.getDigit());
+            } else {
+                int[] cells = step.getEliminationCells(), masks = step.getEliminationMasks();
+                for (int k = 0; k < cells.length; k++) {
+                    int bit = 1 << (solution[cells[k] / 9][cells[k] % 9] - 1);
+                    assertEquals(0, masks[k] & bit, step.getExplanation());
+                }
+                step.apply(grid);
+            }
+        }
+        return grid.isSolved();
+    }
+
+    private static int[][] solution(String puzzle) {
+        int[][] g = TestBoards.grid(puzzle);
+        SolverEngine.BITMASK.solve(g);
+        return g;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.cache.SolutionCache;
+import com.example.sudoku.cache.SolutionStore;
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.metrics.SudokuMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchVerifierTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(1);
+    private ExecutorService executor;
+
+    @AfterEach
+    void shutdown() {
+        if (executor != null) executor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void resultsKeepInputOrderWithPerBoardStatus() {
+        BatchVerifier verifier = verifier(2, 16, 100, Duration.ofSeconds(5));
+        int[][] duplicate = new int[9][9];
+        duplicate[0][0] = 5;
+        duplicate[0][8] = 5;
+        List<int[][]> boards = Arrays.asList(
+                TestBoards.grid(TestBoards.EASY[0]),
+                duplicate,
+                new int[3][3],
+                TestBoards.grid(TestBoards.UNSOLVABLE),
+                TestBoards.grid(TestBoards.EASY[1]),
+                TestBoards.grid(TestBoards.TWO_SOLUTIONS));
+
+        List<VerifyResult> results = verifier.verifyAll(boards);
+        assertEquals(6, results.size());
+        assertEquals(VerifyStatus.SOLVED, results.get(0).getStatus());
+        assertTrue(TestBoards.solves(boards.get(0), results.get(0).getSolution()));
+        assertEquals(VerifyStatus.DUPLICATE, results.get(1).getStatus());
+        assertEquals(VerifyStatus.INVALID_INPUT, results.get(2).getStatus());
+        assertEquals(VerifyStatus.UNSOLVABLE, results.get(3).getStatus());
+        assertTrue(TestBoards.solves(boards.get(4), results.get(4).getSolution()));
+        assertEquals(Boolean.FALSE, results.get(5).getUnique());
+    }
+
+    @Test
+    void manyBoardsAreSplitIntoChunksInOrder() {
+        BatchVerifier verifier = verifier(2, 64, 1000, Duration.ofSeconds(5));
+        List<int[][]> boards = new ArrayList<>();
+        for (int i = 0; i < 50; i++) boards.add(TestBoards.grid(TestBoards.EASY[i % 2]));
+        List<VerifyResult> results = verifier.verifyAll(boards);
+        for (int i = 0; i < 50; i++) {
+            assertTrue(TestBoards.solves(boards.get(i), results.get(i).getSolution()), "第 " + i + " 个盘面");
+        }
+    }
+
+    @Test
+    void oversizedBatchIsRejectedAsBadInput() {
+        BatchVerifier verifier = verifier(1, 16, 2, Duration.ofSeconds(5));
+        List<int[][]> boards = Arrays.asList(new int[9][9], new int[9][9], new int[9][9]);
+        assertThrows(IllegalArgumentException.class, () -> verifier.verifyAll(boards));
+    }
+
+    @Test
+    void tooManyPendingBoardsAreRejected() {
+        BatchVerifier verifier = verifier(1, 2, 100, Duration.ofSeconds(5));
+        List<int[][]> boards = Arrays.asList(new int[9][9], new int[9][9], new int[9][9]);
+        assertThrows(BatchRejectedException.class, () -> verifier.verifyAll(boards));
+    }
+
+    @Test
+    void fullExecutorQueueIsRejected() throws InterruptedException {
+        // 一个线程、队列长度 1：占住线程并填满队列后，批量任务无法提交
+        BatchVerifier verifier = verifier(1, 1, 100, Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> { release.await(); return null; });
+        executor.submit(() -> { release.await(); return null; });
+        try {
+            List<int[][]> boards = Collections.singletonList(TestBoards.grid(TestBoards.EASY[0]));
+            assertThrows(BatchRejectedException.class, () -> verifier.verifyAll(boards));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void unfinishedBoardsExceedBudgetAfterDeadline() {
+        BatchVerifier verifier = verifier(1, 16, 100, Duration.ofMillis(20));
+        CountDownLatch release = new CountDownLatch(1);
+        // 占住唯一的线程，批量任务只能排队直到超时
+        executor.submit(() -> { release.await(); return null; });
+        try {
+            List<int[][]> boards = Arrays.asList(TestBoards.grid(TestBoards.EASY[0]), TestBoards.grid(TestBoards.EASY[1]));
+            List<VerifyResult> results = verifier.verifyAll(boards);
+            assertEquals(VerifyStatus.BUDGET_EXCEEDED, results.get(0).getStatus());
+            assertEquals(VerifyStatus.BUDGET_EXCEEDED, results.get(1).getStatus());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private BatchVerifier verifier(int threads, int queue, int maxSize, Duration timeout) {
+        SudokuProperties properties = new SudokuProperties();
+        properties.getCache().setEnabled(false);
+        properties.getStore().setEnabled(false);
+        properties.getBatch().setThreads(threads);
+        properties.getBatch().setMaxSize(maxSize);
+        properties.getBatch().setMaxPending(queue);
+        properties.getBudget().setTimeout(timeout);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), new ThreadPoolExecutor.AbortPolicy());
+        SolutionCache cache = new SolutionCache(properties);
+        SolutionStore store = new SolutionStore(properties);
+        SudokuMetrics metrics = new SudokuMetrics(new SimpleMeterRegistry(), cache, store);
+        SudokuService service = new SudokuService(properties, cache, store, metrics, pool);
+        return new BatchVerifier(service, executor, properties, metrics);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.TestBoards;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConflictReportTest {
+
+    @Test
+    void validBoardHasNoConflicts() {
+        ConflictReport report = ConflictReport.scan(TestBoards.grid(TestBoards.EASY[0]));
+        assertTrue(report.isEmpty());
+        assertEquals(0, report.cellIndices().length);
+        assertEquals("000000000000000000000", report.toHex());
+    }
+
+    @Test
+    void rowDuplicateMarksBothCells() {
+        int[][] g = new int[9][9];
+        g[2][1] = 4;
+        g[2][7] = 4;
+        ConflictReport report = ConflictReport.scan(g);
+        assertArrayEquals(new int[]{19, 25}, report.cellIndices());
+        assertEquals(2, report.getCount());
+    }
+
+    @Test
+    void columnAndBoxDuplicatesAreReportedTogether() {
+        int[][] g = new int[9][9];
+        // 第 1 列的 7 重复
+        g[0][0] = 7;
+        g[8][0] = 7;
+        // 中间宫的 3 重复，且不在同一行或同一列
+        g[3][3] = 3;
+        g[5][5] = 3;
+        // 与重复无关的数字不标记
+        g[4][4] = 9;
+        ConflictReport report = ConflictReport.scan(g);
+        assertArrayEquals(new int[]{0, 30, 50, 72}, report.cellIndices());
+        assertFalse(report.contains(40));
+    }
+
+    @Test
+    void sameDigitRepeatedThreeTimesMarksAllThree() {
+        int[][] g = new int[9][9];
+        g[0][0] = 5;
+        g[0][4] = 5;
+        g[0][8] = 5;
+        assertArrayEquals(new int[]{0, 4, 8}, ConflictReport.scan(g).cellIndices());
+    }
+
+    @Test
+    void highCellsUseUpperHexDigits() {
+        int[][] g = new int[9][9];
+        g[8][7] = 2;
+        g[8][8] = 2;
+        ConflictReport report = ConflictReport.scan(g);
+        assertTrue(report.contains(79));
+        assertTrue(report.contains(80));
+        // 第 79、80 格对应 high 的第 15、16 位
+        assertEquals("18000" + "0000000000000000", report.toHex());
+    }
+
+    @Test
+    void scratchIsResetBetweenScans() {
+        int[][] conflicting = new int[9][9];
+        conflicting[0][0] = 1;
+        conflicting[0][1] = 1;
+        assertFalse(ConflictReport.scan(conflicting).isEmpty());
+        assertTrue(ConflictReport.scan(TestBoards.grid(TestBoards.EASY[1])).isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.solver.NxNSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NxNValidationTest {
+
+    @Test
+    void validateGridAcceptsSupportedSides() {
+        for (int side : new int[]{4, 9, 16, 25}) {
+            SudokuService.validateGrid(new int[side][side]);
+        }
+    }
+
+    @Test
+    void validateGridRejectsBadShapesAndValues() {
+        assertThrows(IllegalArgumentException.class, () -> SudokuService.validateGrid(null));
+        assertThrows(IllegalArgumentException.class, () -> SudokuService.validateGrid(new int[8][8]));
+        assertThrows(IllegalArgumentException.class, () -> SudokuService.validateGrid(new int[][]{
+                {1, 2, 3, 4}, {0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}}));
+        int[][] g = new int[16][16];
+        g[3][5] = 17;
+        assertThrows(IllegalArgumentException.class, () -> SudokuService.validateGrid(g));
+        g[3][5] = -1;
+        assertThrows(IllegalArgumentException.class, () -> SudokuService.validateGrid(g));
+    }
+
+    @Test
+    void boxDuplicateOnFourByFour() {
+        int[][] g = new int[4][4];
+        g[0][0] = 2;
+        g[1][1] = 2;
+        CheckResult check = SudokuService.basicCheckWithPositions(g);
+        assertFalse(check.isValid());
+        assertEquals(2, check.getErrorNumber());
+        assertEquals(Arrays.asList("1_1", "2_2"), check.getErrorPositions());
+    }
+
+    @Test
+    void rowDuplicateOnSixteenBySixteen() {
+        int[][] g = new int[16][16];
+        g[15][0] = 16;
+        g[15][12] = 16;
+        CheckResult check = SudokuService.basicCheckWithPositions(g);
+        assertFalse(check.isValid());
+        assertEquals(16, check.getErrorNumber());
+        assertEquals(Arrays.asList("16_1", "16_13"), check.getErrorPositions());
+        assertTrue(SudokuService.basicCheckWithPositions(new int[16][16]).isValid());
+    }
+
+    @Test
+    void nxnSolverFillsEmptyBoards() {
+        for (int side : new int[]{4, 16}) {
+            int[][] puzzle = new int[side][side];
+            int[][] g = new int[side][side];
+            assertEquals(1, new NxNSolver(side).countSolutions(g, 1, null));
+            assertTrue(TestBoards.solves(puzzle, g));
+        }
+    }
+
+    @Test
+    void nxnSolverFindsBothSolutionsOfAFourByFour() {
+        // 去掉跨两个宫的矩形四角后，1 和 3 可以互换
+        int[][] g = {
+                {1, 2, 3, 4},
+                {3, 4, 1, 2},
+                {2, 1, 4, 3},
+                {4, 3, 2, 1}};
+        g[0][0] = 0;
+        g[0][2] = 0;
+        g[1][0] = 0;
+        g[1][2] = 0;
+        assertEquals(2, new NxNSolver(4).countSolutions(g, 10, null));
+    }
+}
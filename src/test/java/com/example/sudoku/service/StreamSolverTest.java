@@ -0,0 +1,129 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.cache.SolutionCache;
+import com.example.sudoku.cache.SolutionStore;
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamSolverTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final ForkJoinPool pool = new ForkJoinPool(1);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void everyLineGetsOneResultWithItsLineNumber() throws IOException {
+        String input = TestBoards.EASY[0] + "\n"
+                + "\n"
+                + "not a board\r\n"
+                + TestBoards.UNSOLVABLE + "\r"
+                + "55" + TestBoards.EASY[1].substring(2) + "\n"
+                + "  " + TestBoards.EASY[1] + "  ";
+        Map<Long, JsonNode> byLine = run(input, 3);
+
+        assertEquals(5, byLine.size());
+        assertEquals("SOLVED", byLine.get(1L).get("status").asText());
+        assertTrue(TestBoards.solves(TestBoards.grid(TestBoards.EASY[0]),
+                TestBoards.grid(byLine.get(1L).get("solution").asText())));
+        assertEquals("INVALID_INPUT", byLine.get(3L).get("status").asText());
+        assertEquals("UNSOLVABLE", byLine.get(4L).get("status").asText());
+        assertEquals("DUPLICATE", byLine.get(5L).get("status").asText());
+        assertTrue(byLine.get(5L).has("conflictMask"));
+        assertEquals("SOLVED", byLine.get(6L).get("status").asText());
+    }
+
+    @Test
+    void overlongLineIsSkippedWithAnError() throws IOException {
+        StringBuilder junk = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) junk.append('7');
+        String input = junk + "\n" + TestBoards.EASY[0] + "\n";
+        Map<Long, JsonNode> byLine = run(input, 2);
+
+        assertEquals(2, byLine.size());
+        assertEquals("INVALID_INPUT", byLine.get(1L).get("status").asText());
+        assertEquals("SOLVED", byLine.get(2L).get("status").asText());
+    }
+
+    @Test
+    void windowOfOneStillSolvesEverything() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 20; i++) input.append(TestBoards.EASY[i % 2]).append('\n');
+        Map<Long, JsonNode> byLine = run(input.toString(), 1);
+        assertEquals(20, byLine.size());
+        for (JsonNode node : byLine.values()) assertEquals("SOLVED", node.get("status").asText());
+    }
+
+    @Test
+    void lineReaderBoundsLineLength() throws IOException {
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < StreamSolver.MAX_LINE + 1; i++) longLine.append('x');
+        StreamSolver.LineReader reader = new StreamSolver.LineReader(
+                new StringReader("abc\r\n\r\n" + longLine + "\nlast"));
+
+        assertTrue(reader.next());
+        assertEquals("abc", reader.text());
+        assertTrue(reader.next());
+        assertEquals("", reader.text());
+        assertTrue(reader.next());
+        assertTrue(reader.isOverlong());
+        assertEquals(StreamSolver.MAX_LINE, reader.text().length());
+        assertTrue(reader.next());
+        assertFalse(reader.isOverlong());
+        assertEquals("last", reader.text());
+        assertFalse(reader.next());
+    }
+
+    private Map<Long, JsonNode> run(String input, int window) throws IOException {
+        SudokuProperties properties = new SudokuProperties();
+        properties.getCache().setEnabled(false);
+        properties.getStore().setEnabled(false);
+        properties.getStream().setWindow(window);
+        SolutionCache cache = new SolutionCache(properties);
+        SolutionStore store = new SolutionStore(properties);
+        SudokuMetrics metrics = new SudokuMetrics(new SimpleMeterRegistry(), cache, store);
+        SudokuService service = new SudokuService(properties, cache, store, metrics, pool);
+        StreamSolver solver = new StreamSolver(service, executor, mapper, properties, metrics);
+
+        InputStream in = new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = solver.solve(in, out);
+
+        Map<Long, JsonNode> byLine = new HashMap<>();
+        for (String line : out.toString("UTF-8").split("\n")) {
+            JsonNode node = mapper.readTree(line);
+            assertFalse(byLine.containsKey(node.get("line").asLong()), "每个输入行只输出一次");
+            byLine.put(node.get("line").asLong(), node);
+        }
+        // 返回值只计入提交求解的盘面，超长行不计
+        assertTrue(count <= byLine.size());
+        return byLine;
+    }
+}
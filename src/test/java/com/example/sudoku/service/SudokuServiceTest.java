@@ -0,0 +1,120 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.cache.SolutionCache;
+import com.example.sudoku.cache.SolutionStore;
+import com.example.sudoku.codec.BoardCodec;
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.solver.SolverEngine;
+import com.example.sudoku.trace.VerifyTrace;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SudokuServiceTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 回溯引擎在让出前已经把部分格子填进工作盘面，并行搜索必须从原始盘面重新开始，否则会得到错误的解或误判无解。
+     */
+    @Test
+    void yieldedSearchRestartsFromOriginalBoard() {
+        SudokuService service = service(SolverEngine.BACKTRACKING, true, 256);
+        for (String puzzle : new String[]{TestBoards.HARD[0], TestBoards.HARD[1], TestBoards.ADVERSARIAL}) {
+            int[][] grid = TestBoards.grid(puzzle);
+            VerifyResult result = service.verify(grid);
+            assertEquals(VerifyStatus.SOLVED, result.getStatus(), puzzle);
+            assertTrue(TestBoards.solves(grid, result.getSolution()), puzzle);
+            assertEquals(Boolean.TRUE, result.getUnique(), puzzle);
+            assertArrayEquals(TestBoards.grid(puzzle), grid, "调用方的盘面不应被修改");
+        }
+    }
+
+    @Test
+    void yieldedSearchFindsSecondSolution() {
+        SudokuService service = service(SolverEngine.BACKTRACKING, true, 256);
+        VerifyResult result = service.verify(TestBoards.grid(TestBoards.TWO_SOLUTIONS));
+        assertEquals(VerifyStatus.SOLVED, result.getStatus());
+        assertEquals(Boolean.FALSE, result.getUnique());
+    }
+
+    @Test
+    void yieldedSearchOnSixteenBySixteen() {
+        SudokuService service = service(SolverEngine.BITMASK, true, 256);
+        int[][] grid = new int[16][16];
+        grid[0][0] = 1;
+        grid[5][9] = 7;
+        VerifyResult result = service.verify(grid);
+        assertEquals(VerifyStatus.SOLVED, result.getStatus());
+        assertTrue(TestBoards.solves(grid, result.getSolution()));
+    }
+
+    @Test
+    void sequentialAndParallelAgree() {
+        SudokuService sequential = service(SolverEngine.BITMASK, false, 0);
+        SudokuService parallel = service(SolverEngine.BACKTRACKING, true, 256);
+        for (String puzzle : TestBoards.EASY) {
+            VerifyResult a = sequential.verify(TestBoards.grid(puzzle));
+            VerifyResult b = parallel.verify(TestBoards.grid(puzzle));
+            assertArrayEquals(a.getSolution(), b.getSolution());
+        }
+        assertEquals(VerifyStatus.UNSOLVABLE, parallel.verify(TestBoards.grid(TestBoards.UNSOLVABLE)).getStatus());
+    }
+
+    /**
+     * 一维盘面的入口与二维入口结论一致；9x9 的解以一维返回（含缓存命中），调用方的盘面不被修改。
+     */
+    @Test
+    void flatCellsMatchRowsPath() {
+        SudokuService service = service(SolverEngine.BITMASK, false, 0, true);
+        for (String puzzle : new String[]{TestBoards.EASY[0], TestBoards.HARD[0]}) {
+            int[] cells = BoardCodec.parseCells(puzzle);
+            VerifyResult miss = service.verify(cells, VerifyTrace.detached(), false);
+            VerifyResult hit = service.verify(cells, VerifyTrace.detached(), false);
+            VerifyResult rows = service.verify(TestBoards.grid(puzzle));
+            for (VerifyResult result : new VerifyResult[]{miss, hit, rows}) {
+                assertEquals(VerifyStatus.SOLVED, result.getStatus(), puzzle);
+                assertEquals(81, result.getCells().length, puzzle);
+                assertArrayEquals(miss.getCells(), result.getCells(), puzzle);
+                assertTrue(TestBoards.solves(TestBoards.grid(puzzle), result.getSolution()), puzzle);
+            }
+            assertArrayEquals(BoardCodec.parseCells(puzzle), cells, "调用方的盘面不应被修改");
+        }
+        int[] duplicate = BoardCodec.parseCells(TestBoards.EASY[0]);
+        duplicate[1] = duplicate[0];
+        VerifyResult result = service.verify(duplicate, VerifyTrace.detached(), false);
+        assertEquals(VerifyStatus.DUPLICATE, result.getStatus());
+        assertTrue(result.getConflicts().contains(0) && result.getConflicts().contains(1));
+    }
+
+    private SudokuService service(SolverEngine engine, boolean parallel, long afterNodes) {
+        return service(engine, parallel, afterNodes, false);
+    }
+
+    private SudokuService service(SolverEngine engine, boolean parallel, long afterNodes, boolean cached) {
+        SudokuProperties properties = new SudokuProperties();
+        properties.getSolver().setEngine(engine);
+        properties.getCache().setEnabled(cached);
+        properties.getStore().setEnabled(false);
+        properties.getParallel().setEnabled(parallel);
+        properties.getParallel().setAfterNodes(afterNodes);
+        properties.getBudget().setHeavyAfterNodes(afterNodes);
+        SolutionCache cache = new SolutionCache(properties);
+        SolutionStore store = new SolutionStore(properties);
+        return new SudokuService(properties, cache, store,
+                new SudokuMetrics(new SimpleMeterRegistry(), cache, store), pool);
+    }
+}
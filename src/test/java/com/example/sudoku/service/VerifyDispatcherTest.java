@@ -0,0 +1,96 @@
+package com.example.sudoku.service;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.cache.SolutionCache;
+import com.example.sudoku.cache.SolutionStore;
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.trace.VerifyTrace;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class VerifyDispatcherTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ForkJoinPool pool = new ForkJoinPool(1);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void offloadedVerifyReturnsResult() {
+        VerifyDispatcher dispatcher = dispatcher(Duration.ofSeconds(5));
+        VerifyResult result = dispatcher.verify(TestBoards.grid(TestBoards.EASY[0]), VerifyTrace.detached(), false);
+        assertEquals(VerifyStatus.SOLVED, result.getStatus());
+    }
+
+    @Test
+    void queuedTooLongReturnsBusy() throws InterruptedException {
+        VerifyDispatcher dispatcher = dispatcher(Duration.ofMillis(20));
+        CountDownLatch release = new CountDownLatch(1);
+        // 占住唯一的求解线程
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+        try {
+            VerifyResult result = dispatcher.verify(TestBoards.grid(TestBoards.EASY[0]), VerifyTrace.detached(), false);
+            assertEquals(VerifyStatus.BUSY, result.getStatus());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void asyncVerifyCompletesOnSolverThread() throws Exception {
+        VerifyDispatcher dispatcher = dispatcher(Duration.ofSeconds(5));
+        VerifyResult result = dispatcher.verifyAsync(TestBoards.grid(TestBoards.EASY[0]), VerifyTrace.detached(), false)
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(VerifyStatus.SOLVED, result.getStatus());
+    }
+
+    @Test
+    void asyncQueuedTooLongCompletesBusy() throws Exception {
+        VerifyDispatcher dispatcher = dispatcher(Duration.ofMillis(20));
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+        CompletableFuture<VerifyResult> future =
+                dispatcher.verifyAsync(TestBoards.grid(TestBoards.EASY[0]), VerifyTrace.detached(), false);
+        // 排队期间不阻塞调用方，求解线程空出来后发现已超过排队时限
+        assertFalse(future.isDone());
+        Thread.sleep(50);
+        release.countDown();
+        assertEquals(VerifyStatus.BUSY, future.get(5, TimeUnit.SECONDS).getStatus());
+    }
+
+    private VerifyDispatcher dispatcher(Duration timeout) {
+        SudokuProperties properties = new SudokuProperties();
+        properties.getCache().setEnabled(false);
+        properties.getStore().setEnabled(false);
+        properties.getExecution().setOffload(true);
+        properties.getBudget().setTimeout(timeout);
+        SolutionCache cache = new SolutionCache(properties);
+        SolutionStore store = new SolutionStore(properties);
+        SudokuMetrics metrics = new SudokuMetrics(new SimpleMeterRegistry(), cache, store);
+        SudokuService service = new SudokuService(properties, cache, store, metrics, pool);
+        return new VerifyDispatcher(service, executor, properties, metrics);
+    }
+}
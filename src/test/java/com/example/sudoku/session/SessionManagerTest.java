@@ -0,0 +1,149 @@
+package com.example.sudoku.session;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.cache.SolutionCache;
+import com.example.sudoku.cache.SolutionStore;
+import com.example.sudoku.config.SudokuProperties;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.service.SudokuService;
+import com.example.sudoku.service.VerifyDispatcher;
+import com.example.sudoku.service.VerifyResult;
+import com.example.sudoku.service.VerifyStatus;
+import com.example.sudoku.solver.SolverEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionManagerTest {
+
+    private static final int MAX = 50;
+
+    private final int[][] givens = TestBoards.grid(TestBoards.EASY[0]);
+    private final int[][] solution = solved();
+
+    private static int[][] solved() {
+        int[][] g = TestBoards.grid(TestBoards.EASY[0]);
+        SolverEngine.BITMASK.solve(g);
+        return g;
+    }
+
+    private SessionManager manager() {
+        SudokuProperties properties = new SudokuProperties();
+        properties.getSession().setMaxSessions(MAX);
+        // 不调用 afterPropertiesSet，不启动后台清理
+        return new SessionManager(null, properties);
+    }
+
+    @Test
+    void rejectsOpenWhenFullAndFreesSlotOnClose() {
+        SessionManager manager = manager();
+        List<BoardSession> opened = new ArrayList<>();
+        for (int i = 0; i < MAX; i++) opened.add(manager.open(givens, solution, true));
+        assertThrows(SessionLimitException.class, () -> manager.open(givens, solution, true));
+
+        assertTrue(manager.close(opened.get(0).getId()));
+        assertFalse(manager.close(opened.get(0).getId()));
+        assertNotNull(manager.open(givens, solution, true));
+        assertThrows(SessionLimitException.class, () -> manager.open(givens, solution, true));
+    }
+
+    @Test
+    void concurrentOpensNeverExceedLimit() throws Exception {
+        SessionManager manager = manager();
+        int threads = 8, attempts = MAX * 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        manager.open(givens, solution, true);
+                        return true;
+                    } catch (SessionLimitException ex) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> f : results) {
+                if (f.get(10, TimeUnit.SECONDS)) succeeded++;
+            }
+            assertEquals(MAX, succeeded);
+            assertEquals(MAX, manager.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void checkSolvesOutsideSessionLock() throws Exception {
+        ExecutorService solver = Executors.newSingleThreadExecutor();
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        ForkJoinPool search = new ForkJoinPool(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            SudokuProperties properties = new SudokuProperties();
+            properties.getSession().setMaxSessions(MAX);
+            properties.getCache().setEnabled(false);
+            properties.getStore().setEnabled(false);
+            properties.getExecution().setOffload(true);
+            properties.getBudget().setTimeout(Duration.ofSeconds(5));
+            SolutionCache cache = new SolutionCache(properties);
+            SolutionStore store = new SolutionStore(properties);
+            SudokuMetrics metrics = new SudokuMetrics(new SimpleMeterRegistry(), cache, store);
+            SudokuService service = new SudokuService(properties, cache, store, metrics, search);
+            SessionManager manager = new SessionManager(new VerifyDispatcher(service, solver, properties, metrics), properties);
+
+            // 题目标记为解不唯一，填一个与已知解不符但不冲突的数字，检查时必须重新求解
+            BoardSession session = manager.open(givens, solution, false);
+            int cell = deviate(session);
+            // 占住唯一的求解线程，check 只能在锁外排队等待
+            solver.submit(() -> {
+                release.await();
+                return null;
+            });
+            Future<VerifyResult> checking = caller.submit(() -> manager.check(session));
+            Thread.sleep(50);
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> session.move(cell / 9, cell % 9, 0));
+            release.countDown();
+            assertEquals(VerifyStatus.UNSOLVABLE, checking.get(10, TimeUnit.SECONDS).getStatus());
+        } finally {
+            release.countDown();
+            solver.shutdownNow();
+            caller.shutdownNow();
+            search.shutdownNow();
+        }
+    }
+
+    /** 找一个空格填入与已知解不同、也不与已有数字冲突的数字，返回格子下标 */
+    private int deviate(BoardSession session) {
+        for (int i = 0; i < 81; i++) {
+            if (givens[i / 9][i % 9] != 0) continue;
+            for (int v = 1; v <= 9; v++) {
+                if (v == solution[i / 9][i % 9]) continue;
+                if (!session.move(i / 9, i % 9, v).isConflict()) return i;
+                session.move(i / 9, i % 9, 0);
+            }
+        }
+        throw new IllegalStateException("没有可以填错的格子");
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.sudoku.solver;
+
+import com.example.sudoku.TestBoards;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DlxSolverTest {
+
+    private final DlxSolver solver = new DlxSolver();
+
+    @Test
+    void uniqueBoardsHaveOneSolution() {
+        for (String[] group : new String[][]{TestBoards.EASY, TestBoards.HARD}) {
+            for (String puzzle : group) {
+                assertEquals(1, solver.countSolutions(TestBoards.grid(puzzle), 2), puzzle);
+            }
+        }
+    }
+
+    @Test
+    void countStopsAtLimit() {
+        assertEquals(2, solver.countSolutions(TestBoards.grid(TestBoards.TWO_SOLUTIONS), 2));
+        assertEquals(2, solver.countSolutions(TestBoards.grid(TestBoards.TWO_SOLUTIONS), 5));
+        assertEquals(1, solver.countSolutions(TestBoards.grid(TestBoards.TWO_SOLUTIONS), 1));
+        // 空盘面有大量解，只数到上限
+        assertEquals(3, solver.countSolutions(new int[9][9], 3));
+    }
+
+    @Test
+    void unsolvableBoardHasNoSolution() {
+        int[][] grid = TestBoards.grid(TestBoards.UNSOLVABLE);
+        assertEquals(0, solver.countSolutions(grid, 2));
+        assertArrayEquals(TestBoards.grid(TestBoards.UNSOLVABLE), grid);
+    }
+
+    @Test
+    void countWritesFirstSolution() {
+        int[][] given = TestBoards.grid(TestBoards.TWO_SOLUTIONS);
+        int[][] grid = TestBoards.grid(TestBoards.TWO_SOLUTIONS);
+        assertEquals(2, solver.countSolutions(grid, 2));
+        assertTrue(TestBoards.solves(given, grid));
+    }
+
+    @Test
+    void countLeavesBoardUntouched() {
+        int[] board = Grid81.flatten(TestBoards.grid(TestBoards.TWO_SOLUTIONS));
+        int[] given = board.clone();
+        assertEquals(2, solver.count(board, 2, null));
+        assertEquals(1, solver.count(Grid81.flatten(TestBoards.grid(TestBoards.HARD[0])), 2, null));
+        assertArrayEquals(given, board);
+    }
+
+    @Test
+    void flatBoardCountsLikeRows() {
+        for (String puzzle : TestBoards.HARD) {
+            int[][] rows = TestBoards.grid(puzzle);
+            int[] flat = Grid81.flatten(rows);
+            assertEquals(solver.countSolutions(rows, 2), solver.countSolutions(flat, 2, null));
+            assertArrayEquals(rows, Grid81.toRows(flat));
+        }
+    }
+
+    @Test
+    void budgetAbortsCounting() {
+        SolveBudget budget = new SolveBudget(SolveBudget.CHECK_INTERVAL, 0, 0, null);
+        SolveAbortedException ex = assertThrows(SolveAbortedException.class,
+                () -> solver.countSolutions(new int[9][9], Integer.MAX_VALUE, budget));
+        assertEquals(SolveAbortedException.Reason.NODES, ex.getReason());
+    }
+
+    @Test
+    void solverCanBeReused() {
+        int[][] first = TestBoards.grid(TestBoards.HARD[0]);
+        assertTrue(solver.solve(first));
+        assertEquals(0, solver.countSolutions(TestBoards.grid(TestBoards.UNSOLVABLE), 2));
+        int[][] again = TestBoards.grid(TestBoards.HARD[0]);
+        assertTrue(solver.solve(again));
+        assertArrayEquals(first, again);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.sudoku.solver;
+
+import com.example.sudoku.TestBoards;
+import com.example.sudoku.codec.BoardCodec;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelSolverTest {
+
+    private static ForkJoinPool pool;
+    private static ParallelSolver solver;
+
+    @BeforeAll
+    static void start() {
+        pool = new ForkJoinPool(4);
+        solver = new ParallelSolver(pool);
+    }
+
+    @AfterAll
+    static void stop() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void solvesHardBoards() {
+        for (String puzzle : TestBoards.HARD) {
+            int[][] grid = TestBoards.grid(puzzle);
+            SolveStats stats = new SolveStats();
+            assertTrue(solver.solve(grid, stats, null), puzzle);
+            assertTrue(TestBoards.solves(TestBoards.grid(puzzle), grid), puzzle);
+            assertTrue(stats.getNodes() > 0);
+        }
+    }
+
+    @Test
+    void countsAreSummedAcrossSubtrees() {
+        // 空的 4x4 盘面共有 288 个解，分散在各个子树中
+        assertEquals(288, solver.countSolutions(new int[4][4], 1000, null, null));
+        assertEquals(2, solver.countSolutions(TestBoards.grid(TestBoards.TWO_SOLUTIONS), 10, null, null));
+        assertEquals(0, solver.countSolutions(TestBoards.grid(TestBoards.UNSOLVABLE), 2, null, null));
+    }
+
+    @Test
+    void reachingLimitCancelsSiblings() {
+        // 空的 9x9 盘面解的数量极大，只有在达到上限后取消其余子树才能结束
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            assertEquals(5, solver.countSolutions(new int[9][9], 5, null, null));
+            int[][] grid = new int[9][9];
+            assertEquals(1, solver.countSolutions(grid, 1, null, null));
+            assertTrue(TestBoards.solves(new int[9][9], grid));
+        });
+    }
+
+    @Test
+    void cancelledBudgetStopsSplitPhase() {
+        // EASY 盘面每层只有一个分支，整盘都在拆分阶段解完，不会经过 tick()
+        SolveBudget budget = new SolveBudget(0, 0, 0, null);
+        budget.cancel();
+        int[][] grid = TestBoards.grid(TestBoards.EASY[0]);
+        SolveAbortedException ex = assertThrows(SolveAbortedException.class,
+                () -> solver.solve(grid, null, budget));
+        assertEquals(SolveAbortedException.Reason.CANCELLED, ex.getReason());
+        assertEquals(TestBoards.EASY[0], BoardCodec.format81(grid));
+    }
+
+    @Test
+    void expiredDeadlineStopsSplitPhase() throws InterruptedException {
+        SolveBudget budget = new SolveBudget(0, 1, 0, null);
+        Thread.sleep(2);
+        SolveAbortedException ex = assertThrows(SolveAbortedException.class,
+                () -> solver.solve(TestBoards.grid(TestBoards.EASY[0]), null, budget));
+        assertEquals(SolveAbortedException.Reason.TIME, ex.getReason());
+    }
+}
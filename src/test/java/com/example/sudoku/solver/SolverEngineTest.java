@@ -0,0 +1,79 @@
+package com.example.sudoku.solver;
+
+import com.example.sudoku.TestBoards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolverEngineTest {
+
+    @ParameterizedTest
+    @EnumSource(SolverEngine.class)
+    void solvesEasyBoards(SolverEngine engine) {
+        for (String puzzle : TestBoards.EASY) {
+            int[][] given = TestBoards.grid(puzzle);
+            int[][] grid = TestBoards.grid(puzzle);
+            assertTrue(engine.solve(grid), puzzle);
+            assertTrue(TestBoards.solves(given, grid), puzzle);
+        }
+    }
+
+    @Test
+    void enginesAgreeOnUniqueBoards() {
+        for (String[] group : new String[][]{TestBoards.EASY, TestBoards.HARD}) {
+            for (String puzzle : group) {
+                int[][] expected = TestBoards.grid(puzzle);
+                assertTrue(SolverEngine.BITMASK.solve(expected), puzzle);
+                int[][] dlx = TestBoards.grid(puzzle);
+                assertTrue(SolverEngine.DLX.solve(dlx), puzzle);
+                assertArrayEquals(expected, dlx, puzzle);
+            }
+        }
+    }
+
+    @Test
+    void flatAndRowBoardsGiveSameSolution() {
+        for (String puzzle : TestBoards.HARD) {
+            int[][] rows = TestBoards.grid(puzzle);
+            int[] flat = Grid81.flatten(rows);
+            assertTrue(SolverEngine.BITMASK.solve(rows));
+            assertTrue(SolverEngine.BITMASK.solve(flat, null, null));
+            assertArrayEquals(rows, Grid81.toRows(flat));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(SolverEngine.class)
+    void unsolvableBoardIsLeftUnchanged(SolverEngine engine) {
+        int[][] grid = TestBoards.grid(TestBoards.UNSOLVABLE);
+        assertFalse(engine.solve(grid));
+        assertArrayEquals(TestBoards.grid(TestBoards.UNSOLVABLE), grid);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SolverEngine.class)
+    void statsCountSearchNodes(SolverEngine engine) {
+        SolveStats stats = new SolveStats();
+        assertTrue(engine.solve(TestBoards.grid(TestBoards.EASY[0]), stats));
+        assertTrue(stats.getNodes() > 0);
+    }
+
+    /**
+     * BITMASK 与 DLX 在这些题目上都用不到一个检查间隔的节点，只有朴素回溯能稳定触发中止。
+     */
+    @Test
+    void exhaustedBudgetAbortsAndKeepsBoard() {
+        int[][] grid = TestBoards.grid(TestBoards.ADVERSARIAL);
+        SolveBudget budget = new SolveBudget(SolveBudget.CHECK_INTERVAL, 0, 0, null);
+        SolveAbortedException ex = assertThrows(SolveAbortedException.class,
+                () -> SolverEngine.BACKTRACKING.solve(grid, null, budget));
+        assertEquals(SolveAbortedException.Reason.NODES, ex.getReason());
+        assertArrayEquals(TestBoards.grid(TestBoards.ADVERSARIAL), grid);
+    }
+}